@@ -0,0 +1,166 @@
+package br.ufjf.capivara.benchmarks;
+
+import java.io.IOException;
+import java.io.Writer;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.Map;
+import java.util.concurrent.TimeUnit;
+
+import org.eclipse.jdt.core.dom.CompilationUnit;
+import org.eclipse.jdt.core.dom.MethodDeclaration;
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Fork;
+import org.openjdk.jmh.annotations.Level;
+import org.openjdk.jmh.annotations.Measurement;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Param;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+import org.openjdk.jmh.annotations.Warmup;
+import org.openjdk.jmh.infra.Blackhole;
+
+import br.ufjf.capivara.analyzer.CauseEffectVisitor;
+import br.ufjf.capivara.analyzer.CodeAnalyzer;
+import br.ufjf.capivara.analyzer.CodeAnalyzer.ParseMode;
+import br.ufjf.capivara.graph.GraphvizGenerator;
+import br.ufjf.capivara.model.ControlFlowGraph;
+import br.ufjf.capivara.table.TruthTableGenerator;
+import br.ufjf.capivara.table.TruthTableGenerator.TableMode;
+
+/**
+ * Etapas da análise medidas separadamente e de ponta a ponta, sobre o código dado
+ * por {@link #loadSource()}.
+ * <p>
+ * Cada etapa recebe pronto o resultado das anteriores, preparado uma única vez por
+ * execução: {@link #controlFlowGraph} visita a AST já analisada, {@link #dotGraph}
+ * escreve os grafos já construídos, e assim por diante. {@link #endToEnd} repete o
+ * caminho do {@code BatchAnalyzer}: análise, grafo, condições e caminhos em uma
+ * visita, tabela e DOT de cada método escritos em um {@link Writer}.
+ * <p>
+ * {@link #parse} e {@link #parseFocal} usam o modo padrão do {@link CodeAnalyzer}
+ * ({@link ParseMode#SYNTAX_ONLY}); {@link #parseBindings} usa o modo
+ * {@link ParseMode#BINDINGS}, a configuração anterior, para comparar os dois.
+ * <p>
+ * {@link #truthTable} monta a tabela em uma String, como {@code generateTruthTable};
+ * com 20 condições a tabela completa tem cerca de 600 MB, por isso a JVM dos
+ * benchmarks usa {@code -Xmx3g}. {@link #truthTableStream} e {@link #endToEnd}
+ * escrevem em um {@link Writer#nullWriter()}, sem guardar a saída.
+ */
+@State(Scope.Benchmark)
+@BenchmarkMode(Mode.Throughput)
+@OutputTimeUnit(TimeUnit.SECONDS)
+@Warmup(iterations = 3, time = 2)
+@Measurement(iterations = 5, time = 2)
+@Fork(value = 1, jvmArgsAppend = "-Xmx3g")
+public abstract class AnalysisBenchmark {
+
+	/** Forma da tabela gerada por {@link #truthTable} e {@link #endToEnd}. */
+	@Param({ "FULL" })
+	public TableMode tableMode;
+
+	private String source;
+	private int focalPosition;
+	private CompilationUnit compilationUnit;
+	private List<MethodDeclaration> methods;
+	private List<ControlFlowGraph> graphs;
+	private TruthTableGenerator truthTableGenerator;
+	private GraphvizGenerator graphvizGenerator;
+
+	/**
+	 * @return O código-fonte analisado pelos benchmarks.
+	 */
+	protected abstract String loadSource();
+
+	@Setup(Level.Trial)
+	public void setup() {
+		source = loadSource();
+		compilationUnit = new CodeAnalyzer().parse(source);
+		CauseEffectVisitor visitor = new CauseEffectVisitor();
+		visitor.setup(compilationUnit);
+		compilationUnit.accept(visitor);
+		methods = new ArrayList<>(visitor.getControlFlowGraphs().keySet());
+		graphs = new ArrayList<>(visitor.getControlFlowGraphs().values());
+		if (methods.isEmpty()) {
+			throw new IllegalStateException("O código não tem métodos");
+		}
+
+		// Foco no método mais longo, como ao analisar a seleção no editor
+		MethodDeclaration longest = methods.get(0);
+		for (MethodDeclaration method : methods) {
+			if (method.getLength() > longest.getLength()) {
+				longest = method;
+			}
+		}
+		focalPosition = longest.getStartPosition() + longest.getLength() / 2;
+
+		truthTableGenerator = new TruthTableGenerator();
+		truthTableGenerator.setTableMode(tableMode);
+		graphvizGenerator = new GraphvizGenerator();
+	}
+
+	@Benchmark
+	public CompilationUnit parse() {
+		return new CodeAnalyzer().parse(source);
+	}
+
+	@Benchmark
+	public CompilationUnit parseFocal() {
+		return new CodeAnalyzer().parse(source, focalPosition, null);
+	}
+
+	@Benchmark
+	public CompilationUnit parseBindings() {
+		CodeAnalyzer analyzer = new CodeAnalyzer();
+		analyzer.setParseMode(ParseMode.BINDINGS);
+		return analyzer.parse(source);
+	}
+
+	@Benchmark
+	public Map<MethodDeclaration, ControlFlowGraph> controlFlowGraph() {
+		CauseEffectVisitor visitor = new CauseEffectVisitor();
+		visitor.setup(compilationUnit);
+		compilationUnit.accept(visitor);
+		return visitor.getControlFlowGraphs();
+	}
+
+	@Benchmark
+	public void truthTable(Blackhole blackhole) {
+		for (MethodDeclaration method : methods) {
+			blackhole.consume(truthTableGenerator.generateTruthTable(compilationUnit, method));
+		}
+	}
+
+	@Benchmark
+	public void truthTableStream() throws IOException {
+		Writer out = Writer.nullWriter();
+		for (MethodDeclaration method : methods) {
+			truthTableGenerator.writeTruthTable(compilationUnit, method, out);
+		}
+	}
+
+	@Benchmark
+	public void dotGraph(Blackhole blackhole) {
+		for (ControlFlowGraph graph : graphs) {
+			blackhole.consume(graphvizGenerator.generateDotGraph(graph));
+		}
+	}
+
+	@Benchmark
+	public void endToEnd() throws IOException {
+		Writer out = Writer.nullWriter();
+		CompilationUnit cu = new CodeAnalyzer().parse(source);
+		CauseEffectVisitor visitor = new CauseEffectVisitor();
+		visitor.setup(cu);
+		cu.accept(visitor);
+		for (Map.Entry<MethodDeclaration, ControlFlowGraph> entry : visitor.getControlFlowGraphs().entrySet()) {
+			MethodDeclaration method = entry.getKey();
+			truthTableGenerator.writeTruthTable(visitor.getAtomicConditions(method),
+					visitor.getPathConditions(method), out, null);
+			graphvizGenerator.writeDotGraph(entry.getValue(), out);
+		}
+	}
+}
@@ -0,0 +1,29 @@
+package br.ufjf.capivara.benchmarks;
+
+import org.openjdk.jmh.profile.GCProfiler;
+import org.openjdk.jmh.runner.Runner;
+import org.openjdk.jmh.runner.options.CommandLineOptions;
+import org.openjdk.jmh.runner.options.OptionsBuilder;
+
+/**
+ * Ponto de entrada do {@code benchmarks.jar}. Aceita as mesmas opções do
+ * {@link org.openjdk.jmh.Main}; quando nenhum profiler é pedido com {@code -prof},
+ * usa o {@link GCProfiler}, para que cada resultado venha com a taxa de alocação
+ * ({@code gc.alloc.rate.norm}, em bytes por operação).
+ */
+public final class BenchmarkMain {
+
+	private BenchmarkMain() {
+	}
+
+	public static void main(String[] args) throws Exception {
+		CommandLineOptions commandLine = new CommandLineOptions(args);
+		if (!commandLine.getProfilers().isEmpty() || commandLine.shouldHelp() || commandLine.shouldList()
+				|| commandLine.shouldListWithParams() || commandLine.shouldListProfilers()
+				|| commandLine.shouldListResultFormats()) {
+			org.openjdk.jmh.Main.main(args);
+			return;
+		}
+		new Runner(new OptionsBuilder().parent(commandLine).addProfiler(GCProfiler.class).build()).run();
+	}
+}
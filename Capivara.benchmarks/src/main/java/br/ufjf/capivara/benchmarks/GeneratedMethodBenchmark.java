@@ -0,0 +1,23 @@
+package br.ufjf.capivara.benchmarks;
+
+import org.openjdk.jmh.annotations.Param;
+
+/**
+ * Etapas da análise sobre um método gerado por {@link MethodCorpus#generate}, com
+ * número de condições e de comandos controlados.
+ * <p>
+ * A tabela completa dobra a cada condição; com 20 condições ela tem 2^20 linhas.
+ */
+public class GeneratedMethodBenchmark extends AnalysisBenchmark {
+
+	@Param({ "5", "10", "15", "20" })
+	public int conditions;
+
+	@Param({ "100", "1000", "10000" })
+	public int statements;
+
+	@Override
+	protected String loadSource() {
+		return MethodCorpus.generate(conditions, statements);
+	}
+}
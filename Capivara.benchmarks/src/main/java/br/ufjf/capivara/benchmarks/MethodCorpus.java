@@ -0,0 +1,113 @@
+package br.ufjf.capivara.benchmarks;
+
+import java.io.IOException;
+import java.io.InputStream;
+import java.io.UncheckedIOException;
+import java.nio.charset.StandardCharsets;
+
+/**
+ * Corpus de código dos benchmarks: métodos gerados, com tamanho e número de
+ * condições conhecidos, e arquivos reais do próprio plugin.
+ */
+public final class MethodCorpus {
+
+	private static final String[] VARIABLES = { "a", "b", "c", "v.length" };
+	private static final String[] OPERATORS = { ">", "<", "==", "!=", ">=", "<=" };
+
+	// A cada quantos comandos de preenchimento um deles vira um laço
+	private static final int LOOP_SPACING = 25;
+
+	private MethodCorpus() {
+	}
+
+	/**
+	 * Gera uma classe com um único método de cerca de {@code statements} comandos e
+	 * exatamente {@code conditions} condições atômicas distintas.
+	 * <p>
+	 * As condições são agrupadas duas a duas em {@code if}s com {@code else},
+	 * alternando {@code &&} e {@code ||}, e espalhadas entre comandos de atribuição
+	 * ({@code x = x * 31 + k;}), com um laço {@code for} a cada
+	 * {@value #LOOP_SPACING} comandos. O último {@code if} retorna, para que a tabela
+	 * tenha efeitos de retorno e de atribuição.
+	 *
+	 * @param conditions O número de condições atômicas.
+	 * @param statements O número aproximado de comandos do método, contando cada
+	 *                   {@code if} e cada laço junto com os comandos que contém.
+	 * @return O código-fonte da classe.
+	 */
+	public static String generate(int conditions, int statements) {
+		int decisions = (conditions + 1) / 2;
+		// Declarações, retorno final e, em cada if, o if e os dois ramos
+		int filler = Math.max(0, statements - 3 - 3 * decisions);
+		StringBuilder code = new StringBuilder(64 + statements * 24);
+		code.append("public class Generated {\n");
+		code.append("\tint analyze(int a, int b, int c, int[] v) {\n");
+		code.append("\t\tint x = 0;\n");
+		code.append("\t\tint r = 0;\n");
+
+		int atom = 0;
+		int emitted = 0;
+		for (int decision = 0; decision < decisions; decision++) {
+			// Preenchimento antes de cada decisão, para espalhá-las pelo método
+			int target = (int) ((long) filler * (decision + 1) / (decisions + 1));
+			emitted = appendFiller(code, emitted, target);
+
+			code.append("\t\tif (").append(condition(atom++));
+			if (atom < conditions) {
+				code.append(decision % 2 == 0 ? " && " : " || ").append(condition(atom++));
+			}
+			code.append(") {\n");
+			if (decision == decisions - 1) {
+				code.append("\t\t\treturn r + ").append(decision).append(";\n");
+			} else {
+				code.append("\t\t\tr = ").append(decision).append(";\n");
+			}
+			code.append("\t\t} else {\n");
+			code.append("\t\t\tr = -").append(decision).append(";\n");
+			code.append("\t\t}\n");
+		}
+		appendFiller(code, emitted, filler);
+
+		code.append("\t\treturn x + r;\n");
+		code.append("\t}\n");
+		code.append("}\n");
+		return code.toString();
+	}
+
+	/**
+	 * Lê um arquivo do corpus de código real, empacotado a partir do código do plugin.
+	 *
+	 * @param path O caminho relativo a {@code br/ufjf/capivara}, por exemplo
+	 *             {@code analyzer/CauseEffectVisitor.java}.
+	 * @return O código-fonte do arquivo.
+	 */
+	public static String load(String path) {
+		try (InputStream in = MethodCorpus.class.getResourceAsStream("/corpus/" + path)) {
+			if (in == null) {
+				throw new IllegalArgumentException("Arquivo fora do corpus: " + path);
+			}
+			return new String(in.readAllBytes(), StandardCharsets.UTF_8);
+		} catch (IOException e) {
+			throw new UncheckedIOException(e);
+		}
+	}
+
+	private static String condition(int index) {
+		return VARIABLES[index % VARIABLES.length] + " " + OPERATORS[index % OPERATORS.length] + " " + index;
+	}
+
+	private static int appendFiller(StringBuilder code, int emitted, int target) {
+		while (emitted < target) {
+			if (emitted % LOOP_SPACING == LOOP_SPACING - 1 && target - emitted >= 2) {
+				code.append("\t\tfor (int i = 0; i < c; i++) {\n");
+				code.append("\t\t\tx = x + i;\n");
+				code.append("\t\t}\n");
+				emitted += 2;
+			} else {
+				code.append("\t\tx = x * 31 + ").append(emitted).append(";\n");
+				emitted++;
+			}
+		}
+		return emitted;
+	}
+}
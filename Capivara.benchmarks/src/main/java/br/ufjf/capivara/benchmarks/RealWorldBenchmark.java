@@ -0,0 +1,19 @@
+package br.ufjf.capivara.benchmarks;
+
+import org.openjdk.jmh.annotations.Param;
+
+/**
+ * Etapas da análise sobre arquivos reais, todos os métodos de cada arquivo. O corpus é
+ * o código do próprio plugin, copiado para o jar dos benchmarks no build.
+ */
+public class RealWorldBenchmark extends AnalysisBenchmark {
+
+	@Param({ "analyzer/CauseEffectVisitor.java", "batch/BatchAnalyzer.java", "graph/GraphLayout.java",
+			"table/CubeMinimizer.java", "table/TruthTableGenerator.java" })
+	public String file;
+
+	@Override
+	protected String loadSource() {
+		return MethodCorpus.load(file);
+	}
+}
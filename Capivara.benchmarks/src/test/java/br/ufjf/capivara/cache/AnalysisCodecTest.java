@@ -0,0 +1,97 @@
+package br.ufjf.capivara.cache;
+
+import static org.junit.jupiter.api.Assertions.assertArrayEquals;
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertNull;
+import static org.junit.jupiter.api.Assertions.assertThrows;
+
+import java.nio.ByteBuffer;
+import java.util.Arrays;
+import java.util.List;
+
+import org.junit.jupiter.api.Test;
+
+import br.ufjf.capivara.graph.GraphvizGenerator;
+import br.ufjf.capivara.model.ConditionProgram;
+import br.ufjf.capivara.model.PathCondition;
+import br.ufjf.capivara.table.RandomMethod;
+import br.ufjf.capivara.table.TruthTableGenerator;
+import br.ufjf.capivara.table.TruthTableGenerator.TableMode;
+import br.ufjf.capivara.table.TruthTableRows;
+
+class AnalysisCodecTest {
+
+	@Test
+	void decodeRestoresEncodedAnalysis() {
+		GraphvizGenerator graphGenerator = new GraphvizGenerator();
+		for (TableMode mode : TableMode.values()) {
+			TruthTableGenerator truthTableGenerator = new TruthTableGenerator();
+			truthTableGenerator.setTableMode(mode);
+			for (long seed = 0; seed < 50; seed++) {
+				RandomMethod method = RandomMethod.generate(seed, 5);
+				CachedMethodAnalysis analysis = new CachedMethodAnalysis(method.getGraph(), method.getFirstLine(),
+						method.getConditions(), method.getPaths(),
+						truthTableGenerator.createRows(method.getConditions(), method.getPaths(), null),
+						graphGenerator.generateDotGraph(method.getGraph()));
+
+				CachedMethodAnalysis decoded = AnalysisCodec.decode(ByteBuffer.wrap(AnalysisCodec.encode(analysis)),
+						truthTableGenerator, graphGenerator);
+
+				String context = mode + ", semente " + seed;
+				assertEquals(analysis.getFirstLine(), decoded.getFirstLine(), context);
+				assertEquals(analysis.getConditions(), decoded.getConditions(), context);
+				assertEquals(analysis.getDotGraph(), decoded.getDotGraph(), context);
+				assertPathsEqual(analysis.getPathConditions(), decoded.getPathConditions(), context);
+				assertRowsEqual(analysis.getTruthTable(), decoded.getTruthTable(), context);
+			}
+		}
+	}
+
+	@Test
+	void truncatedBytesAreRejected() {
+		RandomMethod method = RandomMethod.generate(7, 4);
+		TruthTableGenerator truthTableGenerator = new TruthTableGenerator();
+		GraphvizGenerator graphGenerator = new GraphvizGenerator();
+		byte[] bytes = AnalysisCodec.encode(new CachedMethodAnalysis(method.getGraph(), method.getFirstLine(),
+				method.getConditions(), method.getPaths(),
+				truthTableGenerator.createRows(method.getConditions(), method.getPaths(), null),
+				graphGenerator.generateDotGraph(method.getGraph())));
+		for (int length = 0; length < bytes.length; length += Math.max(1, bytes.length / 16)) {
+			ByteBuffer truncated = ByteBuffer.wrap(Arrays.copyOf(bytes, length));
+			assertThrows(IllegalArgumentException.class,
+					() -> AnalysisCodec.decode(truncated, truthTableGenerator, graphGenerator), "tamanho " + length);
+		}
+	}
+
+	@Test
+	void stringRoundTrip() {
+		for (String text : new String[] { "", "/saída/Classe.método_L12", "ação ✓" }) {
+			assertEquals(text, AnalysisCodec.decodeString(ByteBuffer.wrap(AnalysisCodec.encodeString(text))));
+		}
+	}
+
+	private static void assertPathsEqual(List<PathCondition> expected, List<PathCondition> actual, String context) {
+		assertEquals(expected, actual, context);
+		for (int i = 0; i < expected.size(); i++) {
+			ConditionProgram expectedProgram = expected.get(i).getProgram();
+			ConditionProgram actualProgram = actual.get(i).getProgram();
+			if (expectedProgram == null) {
+				assertNull(actualProgram, context);
+				continue;
+			}
+			assertEquals(expectedProgram.length(), actualProgram.length(), context);
+			for (int op = 0; op < expectedProgram.length(); op++) {
+				assertEquals(expectedProgram.opAt(op), actualProgram.opAt(op), context + ", caminho " + i);
+			}
+		}
+	}
+
+	private static void assertRowsEqual(TruthTableRows expected, TruthTableRows actual, String context) {
+		assertEquals(expected.getMessage(), actual.getMessage(), context);
+		assertEquals(expected.getConditions(), actual.getConditions(), context);
+		assertEquals(expected.getRowCount(), actual.getRowCount(), context);
+		for (long row = 0; row < expected.getRowCount(); row++) {
+			assertArrayEquals(expected.getRow(row), actual.getRow(row), context + ", linha " + (row + 1));
+		}
+	}
+}
@@ -0,0 +1,92 @@
+package br.ufjf.capivara.table;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertFalse;
+import static org.junit.jupiter.api.Assertions.assertNotNull;
+import static org.junit.jupiter.api.Assertions.assertNull;
+import static org.junit.jupiter.api.Assertions.assertThrows;
+import static org.junit.jupiter.api.Assertions.assertTrue;
+
+import java.util.Arrays;
+import java.util.List;
+
+import org.junit.jupiter.api.Test;
+
+class CoveringArrayTest {
+
+	@Test
+	void everyTupleIsCovered() {
+		for (int t = 1; t <= 4; t++) {
+			for (int n = 1; n <= 14; n++) {
+				List<byte[]> rows = CoveringArray.generate(n, t, null);
+				assertNotNull(rows);
+				assertCoversEveryTuple(rows, n, t);
+			}
+		}
+	}
+
+	@Test
+	void strengthAboveConditionCountGivesTheFullTable() {
+		List<byte[]> rows = CoveringArray.generate(3, 6, null);
+		assertEquals(8, rows.size());
+		assertCoversEveryTuple(rows, 3, 3);
+	}
+
+	@Test
+	void combinationBudgetIsEnforced() {
+		int[] largest = { 0, 1414, 145, 51, 29, 21 };
+		for (int t = 2; t <= CoveringArray.MAX_STRENGTH; t++) {
+			assertTrue(CoveringArray.fits(largest[t - 1], t), "t = " + t);
+			assertFalse(CoveringArray.fits(largest[t - 1] + 1, t), "t = " + t);
+			assertNull(CoveringArray.generate(largest[t - 1] + 1, t, null), "t = " + t);
+		}
+		assertTrue(CoveringArray.fits(100_000, 1));
+	}
+
+	@Test
+	void invalidStrengthIsRejected() {
+		assertThrows(IllegalArgumentException.class, () -> CoveringArray.generate(4, 0, null));
+		assertThrows(IllegalArgumentException.class,
+				() -> CoveringArray.generate(4, CoveringArray.MAX_STRENGTH + 1, null));
+	}
+
+	/**
+	 * Verifica que toda combinação de valores de quaisquer {@code t} das {@code n}
+	 * condições aparece em alguma linha.
+	 */
+	static void assertCoversEveryTuple(List<byte[]> rows, int n, int t) {
+		t = Math.min(t, n);
+		int[] columns = new int[t];
+		for (int j = 0; j < t; j++) {
+			columns[j] = j;
+		}
+		while (true) {
+			boolean[] seen = new boolean[1 << t];
+			for (byte[] row : rows) {
+				int values = 0;
+				for (int column : columns) {
+					assertTrue(row[column] == 0 || row[column] == 1);
+					values = values << 1 | row[column];
+				}
+				seen[values] = true;
+			}
+			for (int values = 0; values < seen.length; values++) {
+				assertTrue(seen[values], "n = " + n + ", t = " + t + ": combinação " + values + " das colunas "
+						+ Arrays.toString(columns) + " ausente");
+			}
+
+			// Próximo grupo de t colunas, em ordem lexicográfica
+			int j = t - 1;
+			while (j >= 0 && columns[j] == n - t + j) {
+				j--;
+			}
+			if (j < 0) {
+				return;
+			}
+			columns[j]++;
+			for (int k = j + 1; k < t; k++) {
+				columns[k] = columns[k - 1] + 1;
+			}
+		}
+	}
+}
@@ -0,0 +1,125 @@
+package br.ufjf.capivara.table;
+
+import java.util.List;
+import java.util.Random;
+
+import org.eclipse.jdt.core.dom.CompilationUnit;
+import org.eclipse.jdt.core.dom.MethodDeclaration;
+
+import br.ufjf.capivara.analyzer.CauseEffectVisitor;
+import br.ufjf.capivara.analyzer.CodeAnalyzer;
+import br.ufjf.capivara.model.ControlFlowGraph;
+import br.ufjf.capivara.model.PathCondition;
+
+/**
+ * Método com decisões sobre parâmetros booleanos gerado ao acaso e analisado pelo
+ * {@link CauseEffectVisitor}, como no plugin.
+ * <p>
+ * O método tem de uma a três decisões, algumas com {@code else if} ou com outra
+ * decisão aninhada, sobre fórmulas com {@code &&}, {@code ||} e {@code !}. Os ramos
+ * retornam ou atribuem valores distintos, então a tabela tem vários efeitos.
+ */
+public final class RandomMethod {
+
+	private final String source;
+	private final int firstLine;
+	private final ControlFlowGraph graph;
+	private final List<String> conditions;
+	private final List<PathCondition> paths;
+
+	private RandomMethod(String source, int firstLine, ControlFlowGraph graph, List<String> conditions,
+			List<PathCondition> paths) {
+		this.source = source;
+		this.firstLine = firstLine;
+		this.graph = graph;
+		this.conditions = conditions;
+		this.paths = paths;
+	}
+
+	/**
+	 * Gera e analisa um método.
+	 *
+	 * @param seed      A semente do gerador.
+	 * @param variables O número de parâmetros booleanos; o método usa no máximo esse
+	 *                  número de condições atômicas.
+	 * @return O método analisado.
+	 */
+	public static RandomMethod generate(long seed, int variables) {
+		Random random = new Random(seed);
+		StringBuilder code = new StringBuilder("class Random {\n\tint m(");
+		for (int i = 0; i < variables; i++) {
+			code.append(i > 0 ? ", " : "").append("boolean c").append(i);
+		}
+		code.append(") {\n\t\tint r = 0;\n");
+		int[] effect = { 0 };
+		int decisions = 1 + random.nextInt(3);
+		for (int d = 0; d < decisions; d++) {
+			appendDecision(code, random, variables, effect, "\t\t", true);
+		}
+		code.append("\t\treturn r;\n\t}\n}\n");
+
+		String source = code.toString();
+		CompilationUnit cu = new CodeAnalyzer().parse(source);
+		CauseEffectVisitor visitor = new CauseEffectVisitor();
+		visitor.setup(cu);
+		cu.accept(visitor);
+		MethodDeclaration method = visitor.getControlFlowGraphs().keySet().iterator().next();
+		return new RandomMethod(source, cu.getLineNumber(method.getStartPosition()),
+				visitor.getControlFlowGraph(method), visitor.getAtomicConditions(method),
+				visitor.getPathConditions(method));
+	}
+
+	private static void appendDecision(StringBuilder code, Random random, int variables, int[] effect, String indent,
+			boolean nest) {
+		code.append(indent).append("if (").append(formula(random, variables, 3)).append(") {\n");
+		if (nest && random.nextInt(4) == 0) {
+			appendDecision(code, random, variables, effect, indent + "\t", false);
+		} else {
+			appendEffect(code, random, effect, indent + "\t");
+		}
+		if (random.nextInt(3) == 0) {
+			code.append(indent).append("} else if (").append(formula(random, variables, 2)).append(") {\n");
+			appendEffect(code, random, effect, indent + "\t");
+		}
+		if (random.nextBoolean()) {
+			code.append(indent).append("} else {\n");
+			appendEffect(code, random, effect, indent + "\t");
+		}
+		code.append(indent).append("}\n");
+	}
+
+	private static void appendEffect(StringBuilder code, Random random, int[] effect, String indent) {
+		int value = ++effect[0];
+		code.append(indent).append(random.nextBoolean() ? "return " : "r = ").append(value).append(";\n");
+	}
+
+	private static String formula(Random random, int variables, int depth) {
+		if (depth == 0 || random.nextInt(3) == 0) {
+			return (random.nextInt(4) == 0 ? "!c" : "c") + random.nextInt(variables);
+		}
+		String left = formula(random, variables, depth - 1);
+		String right = formula(random, variables, depth - 1);
+		String formula = "(" + left + (random.nextBoolean() ? " && " : " || ") + right + ")";
+		return random.nextInt(5) == 0 ? "!" + formula : formula;
+	}
+
+	public String getSource() {
+		return source;
+	}
+
+	public int getFirstLine() {
+		return firstLine;
+	}
+
+	public ControlFlowGraph getGraph() {
+		return graph;
+	}
+
+	public List<String> getConditions() {
+		return conditions;
+	}
+
+	public List<PathCondition> getPaths() {
+		return paths;
+	}
+}
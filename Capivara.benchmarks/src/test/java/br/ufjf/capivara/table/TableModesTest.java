@@ -0,0 +1,217 @@
+package br.ufjf.capivara.table;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertFalse;
+import static org.junit.jupiter.api.Assertions.assertNotEquals;
+import static org.junit.jupiter.api.Assertions.assertNotNull;
+import static org.junit.jupiter.api.Assertions.assertNull;
+import static org.junit.jupiter.api.Assertions.assertTrue;
+
+import java.io.IOException;
+import java.util.ArrayList;
+import java.util.List;
+
+import org.junit.jupiter.api.Test;
+
+import br.ufjf.capivara.table.TruthTableGenerator.TableMode;
+
+/**
+ * Confere cada forma de tabela contra a tabela completa de métodos gerados ao acaso
+ * ({@link RandomMethod}).
+ * <p>
+ * Toda linha de qualquer forma, com '-' valendo V e F, só pode cobrir combinações
+ * que a tabela completa associa ao mesmo efeito. Além disso, as formas simbólica e de
+ * caminhos cobrem cada combinação exatamente uma vez, a comprimida ao menos uma vez,
+ * os pares MC/DC diferem apenas na sua condição e têm efeitos diferentes, e o arranjo
+ * de cobertura contém toda combinação de valores de quaisquer t condições.
+ */
+class TableModesTest {
+
+	private static final int METHODS = 300;
+
+	@Test
+	void symbolicRowsPartitionTheFullTable() {
+		for (long seed = 0; seed < METHODS; seed++) {
+			RandomMethod method = RandomMethod.generate(seed, 6);
+			String[] effects = fullEffects(method);
+			assertCovered(effects, rows(method, TableMode.SYMBOLIC, 2), 1, 1, seed);
+		}
+	}
+
+	@Test
+	void compressedRowsCoverTheFullTable() {
+		for (long seed = 0; seed < METHODS; seed++) {
+			RandomMethod method = RandomMethod.generate(seed, 6);
+			assertCovered(fullEffects(method), rows(method, TableMode.COMPRESSED, 2), 1, Integer.MAX_VALUE, seed);
+		}
+		// Acima de CubeMinimizer.EXACT_MAX_CONDITIONS a minimização é heurística
+		for (long seed = 0; seed < 20; seed++) {
+			RandomMethod method = RandomMethod.generate(seed, 16);
+			assertCovered(fullEffects(method), rows(method, TableMode.COMPRESSED, 2), 1, Integer.MAX_VALUE, seed);
+		}
+	}
+
+	@Test
+	void pathRowsPartitionTheFullTable() {
+		for (long seed = 0; seed < METHODS; seed++) {
+			RandomMethod method = RandomMethod.generate(seed, 6);
+			assertCovered(fullEffects(method), rows(method, TableMode.PATHS, 2), 1, 1, seed);
+		}
+	}
+
+	@Test
+	void mcdcPairsShowIndependentEffect() throws IOException {
+		for (long seed = 0; seed < METHODS; seed++) {
+			RandomMethod method = RandomMethod.generate(seed, 6);
+			int n = method.getConditions().size();
+			String[] effects = fullEffects(method);
+			TruthTableRows rows = rows(method, TableMode.MCDC, 2);
+			assertCovered(effects, rows, 0, Integer.MAX_VALUE, seed);
+
+			List<int[]> pairs = mcdcPairs(method);
+			assertEquals(n, pairs.size(), "semente " + seed);
+			for (int i = 0; i < n; i++) {
+				int[] pair = pairs.get(i);
+				if (pair == null) {
+					for (int mask = 0; mask < effects.length; mask++) {
+						assertEquals(effects[mask], effects[mask ^ bit(n, i)],
+								"semente " + seed + ": condição " + i + " sem par, mas com efeito independente");
+					}
+					continue;
+				}
+				String[] first = rows.getRow(pair[0]);
+				String[] second = rows.getRow(pair[1]);
+				for (int j = 0; j < n; j++) {
+					if (j == i) {
+						assertNotEquals(first[j + 1], second[j + 1], "semente " + seed + ": condição " + i);
+						assertFalse(first[j + 1].equals("-") || second[j + 1].equals("-"), "semente " + seed);
+					} else {
+						assertEquals(first[j + 1], second[j + 1], "semente " + seed + ": condição " + i);
+					}
+				}
+				assertNotEquals(first[n + 1], second[n + 1], "semente " + seed + ": condição " + i);
+			}
+		}
+	}
+
+	@Test
+	void coveringRowsCoverEveryTuple() {
+		for (long seed = 0; seed < METHODS; seed++) {
+			RandomMethod method = RandomMethod.generate(seed, 6);
+			int n = method.getConditions().size();
+			for (int t = 1; t <= 3; t++) {
+				TruthTableRows rows = rows(method, TableMode.COVERING, t);
+				assertCovered(fullEffects(method), rows, 0, Integer.MAX_VALUE, seed);
+				List<byte[]> cubes = new ArrayList<>();
+				for (long row = 0; row < rows.getRowCount(); row++) {
+					String[] cells = rows.getRow(row);
+					byte[] cube = new byte[n];
+					for (int j = 0; j < n; j++) {
+						cube[j] = (byte) (cells[j + 1].equals("V") ? 1 : 0);
+					}
+					cubes.add(cube);
+				}
+				CoveringArrayTest.assertCoversEveryTuple(cubes, n, t);
+			}
+		}
+	}
+
+	@Test
+	void tooLargeCoveringArrayIsReportedInsteadOfGenerated() {
+		RandomMethod method = RandomMethod.generate(0, 6);
+		TruthTableGenerator generator = new TruthTableGenerator();
+		generator.setTableMode(TableMode.COVERING);
+		generator.setCoveringStrength(4);
+		List<String> conditions = new ArrayList<>();
+		for (int i = 0; i < 52; i++) {
+			conditions.add("c" + i);
+		}
+		TruthTableRows rows = generator.createRows(conditions, method.getPaths(), null);
+		assertEquals(0, rows.getRowCount());
+		assertNotNull(rows.getMessage());
+		assertNull(generator.createRows(conditions.subList(0, 51), method.getPaths(), null).getMessage());
+	}
+
+	/**
+	 * Obtém o efeito de cada combinação na tabela completa, indexado pela máscara da
+	 * combinação (a primeira condição no bit mais significativo).
+	 */
+	private static String[] fullEffects(RandomMethod method) {
+		TruthTableRows rows = rows(method, TableMode.FULL, 2);
+		assertNull(rows.getMessage());
+		int n = method.getConditions().size();
+		String[] effects = new String[1 << n];
+		for (int mask = 0; mask < effects.length; mask++) {
+			effects[mask] = rows.getRow(mask)[n + 1];
+		}
+		return effects;
+	}
+
+	private static TruthTableRows rows(RandomMethod method, TableMode mode, int strength) {
+		TruthTableGenerator generator = new TruthTableGenerator();
+		generator.setTableMode(mode);
+		generator.setCoveringStrength(strength);
+		generator.setMaxFullTableConditions(16);
+		return generator.createRows(method.getConditions(), method.getPaths(), null);
+	}
+
+	/**
+	 * Verifica que cada linha só cobre combinações com o seu efeito e que cada
+	 * combinação é coberta por um número de linhas entre {@code min} e {@code max}.
+	 */
+	private static void assertCovered(String[] effects, TruthTableRows rows, int min, int max, long seed) {
+		assertNull(rows.getMessage(), "semente " + seed);
+		int n = Integer.numberOfTrailingZeros(effects.length);
+		int[] coverage = new int[effects.length];
+		for (long row = 0; row < rows.getRowCount(); row++) {
+			String[] cells = rows.getRow(row);
+			for (int mask = 0; mask < effects.length; mask++) {
+				if (matches(cells, mask, n)) {
+					assertEquals(effects[mask], cells[n + 1], "semente " + seed + ", linha " + (row + 1));
+					coverage[mask]++;
+				}
+			}
+		}
+		for (int mask = 0; mask < effects.length; mask++) {
+			assertTrue(coverage[mask] >= min && coverage[mask] <= max,
+					"semente " + seed + ": combinação " + mask + " coberta " + coverage[mask] + " vezes");
+		}
+	}
+
+	private static boolean matches(String[] cells, int mask, int n) {
+		for (int j = 0; j < n; j++) {
+			String cell = cells[j + 1];
+			if (!cell.equals("-") && cell.equals("V") != ((mask & bit(n, j)) != 0)) {
+				return false;
+			}
+		}
+		return true;
+	}
+
+	private static int bit(int n, int condition) {
+		return 1 << (n - 1 - condition);
+	}
+
+	/**
+	 * Lê os pares da seção "Pares MC/DC" da tabela escrita, com os casos a partir de
+	 * zero, ou {@code null} para condições sem efeito independente.
+	 */
+	private static List<int[]> mcdcPairs(RandomMethod method) throws IOException {
+		TruthTableGenerator generator = new TruthTableGenerator();
+		generator.setTableMode(TableMode.MCDC);
+		StringBuilder out = new StringBuilder();
+		generator.writeTruthTable(method.getConditions(), method.getPaths(), out, null);
+		String text = out.toString();
+		List<int[]> pairs = new ArrayList<>();
+		for (String line : text.substring(text.indexOf("Pares MC/DC:")).split("\n")) {
+			int cases = line.lastIndexOf(": casos ");
+			if (cases >= 0) {
+				String[] numbers = line.substring(cases + ": casos ".length()).split(" e ");
+				pairs.add(new int[] { Integer.parseInt(numbers[0]) - 1, Integer.parseInt(numbers[1]) - 1 });
+			} else if (line.endsWith(": sem efeito independente no resultado")) {
+				pairs.add(null);
+			}
+		}
+		return pairs;
+	}
+}
@@ -1,8 +1,14 @@
 package br.ufjf.capivara;
 
+import java.io.IOException;
+import java.time.Duration;
+
 import org.eclipse.ui.plugin.AbstractUIPlugin;
 import org.osgi.framework.BundleContext;
 
+import br.ufjf.capivara.cache.AnalysisStore;
+import br.ufjf.capivara.handlers.LiveAnalysis;
+
 /**
  * The activator class controls the plug-in life cycle
  */
@@ -14,6 +20,10 @@ public class Activator extends AbstractUIPlugin {
 	// The shared instance
 	private static Activator plugin;
 
+	// Cache em disco dos resultados de análise, criado no primeiro uso
+	private AnalysisStore analysisStore;
+	private boolean analysisStoreFailed;
+
 	/**
 	 * The constructor
 	 */
@@ -28,6 +38,7 @@ public class Activator extends AbstractUIPlugin {
 
 	@Override
 	public void stop(BundleContext context) throws Exception {
+		LiveAnalysis.stop();
 		plugin = null;
 		super.stop(context);
 	}
@@ -41,4 +52,21 @@ public class Activator extends AbstractUIPlugin {
 		return plugin;
 	}
 
+	/**
+	 * Returns the on-disk analysis cache, kept in the plug-in state location
+	 *
+	 * @return the analysis cache, or <code>null</code> if it could not be created
+	 */
+	public synchronized AnalysisStore getAnalysisStore() {
+		if (analysisStore == null && !analysisStoreFailed) {
+			try {
+				analysisStore = new AnalysisStore(getStateLocation().append("analysis-cache").toFile().toPath(),
+						getBundle().getVersion().toString(), 256L << 20, Duration.ofDays(30));
+			} catch (IOException | IllegalStateException e) {
+				analysisStoreFailed = true;
+			}
+		}
+		return analysisStore;
+	}
+
 }
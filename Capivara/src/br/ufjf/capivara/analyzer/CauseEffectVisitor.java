@@ -1,7 +1,11 @@
 package br.ufjf.capivara.analyzer;
 
+import org.eclipse.core.runtime.IProgressMonitor;
+import org.eclipse.core.runtime.OperationCanceledException;
 import org.eclipse.jdt.core.dom.*;
-import br.ufjf.capivara.model.Edge;
+import br.ufjf.capivara.model.ControlFlowGraph;
+import br.ufjf.capivara.model.ControlFlowGraph.NodeType;
+import br.ufjf.capivara.model.PathCondition;
 import java.util.*;
 import java.util.stream.Collectors;
 
@@ -11,6 +15,19 @@ import java.util.stream.Collectors;
  * <p>
  * Esta classe gerencia a criação de nós, arestas e o estado do fluxo através de uma
  * pilha de predecessores para conectar corretamente os diferentes caminhos do código.
+ * O grafo é montado diretamente em um {@link ControlFlowGraph.Builder}, sem mapas de
+ * inteiros boxed.
+ * <p>
+ * Cada método visitado recebe um grafo próprio, com nós numerados a partir de 1, então
+ * uma única visita à unidade de compilação produz os grafos de todos os métodos
+ * ({@link #getControlFlowGraphs()}). Métodos de classes locais declaradas dentro de
+ * um método também recebem grafos próprios.
+ * <p>
+ * Na mesma visita, um {@link PathConditionCollector} por método registra as condições
+ * atômicas (com um identificador inteiro cada) e os caminhos de execução usados na
+ * tabela verdade ({@link #getAtomicConditions}, {@link #getPathConditions}), então o
+ * método não precisa ser visitado de novo para gerar a tabela. O texto de cada
+ * condição de {@code if} é montado uma única vez e serve ao rótulo do nó e ao caminho.
  */
 public class CauseEffectVisitor extends ASTVisitor {
 
@@ -18,13 +35,15 @@ public class CauseEffectVisitor extends ASTVisitor {
     @Override
     public boolean visit(IfStatement node) {
         finishSequentialBlock();
-        int decisionNode = createNode("DECISION");
-        nodeLabels.put(decisionNode, "IF: " + node.getExpression().toString());
+        int decisionNode = createNode(NodeType.DECISION);
+        String expression = node.getExpression().toString();
+        graph.setNodeLabel(decisionNode, "IF: " + expression);
         mapLineToNode(node.getExpression(), decisionNode);
-        while(!predecessorStack.isEmpty()) { addEdge(predecessorStack.pop(), decisionNode, ""); }
+        while(!predecessorStack.isEmpty()) { addEdge(predecessorStack.pop(), decisionNode, ControlFlowGraph.EDGE_PLAIN); }
         List<Integer> branchEndNodes = new ArrayList<>();
         
         // Processa o ramo THEN
+        conditions.enterThen(node, expression);
         predecessorStack.push(decisionNode);
         currentSequentialNode = null;
         inSequentialBlock = false;
@@ -34,6 +53,7 @@ public class CauseEffectVisitor extends ASTVisitor {
 
         // Processa o ramo ELSE
         if (node.getElseStatement() != null) {
+            conditions.enterElse();
             predecessorStack.push(decisionNode);
             currentSequentialNode = null;
             inSequentialBlock = false;
@@ -43,6 +63,7 @@ public class CauseEffectVisitor extends ASTVisitor {
         } else {
             branchEndNodes.add(decisionNode);
         }
+        conditions.exitIf();
         
         predecessorStack.clear();
         predecessorStack.addAll(branchEndNodes);
@@ -52,36 +73,122 @@ public class CauseEffectVisitor extends ASTVisitor {
     }
 
     private CompilationUnit compilationUnit;
-    private final Map<Integer, List<Integer>> nodeToLinesMap = new TreeMap<>();
-    private final Map<Integer, List<Edge>> graphEdges = new HashMap<>();
-    private final Map<Integer, String> nodeTypes = new HashMap<>();
-    private final Map<Integer, String> nodeLabels = new HashMap<>();
-    private int nodeCounter = 0;
+    private ControlFlowGraph.Builder graph = ControlFlowGraph.builder();
+    private final Map<MethodDeclaration, ControlFlowGraph> methodGraphs = new LinkedHashMap<>();
+    private PathConditionCollector conditions;
+    private final Map<MethodDeclaration, PathConditionCollector> methodConditions = new HashMap<>();
+    private MethodDeclaration currentMethod;
     private final Stack<Integer> predecessorStack = new Stack<>();
-    private final Map<Integer, Integer> lineToNodeMap = new HashMap<>();
     private Integer currentSequentialNode = null;
+    // Rótulo do bloco sequencial atual, acumulado sem recriar a String a cada comando
+    private int sequentialLabelNode = 0;
+    private final StringBuilder sequentialLabel = new StringBuilder();
+    private final Set<String> sequentialLabelLines = new HashSet<>();
     private boolean inSequentialBlock = false;
+    private IProgressMonitor monitor;
     public void setup(CompilationUnit cu) {
+        setup(cu, null);
+    }
+    /**
+     * Prepara o visitor para uma nova unidade de compilação.
+     *
+     * @param cu A unidade de compilação a ser visitada.
+     * @param monitor Monitor consultado a cada nó visitado; se for cancelado a visita
+     *                é interrompida com {@link OperationCanceledException}. Pode ser {@code null}.
+     */
+    public void setup(CompilationUnit cu, IProgressMonitor monitor) {
         this.compilationUnit = cu;
-        nodeCounter = 0;
-        lineToNodeMap.clear();
-        nodeToLinesMap.clear();
-        graphEdges.clear();
-        nodeTypes.clear();
-        nodeLabels.clear();
+        this.monitor = monitor;
+        methodGraphs.clear();
+        methodConditions.clear();
+        currentMethod = null;
+        resetGraph();
+    }
+    private void resetGraph() {
+        graph = ControlFlowGraph.builder();
+        conditions = new PathConditionCollector(monitor);
+        sequentialLabelNode = 0;
+        sequentialLabel.setLength(0);
+        sequentialLabelLines.clear();
         predecessorStack.clear();
         currentSequentialNode = null;
         inSequentialBlock = false;
     }
-    public Map<Integer, List<Edge>> getGraphEdges() { return this.graphEdges; }
-    public Map<Integer, String> getNodeTypes() { return this.nodeTypes; }
-    public Map<Integer, String> getNodeLabels() { return this.nodeLabels; }
-    public Map<Integer, List<Integer>> getNodeToLinesMap() { return this.nodeToLinesMap; }
-    public Map<Integer, Integer> getLineToNodeMap() { return lineToNodeMap; }
+    /**
+     * Obtém os grafos de fluxo de controle de todos os métodos visitados.
+     *
+     * @return Um mapa não modificável do método para o seu grafo, na ordem de declaração.
+     */
+    public Map<MethodDeclaration, ControlFlowGraph> getControlFlowGraphs() {
+        return Collections.unmodifiableMap(methodGraphs);
+    }
+    /**
+     * Obtém o grafo de fluxo de controle de um método visitado.
+     *
+     * @param method O método.
+     * @return O grafo do método, ou {@code null} se ele não foi visitado.
+     */
+    public ControlFlowGraph getControlFlowGraph(MethodDeclaration method) {
+        return methodGraphs.get(method);
+    }
+    /**
+     * Obtém o grafo de fluxo de controle do primeiro método visitado.
+     *
+     * @return O grafo compacto com nós, arestas e mapeamento de linhas, ou um grafo
+     *         vazio se nenhum método foi visitado.
+     */
+    public ControlFlowGraph getControlFlowGraph() {
+        Iterator<ControlFlowGraph> graphs = methodGraphs.values().iterator();
+        return graphs.hasNext() ? graphs.next() : ControlFlowGraph.builder().build();
+    }
+    /**
+     * Obtém as condições atômicas de um método visitado, que são as colunas da tabela
+     * verdade. Incluem as condições de lambdas e classes locais do método.
+     *
+     * @param method O método.
+     * @return As condições normalizadas na ordem do código, ou {@code null} se o método
+     *         não foi visitado.
+     */
+    public List<String> getAtomicConditions(MethodDeclaration method) {
+        PathConditionCollector collector = methodConditions.get(method);
+        return collector != null ? collector.getAtomicConditions() : null;
+    }
+    /**
+     * Obtém os caminhos de execução de um método visitado, compilados sobre os índices
+     * de {@link #getAtomicConditions}.
+     *
+     * @param method O método.
+     * @return Os caminhos na ordem do código, ou {@code null} se o método não foi visitado.
+     */
+    public List<PathCondition> getPathConditions(MethodDeclaration method) {
+        PathConditionCollector collector = methodConditions.get(method);
+        return collector != null ? collector.getPathConditions() : null;
+    }
+    @Override
+    public boolean preVisit2(ASTNode node) {
+        if (monitor != null && monitor.isCanceled()) {
+            throw new OperationCanceledException();
+        }
+        return true;
+    }
     @Override
     public boolean visit(MethodDeclaration node) {
-        int methodNode = createNode("ENTRY");
-        nodeLabels.put(methodNode, "Método: " + node.getName().getIdentifier());
+        if (currentMethod != null) {
+            // Método de uma classe local: é analisado em um grafo próprio
+            CauseEffectVisitor localVisitor = new CauseEffectVisitor();
+            localVisitor.setup(compilationUnit, monitor);
+            node.accept(localVisitor);
+            methodGraphs.putAll(localVisitor.getControlFlowGraphs());
+            methodConditions.putAll(localVisitor.methodConditions);
+            // As condições e caminhos do método local também pertencem a este método
+            conditions.scanPaths(node);
+            return false;
+        }
+        currentMethod = node;
+        resetGraph();
+        methodGraphs.put(node, null); // reserva a posição do método na ordem de declaração
+        int methodNode = createNode(NodeType.ENTRY);
+        graph.setNodeLabel(methodNode, "Método: " + node.getName().getIdentifier());
         mapLineToNode(node, methodNode);
         predecessorStack.push(methodNode);
         currentSequentialNode = null;
@@ -90,19 +197,24 @@ public class CauseEffectVisitor extends ASTVisitor {
             node.getBody().accept(this);
         }
         predecessorStack.clear();
+        flushSequentialLabel();
+        methodGraphs.put(node, graph.build());
+        methodConditions.put(node, conditions);
+        currentMethod = null;
         return false;
     }
     @Override
     public boolean visit(WhileStatement node) {
         finishSequentialBlock();
-        int decisionNode = createNode("LOOP_DECISION");
-        nodeLabels.put(decisionNode, "WHILE: " + node.getExpression().toString());
+        int decisionNode = createNode(NodeType.LOOP_DECISION);
+        graph.setNodeLabel(decisionNode, "WHILE: " + node.getExpression().toString());
         mapLineToNode(node, decisionNode);
-        while(!predecessorStack.isEmpty()) { addEdge(predecessorStack.pop(), decisionNode, ""); }
+        conditions.scanPaths(node.getExpression());
+        while(!predecessorStack.isEmpty()) { addEdge(predecessorStack.pop(), decisionNode, ControlFlowGraph.EDGE_PLAIN); }
         Stack<Integer> bodyPredecessors = new Stack<>();
         bodyPredecessors.push(decisionNode);
         visitLoopBody(node.getBody(), bodyPredecessors);
-        for (Integer bodyEndNode : bodyPredecessors) { addEdge(bodyEndNode, decisionNode, ""); }
+        for (Integer bodyEndNode : bodyPredecessors) { addEdge(bodyEndNode, decisionNode, ControlFlowGraph.EDGE_PLAIN); }
         predecessorStack.clear();
         predecessorStack.push(decisionNode);
         currentSequentialNode = null;
@@ -113,17 +225,20 @@ public class CauseEffectVisitor extends ASTVisitor {
     @Override
     public boolean visit(ForStatement node) {
         finishSequentialBlock();
-        int decisionNode = createNode("LOOP_DECISION");
+        int decisionNode = createNode(NodeType.LOOP_DECISION);
         String init = ((List<ASTNode>)node.initializers()).stream().map(ASTNode::toString).collect(Collectors.joining(", "));
         String cond = node.getExpression() == null ? "" : node.getExpression().toString();
         String update = ((List<ASTNode>)node.updaters()).stream().map(ASTNode::toString).collect(Collectors.joining(", "));
-        nodeLabels.put(decisionNode, String.format("FOR (%s; %s; %s)", init, cond, update));
+        graph.setNodeLabel(decisionNode, String.format("FOR (%s; %s; %s)", init, cond, update));
         mapLineToNode(node, decisionNode);
-        while(!predecessorStack.isEmpty()) { addEdge(predecessorStack.pop(), decisionNode, ""); }
+        for (ASTNode initializer : (List<ASTNode>) node.initializers()) { conditions.scanPaths(initializer); }
+        if (node.getExpression() != null) { conditions.scanPaths(node.getExpression()); }
+        for (ASTNode updater : (List<ASTNode>) node.updaters()) { conditions.scanPaths(updater); }
+        while(!predecessorStack.isEmpty()) { addEdge(predecessorStack.pop(), decisionNode, ControlFlowGraph.EDGE_PLAIN); }
         Stack<Integer> bodyPredecessors = new Stack<>();
         bodyPredecessors.push(decisionNode);
         visitLoopBody(node.getBody(), bodyPredecessors);
-        for (Integer bodyEndNode : bodyPredecessors) { addEdge(bodyEndNode, decisionNode, ""); }
+        for (Integer bodyEndNode : bodyPredecessors) { addEdge(bodyEndNode, decisionNode, ControlFlowGraph.EDGE_PLAIN); }
         predecessorStack.clear();
         predecessorStack.push(decisionNode);
         currentSequentialNode = null;
@@ -134,18 +249,19 @@ public class CauseEffectVisitor extends ASTVisitor {
     public boolean visit(DoStatement node) {
         finishSequentialBlock();
         int predecessor = predecessorStack.isEmpty() ? -1 : predecessorStack.pop();
-        int bodyEntryNode = createNode("PROCESSING");
-        nodeLabels.put(bodyEntryNode, "{do}");
+        int bodyEntryNode = createNode(NodeType.PROCESSING);
+        graph.setNodeLabel(bodyEntryNode, "{do}");
         mapLineToNode(node, bodyEntryNode);
-        if (predecessor != -1) { addEdge(predecessor, bodyEntryNode, ""); }
+        if (predecessor != -1) { addEdge(predecessor, bodyEntryNode, ControlFlowGraph.EDGE_PLAIN); }
         Stack<Integer> bodyPredecessors = new Stack<>();
         bodyPredecessors.push(bodyEntryNode);
         visitLoopBody(node.getBody(), bodyPredecessors);
-        int decisionNode = createNode("LOOP_DECISION");
-        nodeLabels.put(decisionNode, "while: " + node.getExpression().toString());
+        conditions.scanPaths(node.getExpression());
+        int decisionNode = createNode(NodeType.LOOP_DECISION);
+        graph.setNodeLabel(decisionNode, "while: " + node.getExpression().toString());
         mapLineToNode(node.getExpression(), decisionNode);
-        for (Integer bodyEndNode : bodyPredecessors) { addEdge(bodyEndNode, decisionNode, ""); }
-        addEdge(decisionNode, bodyEntryNode, "true");
+        for (Integer bodyEndNode : bodyPredecessors) { addEdge(bodyEndNode, decisionNode, ControlFlowGraph.EDGE_PLAIN); }
+        addEdge(decisionNode, bodyEntryNode, ControlFlowGraph.EDGE_TRUE);
         predecessorStack.clear();
         predecessorStack.push(decisionNode);
         currentSequentialNode = null;
@@ -155,14 +271,16 @@ public class CauseEffectVisitor extends ASTVisitor {
     @Override
     public boolean visit(EnhancedForStatement node) {
         finishSequentialBlock();
-        int decisionNode = createNode("LOOP_DECISION");
-        nodeLabels.put(decisionNode, "FOR-EACH: " + node.getParameter().getName() + " in " + node.getExpression());
+        int decisionNode = createNode(NodeType.LOOP_DECISION);
+        graph.setNodeLabel(decisionNode, "FOR-EACH: " + node.getParameter().getName() + " in " + node.getExpression());
         mapLineToNode(node, decisionNode);
-        while(!predecessorStack.isEmpty()) { addEdge(predecessorStack.pop(), decisionNode, ""); }
+        conditions.scanPaths(node.getParameter());
+        conditions.scanPaths(node.getExpression());
+        while(!predecessorStack.isEmpty()) { addEdge(predecessorStack.pop(), decisionNode, ControlFlowGraph.EDGE_PLAIN); }
         Stack<Integer> bodyPredecessors = new Stack<>();
         bodyPredecessors.push(decisionNode);
         visitLoopBody(node.getBody(), bodyPredecessors);
-        for (Integer bodyEndNode : bodyPredecessors) { addEdge(bodyEndNode, decisionNode, ""); }
+        for (Integer bodyEndNode : bodyPredecessors) { addEdge(bodyEndNode, decisionNode, ControlFlowGraph.EDGE_PLAIN); }
         predecessorStack.clear();
         predecessorStack.push(decisionNode);
         currentSequentialNode = null;
@@ -170,18 +288,19 @@ public class CauseEffectVisitor extends ASTVisitor {
         return false;
     }
     @Override
-    public boolean visit(VariableDeclarationStatement node) { handleSequentialStatement(node); return false; }
+    public boolean visit(VariableDeclarationStatement node) { handleSequentialStatement(node); conditions.scanPaths(node); return false; }
     @Override
-    public boolean visit(ExpressionStatement node) { handleSequentialStatement(node); return false; }
+    public boolean visit(ExpressionStatement node) { handleSequentialStatement(node); conditions.addExpression(node); return false; }
     @Override
     public boolean visit(ReturnStatement node) {
         finishSequentialBlock();
-        int returnNode = createNode("EXIT");
+        int returnNode = createNode(NodeType.EXIT);
         String returnValue = node.getExpression() != null ? node.getExpression().toString() : "";
-        nodeLabels.put(returnNode, "RETURN" + (returnValue.isEmpty() ? "" : ": " + returnValue));
+        graph.setNodeLabel(returnNode, "RETURN" + (returnValue.isEmpty() ? "" : ": " + returnValue));
         mapLineToNode(node, returnNode);
+        conditions.addReturn(node);
         while(!predecessorStack.isEmpty()){
-             addEdge(predecessorStack.pop(), returnNode, "");
+             addEdge(predecessorStack.pop(), returnNode, ControlFlowGraph.EDGE_PLAIN);
         }
         currentSequentialNode = null;
         inSequentialBlock = false;
@@ -190,20 +309,31 @@ public class CauseEffectVisitor extends ASTVisitor {
     private void handleSequentialStatement(ASTNode node) {
         if (!inSequentialBlock || currentSequentialNode == null) {
             finishSequentialBlock();
-            currentSequentialNode = createNode("PROCESSING");
-            nodeLabels.put(currentSequentialNode, getNodeLabel(node));
-            while(!predecessorStack.isEmpty()){ addEdge(predecessorStack.pop(), currentSequentialNode, ""); }
+            flushSequentialLabel();
+            currentSequentialNode = createNode(NodeType.PROCESSING);
+            sequentialLabelNode = currentSequentialNode;
+            String label = getNodeLabel(node);
+            sequentialLabel.append(label);
+            sequentialLabelLines.add(label);
+            while(!predecessorStack.isEmpty()){ addEdge(predecessorStack.pop(), currentSequentialNode, ControlFlowGraph.EDGE_PLAIN); }
             predecessorStack.push(currentSequentialNode);
             inSequentialBlock = true;
         } else {
-            String currentLabel = nodeLabels.getOrDefault(currentSequentialNode, "");
             String newLabel = getNodeLabel(node);
-            if (!currentLabel.contains(newLabel)) {
-                nodeLabels.put(currentSequentialNode, currentLabel + "\n" + newLabel);
+            if (sequentialLabelLines.add(newLabel)) {
+                sequentialLabel.append("\n").append(newLabel);
             }
         }
         mapLineToNode(node, currentSequentialNode);
     }
+    private void flushSequentialLabel() {
+        if (sequentialLabelNode > 0) {
+            graph.setNodeLabel(sequentialLabelNode, sequentialLabel.toString());
+        }
+        sequentialLabelNode = 0;
+        sequentialLabel.setLength(0);
+        sequentialLabelLines.clear();
+    }
     private void visitLoopBody(Statement body, Stack<Integer> localPredecessorStack) {
         Stack<Integer> globalStack = new Stack<>();
         globalStack.addAll(this.predecessorStack);
@@ -218,21 +348,16 @@ public class CauseEffectVisitor extends ASTVisitor {
     private void finishSequentialBlock() {
         if (inSequentialBlock && currentSequentialNode != null) { inSequentialBlock = false; }
     }
-    private int createNode(String type) { nodeCounter++; nodeTypes.put(nodeCounter, type); return nodeCounter; }
-    private void addEdge(int from, int to, String label) {
+    private int createNode(NodeType type) { return graph.addNode(type); }
+    private void addEdge(int from, int to, byte label) {
         if (from <= 0 || to <= 0) return;
-        List<Edge> edges = getOrCreateEdges(from);
-        if (edges.stream().noneMatch(e -> e.getDestinationNodeId() == to)) {
-            edges.add(new Edge(to, label));
-        }
+        graph.addEdge(from, to, label);
     }
     private void mapLineToNode(ASTNode node, int nodeId) {
         if (compilationUnit == null || node == null) return;
         int startLine = compilationUnit.getLineNumber(node.getStartPosition());
         int endLine = compilationUnit.getLineNumber(node.getStartPosition() + node.getLength() - 1);
-        for (int line = startLine; line <= endLine; line++) { lineToNodeMap.put(line, nodeId); }
-        List<Integer> lines = nodeToLinesMap.computeIfAbsent(nodeId, k -> new ArrayList<>());
-        for (int line = startLine; line <= endLine; line++) { if (!lines.contains(line)) { lines.add(line); } }
+        graph.mapLines(nodeId, startLine, endLine);
     }
     private String getNodeLabel(ASTNode node) {
         if (node instanceof ReturnStatement) {
@@ -245,7 +370,4 @@ public class CauseEffectVisitor extends ASTVisitor {
         }
         return node.toString().trim().replace("\n", "").replace("\r", "");
     }
-    private List<Edge> getOrCreateEdges(int nodeId) {
-        return graphEdges.computeIfAbsent(nodeId, k -> new ArrayList<>());
-    }
 }
\ No newline at end of file
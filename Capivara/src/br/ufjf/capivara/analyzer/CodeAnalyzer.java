@@ -1,5 +1,10 @@
 package br.ufjf.capivara.analyzer;
 
+import java.util.Collections;
+import java.util.Map;
+
+import org.eclipse.core.runtime.IProgressMonitor;
+import org.eclipse.jdt.core.JavaCore;
 import org.eclipse.jdt.core.dom.AST;
 import org.eclipse.jdt.core.dom.ASTParser;
 import org.eclipse.jdt.core.dom.CompilationUnit;
@@ -10,29 +15,107 @@ import org.eclipse.jdt.core.dom.CompilationUnit;
  * Sua principal responsabilidade é transformar uma String contendo código-fonte Java
  * em uma Árvore de Sintaxe Abstrata ({@link CompilationUnit}), que pode então ser
  * analisada por um {@link ASTVisitor}, como o {@link CauseEffectVisitor}.
+ * <p>
+ * Por padrão a análise é apenas sintática ({@link ParseMode#SYNTAX_ONLY}): nenhum
+ * analisador do plugin usa bindings, e resolvê-los é a parte mais cara do parser do
+ * JDT. As opções do compilador são calculadas uma única vez e reutilizadas por todas
+ * as instâncias.
  */
 public class CodeAnalyzer {
 
+	/**
+	 * Define quanto trabalho o parser faz além da análise sintática.
+	 */
+	public enum ParseMode {
+		/** Apenas a árvore sintática, com recuperação de comandos malformados. */
+		SYNTAX_ONLY,
+		/** Resolve bindings (com recuperação), como nas versões anteriores do plugin. */
+		BINDINGS
+	}
+
+	private static final Map<String, String> COMPILER_OPTIONS = createCompilerOptions();
+
+	private ParseMode parseMode = ParseMode.SYNTAX_ONLY;
+
+	public ParseMode getParseMode() {
+		return parseMode;
+	}
+
+	public void setParseMode(ParseMode parseMode) {
+		this.parseMode = parseMode;
+	}
+
 	/**
 	 * Analisa uma String de código-fonte Java e a converte em uma {@link CompilationUnit}.
 	 * <p>
-	 * O parser é configurado para a versão Java 17 e para resolver bindings,
-	 * permitindo uma análise semântica mais profunda do código.
+	 * O parser é configurado para a versão Java 17.
 	 *
 	 * @param code O código-fonte Java a ser analisado.
 	 * @return A raiz da Árvore de Sintaxe Abstrata (AST) gerada, ou {@code null} se ocorrer um erro.
 	 */
-	@SuppressWarnings("deprecation")
 	public CompilationUnit parse(String code) {
-		ASTParser parser = ASTParser.newParser(AST.JLS17);
+		return parse(code, null);
+	}
+
+	/**
+	 * Analisa uma String de código-fonte Java, reportando o progresso ao monitor.
+	 *
+	 * @param code    O código-fonte Java a ser analisado.
+	 * @param monitor O monitor de progresso, ou {@code null}.
+	 * @return A raiz da Árvore de Sintaxe Abstrata (AST) gerada.
+	 * @throws org.eclipse.core.runtime.OperationCanceledException Se o monitor for cancelado.
+	 */
+	public CompilationUnit parse(String code, IProgressMonitor monitor) {
+		return parse(code, -1, monitor);
+	}
+
+	/**
+	 * Analisa uma String de código-fonte Java mantendo apenas o corpo do método que
+	 * contém a posição focal. Os corpos dos demais métodos ficam vazios na AST, o que
+	 * evita analisar comandos que não serão usados quando só um método interessa.
+	 *
+	 * @param code          O código-fonte Java a ser analisado.
+	 * @param focalPosition A posição (em caracteres) dentro do método de interesse, ou
+	 *                      {@code -1} para manter os corpos de todos os métodos.
+	 * @param monitor       O monitor de progresso, ou {@code null}.
+	 * @return A raiz da Árvore de Sintaxe Abstrata (AST) gerada.
+	 * @throws org.eclipse.core.runtime.OperationCanceledException Se o monitor for cancelado.
+	 */
+	public CompilationUnit parse(String code, int focalPosition, IProgressMonitor monitor) {
+		ASTParser parser = newParser();
 		parser.setSource(code.toCharArray());
+		if (focalPosition >= 0) {
+			parser.setFocalPosition(focalPosition);
+		}
+		return (CompilationUnit) parser.createAST(monitor);
+	}
+
+	/**
+	 * Cria um parser com a configuração do modo atual. O {@link ASTParser} volta à
+	 * configuração padrão depois de cada {@code createAST}, então apenas as opções do
+	 * compilador, que são a parte cara da configuração, são reaproveitadas.
+	 */
+	@SuppressWarnings("deprecation")
+	private ASTParser newParser() {
+		ASTParser parser = ASTParser.newParser(AST.JLS17);
 		parser.setKind(ASTParser.K_COMPILATION_UNIT);
-		
-		parser.setResolveBindings(true);
-		parser.setBindingsRecovery(true);
-		parser.setEnvironment(new String[0], new String[0], null, true);
-		parser.setUnitName("temp.java");
+		parser.setCompilerOptions(COMPILER_OPTIONS);
+
+		if (parseMode == ParseMode.BINDINGS) {
+			parser.setResolveBindings(true);
+			parser.setBindingsRecovery(true);
+			parser.setEnvironment(new String[0], new String[0], null, true);
+			parser.setUnitName("temp.java");
+		} else {
+			parser.setResolveBindings(false);
+			parser.setStatementsRecovery(true);
+		}
+		return parser;
+	}
 
-		return (CompilationUnit) parser.createAST(null);
+	private static Map<String, String> createCompilerOptions() {
+		Map<String, String> options = JavaCore.getOptions();
+		JavaCore.setComplianceOptions(JavaCore.VERSION_17, options);
+		return Collections.unmodifiableMap(options);
 	}
-}
\ No newline at end of file
+}
@@ -1,5 +1,7 @@
 package br.ufjf.capivara.analyzer;
 
+import org.eclipse.core.runtime.IProgressMonitor;
+import org.eclipse.core.runtime.OperationCanceledException;
 import org.eclipse.jdt.core.dom.*;
 import java.util.*;
 
@@ -11,13 +13,11 @@ import java.util.*;
  * Por exemplo, de uma expressão como {@code (a > 0 && b < 10)}, este extrator
  * identifica as duas condições individuais: {@code "a > 0"} e {@code "b < 10"}.
  * <p>
- * O resultado é usado pelo {@link br.ufjf.capivara.table.TruthTableGenerator}
- * para construir as colunas da tabela verdade.
+ * As colunas da tabela verdade vêm do {@link PathConditionCollector}, que faz a
+ * mesma decomposição junto com a extração dos caminhos.
  */
 public class ConditionExtractor {
 
-	private final Set<String> atomicConditions = new LinkedHashSet<>();
-
 	/**
 	 * Extrai todas as condições individuais e únicas de um determinado método,
 	 * mantendo a ordem em que aparecem no código.
@@ -26,56 +26,23 @@ public class ConditionExtractor {
 	 * @return Uma {@code List<String>} contendo cada condição simples encontrada.
 	 */
 	public List<String> extractAtomicConditions(MethodDeclaration method) {
-		atomicConditions.clear();
-		method.accept(new ConditionVisitor());
-		return new ArrayList<>(atomicConditions);
+		return extractAtomicConditions(method, null);
 	}
 
 	/**
-	 * Visitor interno que navega na AST para encontrar e extrair as condições.
+	 * Extrai as condições do método, interrompendo a visita se o monitor for cancelado.
+	 * A decomposição é feita pelo {@link PathConditionCollector}, o mesmo que extrai os
+	 * caminhos da tabela verdade.
+	 *
+	 * @param method  O nó {@code MethodDeclaration} da AST a ser analisado.
+	 * @param monitor O monitor de progresso, ou {@code null}.
+	 * @return Uma {@code List<String>} contendo cada condição simples encontrada.
+	 * @throws OperationCanceledException Se o monitor for cancelado durante a visita.
 	 */
-	private class ConditionVisitor extends ASTVisitor {
-
-		@Override
-		public boolean visit(IfStatement node) {
-			extractFromExpression(node.getExpression());
-			return true; // Continua a visita nos filhos para encontrar 'if' aninhados
-		}
-
-		private void extractFromExpression(Expression expression) {
-			if (expression instanceof InfixExpression) {
-				InfixExpression infixExpr = (InfixExpression) expression;
-				InfixExpression.Operator operator = infixExpr.getOperator();
-
-				if (operator == InfixExpression.Operator.CONDITIONAL_AND
-						|| operator == InfixExpression.Operator.CONDITIONAL_OR) {
-					// se e um operador logico && ou || vamos analisar os dois lados.
-					extractFromExpression(infixExpr.getLeftOperand());
-					extractFromExpression(infixExpr.getRightOperand());
-				} else {
-					// se e um operador (==, >, <, <= ou >= então e uma condição individual.
-					addAtomicCondition(expression.toString());
-				}
-			} else if (expression instanceof ParenthesizedExpression) {
-				extractFromExpression(((ParenthesizedExpression) expression).getExpression());
-			} else if (expression instanceof PrefixExpression) {
-				PrefixExpression prefixExpr = (PrefixExpression) expression;
-				if (prefixExpr.getOperator() == PrefixExpression.Operator.NOT) {
-					extractFromExpression(prefixExpr.getOperand());
-				} else {
-					addAtomicCondition(expression.toString());
-				}
-			} else {
-				addAtomicCondition(expression.toString());
-			}
-		}
-
-		private void addAtomicCondition(String condition) {
-			String normalized = condition.trim().replaceAll("\\s+", " ");
-			if (!normalized.isEmpty()) {
-				atomicConditions.add(normalized); 
-			}
-		}
+	public List<String> extractAtomicConditions(MethodDeclaration method, IProgressMonitor monitor) {
+		PathConditionCollector collector = new PathConditionCollector(monitor);
+		collector.scanConditions(method);
+		return new ArrayList<>(collector.getAtomicConditions());
 	}
 
 	/**
@@ -113,7 +80,28 @@ public class ConditionExtractor {
 	 * @return A condição com espaçamento padronizado.
 	 */
 	public static String normalizeCondition(String condition) {
-		return condition.trim().replaceAll("\\s+", " ").replace(" == ", " == ").replace(" != ", " != ")
-				.replace(" < ", " < ").replace(" > ", " > ").replace(" <= ", " <= ").replace(" >= ", " >= ");
+		String trimmed = condition.trim();
+		// Troca cada sequência de espaços em branco por um único espaço, sem expressão regular
+		StringBuilder normalized = null;
+		for (int i = 0; i < trimmed.length(); i++) {
+			char c = trimmed.charAt(i);
+			if (isWhitespace(c) && (c != ' ' || i + 1 < trimmed.length() && isWhitespace(trimmed.charAt(i + 1)))) {
+				if (normalized == null) {
+					normalized = new StringBuilder(trimmed.length()).append(trimmed, 0, i);
+				}
+				normalized.append(' ');
+				while (i + 1 < trimmed.length() && isWhitespace(trimmed.charAt(i + 1))) {
+					i++;
+				}
+			} else if (normalized != null) {
+				normalized.append(c);
+			}
+		}
+		return normalized != null ? normalized.toString() : trimmed;
+	}
+
+	// Os mesmos caracteres de \s em expressões regulares
+	private static boolean isWhitespace(char c) {
+		return c == ' ' || c == '\t' || c == '\n' || c == '\u000B' || c == '\f' || c == '\r';
 	}
 }
\ No newline at end of file
@@ -0,0 +1,134 @@
+package br.ufjf.capivara.analyzer;
+
+import java.util.List;
+
+import org.eclipse.jdt.core.dom.*;
+
+/**
+ * Chave de uma condição atômica na tabela de condições do
+ * {@link PathConditionCollector}, comparada pela estrutura da subárvore da AST em
+ * vez do texto da condição.
+ * <p>
+ * As comparações são canonizadas antes de formar a chave: {@code b > a} vira
+ * {@code a < b}, {@code b >= a} vira {@code a <= b}, {@code a == b} e {@code b == a}
+ * são a mesma chave, e {@code a != b} é a chave de {@code a == b} com
+ * {@link #isNegated()} verdadeiro. Assim, {@code a != b} e {@code !(a == b)} ocupam a
+ * mesma coluna da tabela verdade. {@code !(a < b)} e {@code a >= b} continuam
+ * diferentes, porque não são equivalentes quando um dos lados é {@code NaN}.
+ * <p>
+ * O hash percorre as propriedades estruturais de cada nó (tipo, operadores, nomes e
+ * literais), as mesmas comparadas pelo {@link ASTMatcher} usado no
+ * {@link #equals(Object)}.
+ */
+final class ConditionKey {
+
+	private static final ASTMatcher MATCHER = new ASTMatcher();
+
+	// null para condições que não são comparações
+	private final InfixExpression.Operator operator;
+	private final Expression left;
+	private final Expression right;
+	private final boolean negated;
+	private final int hash;
+
+	private ConditionKey(InfixExpression.Operator operator, Expression left, Expression right, boolean negated) {
+		this.operator = operator;
+		this.left = left;
+		this.right = right;
+		this.negated = negated;
+		if (operator == null) {
+			this.hash = structuralHash(left);
+		} else if (operator == InfixExpression.Operator.EQUALS) {
+			// Soma comutativa: a == b e b == a têm o mesmo hash
+			this.hash = 31 * operator.toString().hashCode() + structuralHash(left) + structuralHash(right);
+		} else {
+			this.hash = (31 * operator.toString().hashCode() + structuralHash(left)) * 31 + structuralHash(right);
+		}
+	}
+
+	/**
+	 * Cria a chave canônica de uma condição atômica.
+	 *
+	 * @param expression A condição atômica.
+	 * @return A chave, com {@link #isNegated()} indicando se a condição é a negação da
+	 *         forma canônica.
+	 */
+	static ConditionKey of(Expression expression) {
+		if (expression instanceof InfixExpression && !((InfixExpression) expression).hasExtendedOperands()) {
+			InfixExpression infixExpr = (InfixExpression) expression;
+			InfixExpression.Operator operator = infixExpr.getOperator();
+			Expression left = infixExpr.getLeftOperand();
+			Expression right = infixExpr.getRightOperand();
+			if (operator == InfixExpression.Operator.EQUALS) {
+				return new ConditionKey(operator, left, right, false);
+			} else if (operator == InfixExpression.Operator.NOT_EQUALS) {
+				return new ConditionKey(InfixExpression.Operator.EQUALS, left, right, true);
+			} else if (operator == InfixExpression.Operator.LESS || operator == InfixExpression.Operator.LESS_EQUALS) {
+				return new ConditionKey(operator, left, right, false);
+			} else if (operator == InfixExpression.Operator.GREATER) {
+				return new ConditionKey(InfixExpression.Operator.LESS, right, left, false);
+			} else if (operator == InfixExpression.Operator.GREATER_EQUALS) {
+				return new ConditionKey(InfixExpression.Operator.LESS_EQUALS, right, left, false);
+			}
+		}
+		return new ConditionKey(null, expression, null, false);
+	}
+
+	/**
+	 * @return {@code true} se a condição da qual a chave foi criada é a negação da forma
+	 *         canônica (por exemplo, {@code a != b} para {@code a == b}).
+	 */
+	boolean isNegated() {
+		return negated;
+	}
+
+	@Override
+	public int hashCode() {
+		return hash;
+	}
+
+	@Override
+	public boolean equals(Object obj) {
+		if (this == obj)
+			return true;
+		if (!(obj instanceof ConditionKey))
+			return false;
+		ConditionKey other = (ConditionKey) obj;
+		if (hash != other.hash || operator != other.operator)
+			return false;
+		if (operator == null)
+			return left.subtreeMatch(MATCHER, other.left);
+		if (left.subtreeMatch(MATCHER, other.left) && right.subtreeMatch(MATCHER, other.right))
+			return true;
+		return operator == InfixExpression.Operator.EQUALS && left.subtreeMatch(MATCHER, other.right)
+				&& right.subtreeMatch(MATCHER, other.left);
+	}
+
+	private static int structuralHash(ASTNode node) {
+		if (node instanceof Javadoc) {
+			// Comentários não mudam a condição
+			return 0;
+		}
+		int hash = node.getNodeType();
+		for (Object property : node.structuralPropertiesForType()) {
+			hash = 31 * hash + valueHash(node.getStructuralProperty((StructuralPropertyDescriptor) property));
+		}
+		return hash;
+	}
+
+	private static int valueHash(Object value) {
+		if (value == null) {
+			return 0;
+		} else if (value instanceof ASTNode) {
+			return structuralHash((ASTNode) value);
+		} else if (value instanceof List) {
+			int hash = 1;
+			for (Object element : (List<?>) value) {
+				hash = 31 * hash + structuralHash((ASTNode) element);
+			}
+			return hash;
+		}
+		// Nomes, literais, operadores, modificadores e tipos primitivos
+		return value.toString().hashCode();
+	}
+}
@@ -0,0 +1,393 @@
+package br.ufjf.capivara.analyzer;
+
+import java.util.ArrayDeque;
+import java.util.ArrayList;
+import java.util.BitSet;
+import java.util.Collections;
+import java.util.Deque;
+import java.util.HashMap;
+import java.util.List;
+import java.util.Map;
+
+import org.eclipse.core.runtime.IProgressMonitor;
+import org.eclipse.core.runtime.OperationCanceledException;
+import org.eclipse.jdt.core.dom.*;
+
+import br.ufjf.capivara.model.ConditionProgram;
+import br.ufjf.capivara.model.PathCondition;
+
+/**
+ * Extrai, em uma única visita, as condições atômicas de um método e os seus caminhos
+ * de execução (retornos e atribuições) com as condições acumuladas.
+ * <p>
+ * Cada condição atômica é identificada pela estrutura da sua subárvore
+ * ({@link ConditionKey}), de modo que {@code b > a} e {@code a < b} são a mesma
+ * condição e {@code a != b} é a negação de {@code a == b}. A condição recebe como
+ * identificador a sua posição na ordem do código (a coluna da tabela verdade) e é
+ * convertida em texto uma única vez, na primeira ocorrência, que dá o nome da coluna.
+ * As condições dos caminhos são compiladas diretamente em {@link ConditionProgram}s
+ * sobre esses identificadores, negando a coluna nas ocorrências com a polaridade
+ * oposta à da primeira.
+ * <p>
+ * O {@link CauseEffectVisitor} usa um coletor por método e o alimenta durante a
+ * construção do grafo ({@link #enterThen}, {@link #addReturn}, ...), de modo que grafo,
+ * condições e caminhos saem da mesma visita à AST; as partes da AST que o grafo não
+ * percorre (expressões, lambdas e classes anônimas dentro de comandos) são visitadas
+ * pelo próprio coletor ({@link #scanConditions}, {@link #scanPaths}). Sem o grafo,
+ * {@link #collect} faz a mesma extração com uma visita própria.
+ */
+public class PathConditionCollector {
+
+	// Identificador de cada condição atômica, na ordem em que aparecem
+	private final Map<ConditionKey, Integer> atomIndex = new HashMap<>();
+	private final List<String> atomicConditions = new ArrayList<>();
+	// Colunas cujo texto é a negação da forma canônica (por exemplo, a != b)
+	private final BitSet negatedAtoms = new BitSet();
+	private final List<PathCondition> pathConditions = new ArrayList<>();
+
+	// Condições dos ramos abertos: o texto acumulado e um programa por ramo
+	private final StringBuilder pathCondition = new StringBuilder();
+	private final Deque<Integer> pathConditionLengths = new ArrayDeque<>();
+	private final Deque<ConditionProgram> programStack = new ArrayDeque<>();
+	// Texto e programa de cada if aberto, usados pelo ramo else
+	private final Deque<String> ifTexts = new ArrayDeque<>();
+	private final Deque<ConditionProgram> ifPrograms = new ArrayDeque<>();
+
+	private final IProgressMonitor monitor;
+
+	/**
+	 * @param monitor Monitor consultado a cada nó visitado pelo coletor; pode ser {@code null}.
+	 */
+	public PathConditionCollector(IProgressMonitor monitor) {
+		this.monitor = monitor;
+	}
+
+	/**
+	 * Extrai as condições e os caminhos de um método com uma única visita.
+	 *
+	 * @param method  O método.
+	 * @param monitor O monitor de progresso, ou {@code null}.
+	 * @return O coletor com as condições e os caminhos do método.
+	 * @throws OperationCanceledException Se o monitor for cancelado.
+	 */
+	public static PathConditionCollector collect(MethodDeclaration method, IProgressMonitor monitor) {
+		PathConditionCollector collector = new PathConditionCollector(monitor);
+		collector.scanPaths(method);
+		return collector;
+	}
+
+	/**
+	 * @return As condições atômicas normalizadas, na ordem em que aparecem no código.
+	 */
+	public List<String> getAtomicConditions() {
+		return Collections.unmodifiableList(atomicConditions);
+	}
+
+	/**
+	 * @return Os caminhos, na ordem em que aparecem no código, com as condições
+	 *         compiladas sobre os índices de {@link #getAtomicConditions()}.
+	 */
+	public List<PathCondition> getPathConditions() {
+		return Collections.unmodifiableList(pathConditions);
+	}
+
+	/**
+	 * Abre o ramo {@code then} de um {@code if}: registra as condições atômicas da
+	 * expressão (inclusive as de {@code if}s dentro dela, em lambdas) e acrescenta a
+	 * condição aos caminhos seguintes.
+	 *
+	 * @param node       O comando {@code if}.
+	 * @param expression O texto da expressão, {@code node.getExpression().toString()}.
+	 */
+	public void enterThen(IfStatement node, String expression) {
+		ConditionProgram program = compileCondition(node.getExpression());
+		scanConditions(node.getExpression());
+		ifTexts.push(expression);
+		ifPrograms.push(program);
+		pushCondition("(" + expression + ")", program);
+	}
+
+	/**
+	 * Troca o ramo {@code then} do último {@code if} aberto pelo ramo {@code else}.
+	 */
+	public void enterElse() {
+		popCondition();
+		pushCondition("!(" + "(" + ifTexts.peek() + ")" + ")",
+				ConditionProgram.builder().append(ifPrograms.peek()).not().build());
+	}
+
+	/**
+	 * Fecha o último {@code if} aberto.
+	 */
+	public void exitIf() {
+		popCondition();
+		ifTexts.pop();
+		ifPrograms.pop();
+	}
+
+	/**
+	 * Registra o caminho de um {@code return} e as condições de {@code if}s dentro da
+	 * expressão retornada.
+	 */
+	public void addReturn(ReturnStatement node) {
+		String effect;
+		Expression expr = node.getExpression();
+
+		if (expr == null) {
+			effect = "void";
+		} else if (expr instanceof StringLiteral) {
+			effect = ((StringLiteral) expr).getLiteralValue();
+		} else if (expr instanceof CharacterLiteral) {
+			effect = ((CharacterLiteral) expr).getEscapedValue().replace("'", "");
+		} else if (expr instanceof NumberLiteral) {
+			effect = ((NumberLiteral) expr).getToken();
+		} else if (expr instanceof BooleanLiteral) {
+			effect = String.valueOf(((BooleanLiteral) expr).booleanValue());
+		} else {
+			effect = expr.toString();
+		}
+
+		pathConditions.add(new PathCondition(currentPathCondition(), effect, currentPathProgram()));
+		if (expr != null) {
+			scanConditions(expr);
+		}
+	}
+
+	/**
+	 * Registra o caminho de uma atribuição e as condições de {@code if}s dentro da
+	 * expressão (por exemplo, no corpo de uma lambda passada a um método).
+	 */
+	public void addExpression(ExpressionStatement node) {
+		if (node.getExpression() instanceof Assignment) {
+			Assignment a = (Assignment) node.getExpression();
+			String rhs;
+
+			if (a.getRightHandSide() instanceof StringLiteral) {
+				rhs = ((StringLiteral) a.getRightHandSide()).getLiteralValue();
+			} else if (a.getRightHandSide() instanceof CharacterLiteral) {
+				rhs = ((CharacterLiteral) a.getRightHandSide()).getEscapedValue().replace("'", "");
+			} else if (a.getRightHandSide() instanceof NumberLiteral) {
+				rhs = ((NumberLiteral) a.getRightHandSide()).getToken();
+			} else if (a.getRightHandSide() instanceof BooleanLiteral) {
+				rhs = String.valueOf(((BooleanLiteral) a.getRightHandSide()).booleanValue());
+			} else {
+				rhs = a.getRightHandSide().toString();
+			}
+
+			String effect = a.getLeftHandSide().toString() + " " + a.getOperator().toString() + " " + rhs;
+			pathConditions.add(new PathCondition(currentPathCondition(), effect, currentPathProgram()));
+		}
+		scanConditions(node.getExpression());
+	}
+
+	/**
+	 * Visita um trecho da AST registrando apenas as condições atômicas dos {@code if}s
+	 * encontrados, sem caminhos.
+	 */
+	public void scanConditions(ASTNode node) {
+		node.accept(new ConditionVisitor());
+	}
+
+	/**
+	 * Visita um trecho da AST registrando condições e caminhos, como se ele fizesse
+	 * parte do ramo aberto no momento.
+	 */
+	public void scanPaths(ASTNode node) {
+		node.accept(new PathVisitor());
+	}
+
+	private void pushCondition(String condition, ConditionProgram program) {
+		pathConditionLengths.push(pathCondition.length());
+		if (pathCondition.length() > 0) {
+			pathCondition.append(" && ");
+		}
+		pathCondition.append(condition);
+		programStack.addLast(program);
+	}
+
+	private void popCondition() {
+		pathCondition.setLength(pathConditionLengths.pop());
+		programStack.removeLast();
+	}
+
+	private String currentPathCondition() {
+		return programStack.isEmpty() ? "default" : pathCondition.toString();
+	}
+
+	private ConditionProgram currentPathProgram() {
+		if (programStack.isEmpty())
+			return ConditionProgram.TRUE;
+		ConditionProgram.Builder builder = ConditionProgram.builder();
+		boolean first = true;
+		for (ConditionProgram program : programStack) {
+			builder.append(program);
+			if (!first) {
+				builder.and();
+			}
+			first = false;
+		}
+		return builder.build();
+	}
+
+	/**
+	 * Traduz a expressão de um {@code if} para um programa pós-fixo, atribuindo um
+	 * identificador a cada condição atômica ainda não vista. A decomposição é a mesma
+	 * do {@link ConditionExtractor}.
+	 */
+	private ConditionProgram compileCondition(Expression expression) {
+		ConditionProgram.Builder builder = ConditionProgram.builder();
+		try {
+			emitCondition(expression, builder);
+			return builder.build();
+		} catch (IllegalArgumentException e) {
+			System.err.println("Erro ao compilar condição: " + expression + " - " + e.getMessage());
+			return ConditionProgram.FALSE;
+		}
+	}
+
+	private void emitCondition(Expression expression, ConditionProgram.Builder builder) {
+		if (expression instanceof InfixExpression) {
+			InfixExpression infixExpr = (InfixExpression) expression;
+			InfixExpression.Operator operator = infixExpr.getOperator();
+			boolean and = operator == InfixExpression.Operator.CONDITIONAL_AND;
+			if (and || operator == InfixExpression.Operator.CONDITIONAL_OR) {
+				emitCondition(infixExpr.getLeftOperand(), builder);
+				emitCondition(infixExpr.getRightOperand(), builder);
+				emitOperator(and, builder);
+				for (Object extended : infixExpr.extendedOperands()) {
+					emitCondition((Expression) extended, builder);
+					emitOperator(and, builder);
+				}
+				return;
+			}
+		} else if (expression instanceof ParenthesizedExpression) {
+			emitCondition(((ParenthesizedExpression) expression).getExpression(), builder);
+			return;
+		} else if (expression instanceof PrefixExpression
+				&& ((PrefixExpression) expression).getOperator() == PrefixExpression.Operator.NOT) {
+			emitCondition(((PrefixExpression) expression).getOperand(), builder);
+			builder.not();
+			return;
+		}
+		ConditionKey key = ConditionKey.of(expression);
+		int index = internAtom(expression, key);
+		if (index < 0) {
+			throw new IllegalArgumentException("Condição atômica vazia: " + expression);
+		}
+		builder.atom(index);
+		if (key.isNegated() != negatedAtoms.get(index)) {
+			builder.not();
+		}
+	}
+
+	private static void emitOperator(boolean and, ConditionProgram.Builder builder) {
+		if (and) {
+			builder.and();
+		} else {
+			builder.or();
+		}
+	}
+
+	/**
+	 * @return O identificador da condição atômica, atribuído na primeira ocorrência, ou
+	 *         {@code -1} se o texto normalizado for vazio.
+	 */
+	private int internAtom(Expression expression, ConditionKey key) {
+		Integer index = atomIndex.get(key);
+		if (index == null) {
+			String atom = ConditionExtractor.normalizeCondition(expression.toString());
+			if (atom.isEmpty()) {
+				return -1;
+			}
+			index = atomicConditions.size();
+			atomIndex.put(key, index);
+			atomicConditions.add(atom);
+			negatedAtoms.set(index, key.isNegated());
+		}
+		return index;
+	}
+
+	/** Decompõe a expressão em condições atômicas sem compilar um programa. */
+	private void internAtoms(Expression expression) {
+		if (expression instanceof InfixExpression) {
+			InfixExpression infixExpr = (InfixExpression) expression;
+			InfixExpression.Operator operator = infixExpr.getOperator();
+			if (operator == InfixExpression.Operator.CONDITIONAL_AND
+					|| operator == InfixExpression.Operator.CONDITIONAL_OR) {
+				internAtoms(infixExpr.getLeftOperand());
+				internAtoms(infixExpr.getRightOperand());
+				for (Object extended : infixExpr.extendedOperands()) {
+					internAtoms((Expression) extended);
+				}
+				return;
+			}
+		} else if (expression instanceof ParenthesizedExpression) {
+			internAtoms(((ParenthesizedExpression) expression).getExpression());
+			return;
+		} else if (expression instanceof PrefixExpression
+				&& ((PrefixExpression) expression).getOperator() == PrefixExpression.Operator.NOT) {
+			internAtoms(((PrefixExpression) expression).getOperand());
+			return;
+		}
+		internAtom(expression, ConditionKey.of(expression));
+	}
+
+	private void checkCanceled() {
+		if (monitor != null && monitor.isCanceled()) {
+			throw new OperationCanceledException();
+		}
+	}
+
+	/**
+	 * Registra apenas as condições atômicas dos {@code if}s, em pré-ordem.
+	 */
+	private class ConditionVisitor extends ASTVisitor {
+		@Override
+		public boolean preVisit2(ASTNode node) {
+			checkCanceled();
+			return true;
+		}
+
+		@Override
+		public boolean visit(IfStatement node) {
+			internAtoms(node.getExpression());
+			return true; // Continua a visita nos filhos para encontrar 'if' aninhados
+		}
+	}
+
+	/**
+	 * Registra condições e caminhos: cada {@code if} abre os seus ramos, e retornos e
+	 * atribuições viram caminhos com as condições dos ramos abertos.
+	 */
+	private class PathVisitor extends ASTVisitor {
+		@Override
+		public boolean preVisit2(ASTNode node) {
+			checkCanceled();
+			return true;
+		}
+
+		@Override
+		public boolean visit(IfStatement node) {
+			enterThen(node, node.getExpression().toString());
+			node.getThenStatement().accept(this);
+			if (node.getElseStatement() != null) {
+				enterElse();
+				node.getElseStatement().accept(this);
+			}
+			exitIf();
+			return false;
+		}
+
+		@Override
+		public boolean visit(ReturnStatement node) {
+			addReturn(node);
+			return false;
+		}
+
+		@Override
+		public boolean visit(ExpressionStatement node) {
+			addExpression(node);
+			return false;
+		}
+	}
+}
@@ -0,0 +1,689 @@
+package br.ufjf.capivara.batch;
+
+import java.io.BufferedWriter;
+import java.io.IOException;
+import java.io.UncheckedIOException;
+import java.io.Writer;
+import java.nio.ByteBuffer;
+import java.nio.channels.FileChannel;
+import java.nio.charset.StandardCharsets;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.nio.file.Paths;
+import java.nio.file.StandardCopyOption;
+import java.nio.file.StandardOpenOption;
+import java.time.Duration;
+import java.util.ArrayList;
+import java.util.HashMap;
+import java.util.List;
+import java.util.Locale;
+import java.util.Map;
+import java.util.Objects;
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.Executor;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.ForkJoinPool;
+import java.util.concurrent.Phaser;
+import java.util.concurrent.Semaphore;
+import java.util.concurrent.atomic.AtomicInteger;
+import java.util.stream.Collectors;
+import java.util.stream.Stream;
+
+import org.eclipse.jdt.core.dom.ASTNode;
+import org.eclipse.jdt.core.dom.AbstractTypeDeclaration;
+import org.eclipse.jdt.core.dom.AnonymousClassDeclaration;
+import org.eclipse.jdt.core.dom.CompilationUnit;
+import org.eclipse.jdt.core.dom.MethodDeclaration;
+
+import br.ufjf.capivara.analyzer.CauseEffectVisitor;
+import br.ufjf.capivara.analyzer.CodeAnalyzer;
+import br.ufjf.capivara.cache.AnalysisCache;
+import br.ufjf.capivara.cache.AnalysisCodec;
+import br.ufjf.capivara.cache.AnalysisStore;
+import br.ufjf.capivara.cache.ContentHash;
+import br.ufjf.capivara.graph.GraphLayout;
+import br.ufjf.capivara.graph.GraphvizGenerator;
+import br.ufjf.capivara.graph.SvgRenderer;
+import br.ufjf.capivara.model.ControlFlowGraph;
+import br.ufjf.capivara.model.PathCondition;
+import br.ufjf.capivara.table.CoveringArray;
+import br.ufjf.capivara.table.TruthTableGenerator;
+
+/**
+ * Analisador em lote, sem interface gráfica, para uso em servidores de integração
+ * contínua.
+ * <p>
+ * Percorre recursivamente um diretório de arquivos {@code .java} e, para cada método
+ * com corpo, executa a mesma sequência do {@link br.ufjf.capivara.handlers.AnalysisJob}:
+ * {@link CodeAnalyzer}, {@link CauseEffectVisitor}, {@link TruthTableGenerator} e
+ * {@link GraphvizGenerator}. Os resultados são gravados no diretório de saída,
+ * espelhando a estrutura de pacotes:
+ *
+ * <pre>
+ * saida/caminho/do/Arquivo/Classe.metodo_L12.nos.txt    código anotado com os nós
+ * saida/caminho/do/Arquivo/Classe.metodo_L12.tabela.txt tabela verdade
+ * saida/caminho/do/Arquivo/Classe.metodo_L12.dot        grafo de fluxo de controle
+ * saida/caminho/do/Arquivo/Classe.metodo_L12.svg        desenho do grafo (opcional)
+ * </pre>
+ *
+ * Depende apenas do JDT Core e do runtime do Eclipse, então pode ser executado com
+ * {@code java -cp ... br.ufjf.capivara.batch.BatchAnalyzer <código> <saída>} ou como
+ * a aplicação Eclipse {@code br.ufjf.capivara.batch} (veja {@link BatchApplication}).
+ * Um erro em um arquivo é reportado e não interrompe a análise dos demais.
+ * <p>
+ * Com um {@link Executor} configurado ({@link #setExecutor}), os arquivos são
+ * analisados em paralelo e os métodos de cada arquivo são distribuídos entre as
+ * threads. Como os visitors e geradores guardam estado mutável, cada thread usa suas
+ * próprias instâncias. O número de arquivos já lidos e ainda não concluídos é
+ * limitado por {@link #setMaxPendingFiles}, de modo que a memória ocupada pelas
+ * ASTs não cresce com o tamanho do projeto.
+ * <p>
+ * Com um {@link AnalysisCache} configurado ({@link #setCache}), a tabela verdade e o
+ * grafo DOT de um método cujo código já foi analisado não são recalculados: os
+ * arquivos gravados anteriormente são mantidos, ou copiados se o método mudou de
+ * posição ou aparece em outro arquivo. Ao lado deles fica um arquivo {@code .hash}
+ * com o hash do código que os gerou, conferido antes de reaproveitá-los: um método
+ * alterado no lugar regrava os arquivos com o mesmo nome, e as entradas antigas do
+ * cache que apontam para eles deixam de valer. Com um {@link AnalysisStore} ({@link #setStore}),
+ * essa associação é guardada em disco e uma nova execução sobre o mesmo diretório de
+ * saída só refaz os métodos alterados.
+ */
+public class BatchAnalyzer {
+
+	private static final String SOURCE_EXTENSION = ".java";
+	private static final String HASH_SUFFIX = ".hash";
+
+	private final Path outputDirectory;
+	private Executor executor;
+	private int maxPendingFiles = 2 * Runtime.getRuntime().availableProcessors();
+	private AnalysisCache<Path> cache;
+	private AnalysisStore store;
+	private TruthTableGenerator.TableMode tableMode = TruthTableGenerator.TableMode.FULL;
+	private int coveringStrength = 2;
+	private boolean svgOutput;
+
+	// Cada thread usa suas próprias instâncias dos visitors e geradores.
+	private final ThreadLocal<Worker> workers = ThreadLocal.withInitial(Worker::new);
+
+	private final AtomicInteger analyzedFiles = new AtomicInteger();
+	private final AtomicInteger analyzedMethods = new AtomicInteger();
+	private final AtomicInteger failedFiles = new AtomicInteger();
+	private final AtomicInteger reusedMethods = new AtomicInteger();
+
+	/**
+	 * @param outputDirectory O diretório em que os resultados serão gravados; é criado
+	 *                        se não existir.
+	 */
+	public BatchAnalyzer(Path outputDirectory) {
+		this.outputDirectory = outputDirectory;
+	}
+
+	public Executor getExecutor() {
+		return executor;
+	}
+
+	/**
+	 * Define o executor usado para analisar arquivos e métodos em paralelo, por exemplo
+	 * um {@link ForkJoinPool}, cujo roubo de tarefas equilibra arquivos de tamanhos
+	 * muito diferentes, ou um executor de threads virtuais
+	 * ({@link #newVirtualThreadExecutor()}).
+	 *
+	 * @param executor O executor, ou {@code null} para analisar na thread chamadora.
+	 */
+	public void setExecutor(Executor executor) {
+		this.executor = executor;
+	}
+
+	public int getMaxPendingFiles() {
+		return maxPendingFiles;
+	}
+
+	/**
+	 * Define quantos arquivos podem estar em análise ao mesmo tempo no modo paralelo.
+	 * A leitura de novos arquivos espera até que algum dos pendentes termine.
+	 *
+	 * @param maxPendingFiles O limite, maior que zero.
+	 */
+	public void setMaxPendingFiles(int maxPendingFiles) {
+		if (maxPendingFiles < 1) {
+			throw new IllegalArgumentException("Limite de arquivos pendentes inválido: " + maxPendingFiles);
+		}
+		this.maxPendingFiles = maxPendingFiles;
+	}
+
+	public TruthTableGenerator.TableMode getTableMode() {
+		return tableMode;
+	}
+
+	/**
+	 * Define a forma das tabelas gravadas, por exemplo
+	 * {@link TruthTableGenerator.TableMode#MCDC} para gravar apenas os casos MC/DC.
+	 *
+	 * @param tableMode A forma da tabela.
+	 */
+	public void setTableMode(TruthTableGenerator.TableMode tableMode) {
+		this.tableMode = Objects.requireNonNull(tableMode);
+	}
+
+	public int getCoveringStrength() {
+		return coveringStrength;
+	}
+
+	/**
+	 * Define a força t das tabelas do modo {@link TruthTableGenerator.TableMode#COVERING}.
+	 *
+	 * @param coveringStrength A força, entre 1 e {@link CoveringArray#MAX_STRENGTH}.
+	 */
+	public void setCoveringStrength(int coveringStrength) {
+		if (coveringStrength < 1 || coveringStrength > CoveringArray.MAX_STRENGTH) {
+			throw new IllegalArgumentException("Força de cobertura inválida: " + coveringStrength);
+		}
+		this.coveringStrength = coveringStrength;
+	}
+
+	public boolean isSvgOutput() {
+		return svgOutput;
+	}
+
+	/**
+	 * Define se o desenho de cada grafo também é gravado em SVG, com o layout do
+	 * {@link GraphLayout}, sem depender do Graphviz.
+	 *
+	 * @param svgOutput {@code true} para gravar os arquivos {@code .svg}.
+	 */
+	public void setSvgOutput(boolean svgOutput) {
+		this.svgOutput = svgOutput;
+	}
+
+	public AnalysisCache<Path> getCache() {
+		return cache;
+	}
+
+	/**
+	 * Define o cache que associa o hash do código de cada método ao caminho base dos
+	 * arquivos já gravados para ele (sem as extensões {@code .tabela.txt}, {@code .dot}
+	 * e {@code .hash}).
+	 *
+	 * @param cache O cache, que pode ser compartilhado entre execuções, ou {@code null}
+	 *              para sempre recalcular.
+	 */
+	public void setCache(AnalysisCache<Path> cache) {
+		this.cache = cache;
+	}
+
+	public AnalysisStore getStore() {
+		return store;
+	}
+
+	/**
+	 * Define o cache em disco consultado quando o método não está no cache em memória;
+	 * só é usado junto com {@link #setCache}.
+	 *
+	 * @param store O cache em disco, ou {@code null}.
+	 */
+	public void setStore(AnalysisStore store) {
+		this.store = store;
+	}
+
+	/**
+	 * Cria um executor que inicia uma thread virtual por tarefa.
+	 * <p>
+	 * O plugin é compilado para Java 17, então o executor é obtido por reflexão e só
+	 * existe quando o programa roda em Java 21 ou superior.
+	 *
+	 * @return O executor, ou {@code null} se a JVM não suportar threads virtuais.
+	 */
+	public static ExecutorService newVirtualThreadExecutor() {
+		try {
+			return (ExecutorService) Executors.class.getMethod("newVirtualThreadPerTaskExecutor").invoke(null);
+		} catch (ReflectiveOperationException e) {
+			return null;
+		}
+	}
+
+	/**
+	 * Ponto de entrada da linha de comando.
+	 *
+	 * @param args As opções, o diretório de código-fonte e o diretório de saída.
+	 */
+	public static void main(String[] args) {
+		System.exit(run(args));
+	}
+
+	/**
+	 * Executa a análise em lote a partir dos argumentos da linha de comando:
+	 *
+	 * <pre>
+	 * [--threads N] [--virtual-threads] [--cache-dir DIR] [--table full|symbolic|mcdc|covering|compressed|paths] [--strength T] [--svg] &lt;código&gt; &lt;saída&gt;
+	 * </pre>
+	 *
+	 * Por padrão usa um {@link ForkJoinPool} com uma thread por processador; com
+	 * {@code --threads 1} a análise é sequencial. O cache em disco fica em
+	 * {@code <saída>/.capivara-cache}, a menos que {@code --cache-dir} indique outro
+	 * diretório. A opção {@code --table} escolhe a forma das tabelas
+	 * ({@link TruthTableGenerator.TableMode}) e {@code --strength} a força do modo
+	 * {@code covering} (2, pairwise, por padrão), limitada por
+	 * {@link CoveringArray#MAX_COMBINATIONS}: métodos com condições demais para a
+	 * força pedida recebem uma mensagem de erro no lugar da tabela. Com {@code --svg},
+	 * o desenho de cada grafo também é gravado em SVG.
+	 *
+	 * @param args As opções, o diretório de código-fonte e o diretório de saída.
+	 * @return {@code 0} se todos os arquivos foram analisados, {@code 1} se algum
+	 *         arquivo falhou e {@code 2} se os argumentos forem inválidos.
+	 */
+	public static int run(String[] args) {
+		int threads = Runtime.getRuntime().availableProcessors();
+		boolean virtualThreads = false;
+		String cacheDirectory = null;
+		TruthTableGenerator.TableMode tableMode = TruthTableGenerator.TableMode.FULL;
+		int strength = 2;
+		boolean svgOutput = false;
+		List<String> paths = new ArrayList<>();
+		for (int i = 0; args != null && i < args.length; i++) {
+			if (args[i].equals("--threads") && i + 1 < args.length) {
+				try {
+					threads = Integer.parseInt(args[++i]);
+				} catch (NumberFormatException e) {
+					threads = 0;
+				}
+			} else if (args[i].equals("--virtual-threads")) {
+				virtualThreads = true;
+			} else if (args[i].equals("--cache-dir") && i + 1 < args.length) {
+				cacheDirectory = args[++i];
+			} else if (args[i].equals("--table") && i + 1 < args.length) {
+				try {
+					tableMode = TruthTableGenerator.TableMode.valueOf(args[++i].toUpperCase(Locale.ROOT));
+				} catch (IllegalArgumentException e) {
+					tableMode = null;
+				}
+			} else if (args[i].equals("--strength") && i + 1 < args.length) {
+				try {
+					strength = Integer.parseInt(args[++i]);
+				} catch (NumberFormatException e) {
+					strength = 0;
+				}
+			} else if (args[i].equals("--svg")) {
+				svgOutput = true;
+			} else {
+				paths.add(args[i]);
+			}
+		}
+		if (paths.size() != 2 || threads < 1 || tableMode == null || strength < 1
+				|| strength > CoveringArray.MAX_STRENGTH) {
+			System.err.println("Uso: BatchAnalyzer [--threads N] [--virtual-threads] [--cache-dir DIR] [--table full|symbolic|mcdc|covering|compressed|paths] [--strength T] [--svg] <diretório de código> <diretório de saída>");
+			System.err.println("  --strength T: força do modo covering, de 1 a " + CoveringArray.MAX_STRENGTH
+					+ "; cada método pode ter até C(condições, T) * 2^T = " + CoveringArray.MAX_COMBINATIONS
+					+ " combinações (1414 condições com T = 2, 145 com T = 3, 51 com T = 4, 29 com T = 5, 21 com T = 6)");
+			return 2;
+		}
+		Path sourceDirectory = Paths.get(paths.get(0));
+		if (!Files.isDirectory(sourceDirectory)) {
+			System.err.println("Diretório de código não encontrado: " + sourceDirectory);
+			return 2;
+		}
+
+		Path outputDirectory = Paths.get(paths.get(1));
+		BatchAnalyzer analyzer = new BatchAnalyzer(outputDirectory);
+		analyzer.setTableMode(tableMode);
+		analyzer.setCoveringStrength(strength);
+		analyzer.setSvgOutput(svgOutput);
+		ExecutorService executor = null;
+		if (virtualThreads) {
+			executor = newVirtualThreadExecutor();
+			if (executor == null) {
+				System.err.println("AVISO: threads virtuais exigem Java 21; usando threads de plataforma.");
+			} else {
+				analyzer.setMaxPendingFiles(threads * 2);
+			}
+		}
+		if (executor == null && threads > 1) {
+			executor = new ForkJoinPool(threads);
+		}
+		analyzer.setExecutor(executor);
+		analyzer.setCache(new AnalysisCache<>(1 << 20, 64L << 20, path -> 64 + 2L * path.toString().length()));
+		Path storeDirectory = cacheDirectory != null ? Paths.get(cacheDirectory) : outputDirectory.resolve(".capivara-cache");
+		try {
+			analyzer.setStore(new AnalysisStore(storeDirectory, AnalysisStore.pluginVersion(), 256L << 20,
+					Duration.ofDays(30)));
+		} catch (IOException e) {
+			System.err.println("AVISO: cache em disco indisponível em " + storeDirectory + ": " + e.getMessage());
+		}
+
+		long start = System.nanoTime();
+		try {
+			analyzer.analyzeDirectory(sourceDirectory);
+		} catch (IOException e) {
+			System.err.println("Erro ao percorrer " + sourceDirectory + ": " + e.getMessage());
+			return 1;
+		} finally {
+			if (executor != null) {
+				executor.shutdown();
+			}
+		}
+		long elapsedMillis = (System.nanoTime() - start) / 1_000_000;
+		System.out.println(String.format("%d arquivos, %d métodos (%d reaproveitados), %d falhas em %d ms",
+				analyzer.getAnalyzedFiles(), analyzer.getAnalyzedMethods(), analyzer.getReusedMethods(),
+				analyzer.getFailedFiles(), elapsedMillis));
+		System.out.println("Cache: " + analyzer.getCache());
+		if (analyzer.getStore() != null) {
+			System.out.println("Cache em disco: " + analyzer.getStore());
+		}
+		return analyzer.getFailedFiles() == 0 ? 0 : 1;
+	}
+
+	/**
+	 * Analisa todos os arquivos {@code .java} de um diretório e de seus subdiretórios.
+	 * Sem executor, os arquivos são analisados em ordem lexicográfica de caminho; com
+	 * executor, são iniciados nessa ordem e o método retorna quando todos terminam.
+	 *
+	 * @param sourceDirectory O diretório raiz do código-fonte.
+	 * @throws IOException Se o diretório não puder ser percorrido.
+	 */
+	public void analyzeDirectory(Path sourceDirectory) throws IOException {
+		List<Path> files;
+		try (Stream<Path> paths = Files.walk(sourceDirectory)) {
+			files = paths.filter(p -> Files.isRegularFile(p) && p.toString().endsWith(SOURCE_EXTENSION))
+					.sorted()
+					.collect(Collectors.toList());
+		}
+		if (executor == null) {
+			for (Path file : files) {
+				try {
+					analyzeFile(sourceDirectory, file);
+					analyzedFiles.incrementAndGet();
+				} catch (IOException | RuntimeException e) {
+					reportFailure(file, e);
+				}
+			}
+			return;
+		}
+
+		Semaphore pendingFiles = new Semaphore(maxPendingFiles);
+		Phaser running = new Phaser(1);
+		for (Path file : files) {
+			pendingFiles.acquireUninterruptibly();
+			running.register();
+			CompletableFuture.supplyAsync(() -> startFile(sourceDirectory, file), executor)
+					.thenCompose(methods -> methods)
+					.whenComplete((ignored, error) -> {
+						if (error == null) {
+							analyzedFiles.incrementAndGet();
+						} else {
+							reportFailure(file, error.getCause() != null ? error.getCause() : error);
+						}
+						pendingFiles.release();
+						running.arriveAndDeregister();
+					});
+		}
+		running.arriveAndAwaitAdvance();
+	}
+
+	/**
+	 * Lê e analisa sintaticamente um arquivo e distribui seus métodos no executor.
+	 *
+	 * @return Um futuro concluído quando todos os métodos do arquivo forem gravados.
+	 */
+	private CompletableFuture<Void> startFile(Path sourceDirectory, Path file) {
+		ParsedFile parsed;
+		try {
+			parsed = parseFile(sourceDirectory, file);
+		} catch (IOException e) {
+			throw new UncheckedIOException(e);
+		}
+		CompletableFuture<?>[] methods = new CompletableFuture<?>[parsed.methods.size()];
+		for (int i = 0; i < methods.length; i++) {
+			MethodDeclaration method = parsed.methods.get(i);
+			methods[i] = CompletableFuture.runAsync(() -> {
+				try {
+					workers.get().analyzeMethod(parsed, method);
+				} catch (IOException e) {
+					throw new UncheckedIOException(e);
+				}
+			}, executor);
+		}
+		analyzedMethods.addAndGet(methods.length);
+		return CompletableFuture.allOf(methods);
+	}
+
+	/**
+	 * Analisa todos os métodos de um arquivo, na thread chamadora, e grava seus resultados.
+	 *
+	 * @param sourceDirectory O diretório raiz, usado para calcular o caminho de saída.
+	 * @param file            O arquivo {@code .java}.
+	 * @return O número de métodos analisados.
+	 * @throws IOException Se o arquivo não puder ser lido ou os resultados gravados.
+	 */
+	public int analyzeFile(Path sourceDirectory, Path file) throws IOException {
+		ParsedFile parsed = parseFile(sourceDirectory, file);
+		Worker worker = workers.get();
+		for (MethodDeclaration method : parsed.methods) {
+			worker.analyzeMethod(parsed, method);
+		}
+		analyzedMethods.addAndGet(parsed.methods.size());
+		return parsed.methods.size();
+	}
+
+	private ParsedFile parseFile(Path sourceDirectory, Path file) throws IOException {
+		String source = new String(Files.readAllBytes(file), StandardCharsets.UTF_8);
+		Worker worker = workers.get();
+		CompilationUnit astRoot = worker.codeAnalyzer.parse(source);
+
+		// Uma única visita produz os grafos, as condições e os caminhos de todos os métodos do arquivo
+		worker.cfgVisitor.setup(astRoot);
+		astRoot.accept(worker.cfgVisitor);
+		List<MethodDeclaration> methods = new ArrayList<>();
+		Map<MethodDeclaration, ControlFlowGraph> graphs = new HashMap<>();
+		Map<MethodDeclaration, List<String>> conditions = new HashMap<>();
+		Map<MethodDeclaration, List<PathCondition>> paths = new HashMap<>();
+		worker.cfgVisitor.getControlFlowGraphs().forEach((method, graph) -> {
+			if (method.getBody() != null) {
+				methods.add(method);
+				graphs.put(method, graph);
+				conditions.put(method, worker.cfgVisitor.getAtomicConditions(method));
+				paths.put(method, worker.cfgVisitor.getPathConditions(method));
+			}
+		});
+
+		String relative = sourceDirectory.relativize(file).toString();
+		Path fileDirectory = outputDirectory.resolve(relative.substring(0, relative.length() - SOURCE_EXTENSION.length()));
+		Files.createDirectories(fileDirectory);
+
+		return new ParsedFile(astRoot, source, fileDirectory, methods, graphs, conditions, paths);
+	}
+
+	private void reportFailure(Path file, Throwable error) {
+		failedFiles.incrementAndGet();
+		System.err.println("Erro ao analisar " + file + ": " + error);
+	}
+
+	/**
+	 * Um arquivo já analisado sintaticamente, com os grafos, as condições e os caminhos
+	 * de todos os seus métodos. A AST é apenas lida pelos métodos, então pode ser
+	 * compartilhada entre as threads.
+	 */
+	private static final class ParsedFile {
+		private final CompilationUnit astRoot;
+		private final String source;
+		private final String[] sourceLines;
+		private final Path outputDirectory;
+		private final List<MethodDeclaration> methods;
+		private final Map<MethodDeclaration, ControlFlowGraph> graphs;
+		private final Map<MethodDeclaration, List<String>> conditions;
+		private final Map<MethodDeclaration, List<PathCondition>> paths;
+
+		private ParsedFile(CompilationUnit astRoot, String source, Path outputDirectory,
+				List<MethodDeclaration> methods, Map<MethodDeclaration, ControlFlowGraph> graphs,
+				Map<MethodDeclaration, List<String>> conditions, Map<MethodDeclaration, List<PathCondition>> paths) {
+			this.astRoot = astRoot;
+			this.source = source;
+			this.sourceLines = source.split("\\r?\\n", -1);
+			this.outputDirectory = outputDirectory;
+			this.methods = methods;
+			this.graphs = graphs;
+			this.conditions = conditions;
+			this.paths = paths;
+		}
+	}
+
+	/**
+	 * Ferramentas de análise de uma thread. Os visitors guardam estado durante a visita,
+	 * então uma instância nunca é usada por duas threads.
+	 */
+	private final class Worker {
+		private final CodeAnalyzer codeAnalyzer = new CodeAnalyzer();
+		private final CauseEffectVisitor cfgVisitor = new CauseEffectVisitor();
+		private final TruthTableGenerator truthTableGenerator = new TruthTableGenerator();
+		private final GraphvizGenerator graphGenerator = new GraphvizGenerator();
+		private final SvgRenderer svgRenderer = new SvgRenderer();
+
+		private void analyzeMethod(ParsedFile file, MethodDeclaration method) throws IOException {
+			CompilationUnit astRoot = file.astRoot;
+			truthTableGenerator.setTableMode(tableMode);
+			truthTableGenerator.setCoveringStrength(coveringStrength);
+			ControlFlowGraph graph = file.graphs.get(method);
+
+			String baseName = getMethodFileName(astRoot, method);
+			try (Writer out = Files.newBufferedWriter(file.outputDirectory.resolve(baseName + ".nos.txt"))) {
+				writeAnnotatedCode(astRoot, method, file.sourceLines, graph, out);
+			}
+			if (svgOutput) {
+				// O desenho depende só do grafo, que é refeito mesmo quando a tabela vem do cache
+				try (Writer out = Files.newBufferedWriter(file.outputDirectory.resolve(baseName + ".svg"))) {
+					svgRenderer.writeSvg(GraphLayout.compute(graph), out);
+				}
+			}
+
+			Path base = file.outputDirectory.resolve(baseName);
+			ContentHash key = null;
+			if (cache != null) {
+				String configuration = "batch/" + truthTableGenerator.getTableMode() + "/"
+						+ truthTableGenerator.getMaxFullTableConditions() + "/" + truthTableGenerator.getCoveringStrength();
+				key = ContentHash.of(configuration,
+						file.source.substring(method.getStartPosition(), method.getStartPosition() + method.getLength()));
+				Path previous = cache.get(key);
+				if (previous == null && store != null) {
+					ByteBuffer stored = store.read(key);
+					if (stored != null) {
+						previous = Paths.get(AnalysisCodec.decodeString(stored));
+						cache.put(key, previous);
+					}
+				}
+				if (previous != null && reuseOutputs(previous, base, key)) {
+					reusedMethods.incrementAndGet();
+					return;
+				}
+				// Os arquivos vão ser regravados; até o fim, não valem para nenhum hash
+				Files.deleteIfExists(withSuffix(base, HASH_SUFFIX));
+			}
+
+			try (BufferedWriter out = Files.newBufferedWriter(withSuffix(base, ".tabela.txt"))) {
+				truthTableGenerator.writeTruthTable(file.conditions.get(method), file.paths.get(method), out, null);
+			}
+			try (FileChannel out = FileChannel.open(withSuffix(base, ".dot"), StandardOpenOption.CREATE,
+					StandardOpenOption.TRUNCATE_EXISTING, StandardOpenOption.WRITE)) {
+				graphGenerator.writeDotGraph(graph, out);
+			}
+			if (key != null) {
+				Files.writeString(withSuffix(base, HASH_SUFFIX), key.toString());
+				cache.put(key, base);
+				if (store != null) {
+					store.write(key, AnalysisCodec.encodeString(base.toAbsolutePath().toString()));
+				}
+			}
+		}
+
+		/**
+		 * Reaproveita a tabela e o grafo gravados para um método idêntico.
+		 *
+		 * @return {@code false} se os arquivos anteriores não existirem mais ou tiverem
+		 *         sido regravados para outro código.
+		 */
+		private boolean reuseOutputs(Path previous, Path base, ContentHash key) {
+			Path previousTable = withSuffix(previous, ".tabela.txt");
+			Path previousDot = withSuffix(previous, ".dot");
+			if (!hasHash(previous, key) || !Files.isRegularFile(previousTable) || !Files.isRegularFile(previousDot)) {
+				return false;
+			}
+			// O cache em disco guarda caminhos absolutos
+			if (previous.toAbsolutePath().equals(base.toAbsolutePath())) {
+				return true;
+			}
+			try {
+				Files.deleteIfExists(withSuffix(base, HASH_SUFFIX));
+				Files.copy(previousTable, withSuffix(base, ".tabela.txt"), StandardCopyOption.REPLACE_EXISTING);
+				Files.copy(previousDot, withSuffix(base, ".dot"), StandardCopyOption.REPLACE_EXISTING);
+				// Outra thread pode ter regravado os arquivos anteriores durante a cópia
+				if (!hasHash(previous, key)) {
+					return false;
+				}
+				Files.writeString(withSuffix(base, HASH_SUFFIX), key.toString());
+				return true;
+			} catch (IOException e) {
+				return false;
+			}
+		}
+
+		private boolean hasHash(Path base, ContentHash key) {
+			try {
+				return Files.readString(withSuffix(base, HASH_SUFFIX)).equals(key.toString());
+			} catch (IOException e) {
+				return false;
+			}
+		}
+	}
+
+	private static Path withSuffix(Path base, String suffix) {
+		return base.resolveSibling(base.getFileName() + suffix);
+	}
+
+	/**
+	 * Escreve as linhas do método, cada uma prefixada pelo seu número no arquivo e pelo
+	 * ID do nó do grafo correspondente, no mesmo formato da view de resultados.
+	 */
+	private static void writeAnnotatedCode(CompilationUnit astRoot, MethodDeclaration method, String[] sourceLines,
+			ControlFlowGraph graph, Writer out) throws IOException {
+		int firstLine = astRoot.getLineNumber(method.getStartPosition());
+		int lastLine = astRoot.getLineNumber(method.getStartPosition() + method.getLength() - 1);
+		for (int line = firstLine; line <= lastLine && line <= sourceLines.length; line++) {
+			int nodeId = graph.getNodeForLine(line);
+			String nodeLabel = (nodeId != 0) ? String.format("/*Nó %02d*/", nodeId) : "/* */";
+			out.write(String.format("/*Linha %02d*/ %s \t%s\n", line, nodeLabel, sourceLines[line - 1]));
+		}
+	}
+
+	/**
+	 * Monta o nome dos arquivos de um método: os tipos que o envolvem, o nome do método
+	 * e a linha de declaração, que distingue sobrecargas.
+	 */
+	private static String getMethodFileName(CompilationUnit astRoot, MethodDeclaration method) {
+		StringBuilder name = new StringBuilder(method.getName().getIdentifier());
+		for (ASTNode parent = method.getParent(); parent != null; parent = parent.getParent()) {
+			if (parent instanceof AbstractTypeDeclaration) {
+				name.insert(0, ((AbstractTypeDeclaration) parent).getName().getIdentifier() + ".");
+			} else if (parent instanceof AnonymousClassDeclaration) {
+				name.insert(0, "Anonima.");
+			}
+		}
+		return name.append("_L").append(astRoot.getLineNumber(method.getStartPosition())).toString();
+	}
+
+	public int getAnalyzedFiles() {
+		return analyzedFiles.get();
+	}
+
+	public int getAnalyzedMethods() {
+		return analyzedMethods.get();
+	}
+
+	public int getFailedFiles() {
+		return failedFiles.get();
+	}
+
+	/**
+	 * @return O número de métodos cuja tabela e grafo foram obtidos pelo cache.
+	 */
+	public int getReusedMethods() {
+		return reusedMethods.get();
+	}
+}
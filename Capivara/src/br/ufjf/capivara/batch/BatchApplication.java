@@ -0,0 +1,26 @@
+package br.ufjf.capivara.batch;
+
+import org.eclipse.equinox.app.IApplication;
+import org.eclipse.equinox.app.IApplicationContext;
+
+/**
+ * Aplicação Eclipse {@code br.ufjf.capivara.batch}, que executa o
+ * {@link BatchAnalyzer} em uma instalação do Eclipse sem abrir o workbench:
+ *
+ * <pre>
+ * eclipse -nosplash -application br.ufjf.capivara.batch &lt;código&gt; &lt;saída&gt;
+ * </pre>
+ */
+public class BatchApplication implements IApplication {
+
+	@Override
+	public Object start(IApplicationContext context) {
+		String[] args = (String[]) context.getArguments().get(IApplicationContext.APPLICATION_ARGS);
+		return BatchAnalyzer.run(args);
+	}
+
+	@Override
+	public void stop() {
+		// A análise em lote não mantém recursos a serem liberados.
+	}
+}
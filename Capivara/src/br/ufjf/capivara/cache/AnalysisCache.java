@@ -0,0 +1,146 @@
+package br.ufjf.capivara.cache;
+
+import java.util.Iterator;
+import java.util.LinkedHashMap;
+import java.util.Map;
+import java.util.function.ToLongFunction;
+
+/**
+ * Cache em memória de resultados de análise, indexado pelo {@link ContentHash} do
+ * código do método.
+ * <p>
+ * Quando o número de entradas ou a soma dos pesos ultrapassa o limite, as entradas
+ * usadas há mais tempo são descartadas (LRU). O peso de cada valor é dado por uma
+ * função fornecida na criação, normalmente uma estimativa da memória ocupada.
+ * Os contadores de acertos, falhas e descartes permitem acompanhar a eficácia do
+ * cache. Todas as operações são sincronizadas, então uma instância pode ser
+ * compartilhada entre threads.
+ *
+ * @param <V> O tipo dos resultados guardados.
+ */
+public final class AnalysisCache<V> {
+
+	private final int maxEntries;
+	private final long maxWeight;
+	private final ToLongFunction<? super V> weigher;
+	private final LinkedHashMap<ContentHash, Entry<V>> entries = new LinkedHashMap<>(16, 0.75f, true);
+
+	private long weight;
+	private long hits;
+	private long misses;
+	private long evictions;
+
+	/**
+	 * @param maxEntries O número máximo de entradas, maior que zero.
+	 * @param maxWeight  A soma máxima dos pesos; um valor mais pesado que o limite não
+	 *                   é guardado.
+	 * @param weigher    Calcula o peso de um valor, por exemplo em bytes.
+	 */
+	public AnalysisCache(int maxEntries, long maxWeight, ToLongFunction<? super V> weigher) {
+		if (maxEntries < 1 || maxWeight < 1) {
+			throw new IllegalArgumentException("Limites do cache inválidos: " + maxEntries + " entradas, " + maxWeight);
+		}
+		this.maxEntries = maxEntries;
+		this.maxWeight = maxWeight;
+		this.weigher = weigher;
+	}
+
+	/**
+	 * Obtém um resultado e o marca como usado recentemente.
+	 *
+	 * @param key O hash do código do método.
+	 * @return O resultado, ou {@code null} se não estiver no cache.
+	 */
+	public synchronized V get(ContentHash key) {
+		Entry<V> entry = entries.get(key);
+		if (entry == null) {
+			misses++;
+			return null;
+		}
+		hits++;
+		return entry.value;
+	}
+
+	/**
+	 * Guarda um resultado, substituindo o anterior da mesma chave, e descarta as
+	 * entradas menos usadas até que os limites sejam respeitados.
+	 *
+	 * @param key   O hash do código do método.
+	 * @param value O resultado.
+	 */
+	public synchronized void put(ContentHash key, V value) {
+		long valueWeight = Math.max(1, weigher.applyAsLong(value));
+		Entry<V> previous = entries.remove(key);
+		if (previous != null) {
+			weight -= previous.weight;
+		}
+		if (valueWeight > maxWeight) {
+			return;
+		}
+		entries.put(key, new Entry<>(value, valueWeight));
+		weight += valueWeight;
+
+		Iterator<Map.Entry<ContentHash, Entry<V>>> eldest = entries.entrySet().iterator();
+		while (entries.size() > maxEntries || weight > maxWeight) {
+			weight -= eldest.next().getValue().weight;
+			eldest.remove();
+			evictions++;
+		}
+	}
+
+	/**
+	 * Remove um resultado do cache.
+	 *
+	 * @param key O hash do código do método.
+	 */
+	public synchronized void invalidate(ContentHash key) {
+		Entry<V> entry = entries.remove(key);
+		if (entry != null) {
+			weight -= entry.weight;
+		}
+	}
+
+	/**
+	 * Remove todos os resultados; os contadores são mantidos.
+	 */
+	public synchronized void clear() {
+		entries.clear();
+		weight = 0;
+	}
+
+	public synchronized int size() {
+		return entries.size();
+	}
+
+	public synchronized long getWeight() {
+		return weight;
+	}
+
+	public synchronized long getHits() {
+		return hits;
+	}
+
+	public synchronized long getMisses() {
+		return misses;
+	}
+
+	public synchronized long getEvictions() {
+		return evictions;
+	}
+
+	@Override
+	public synchronized String toString() {
+		return String.format("%d entradas, %d acertos, %d falhas, %d descartes", entries.size(), hits, misses,
+				evictions);
+	}
+
+	private static final class Entry<V> {
+		private final V value;
+		private final long weight;
+
+		private Entry(V value, long weight) {
+			this.value = value;
+			this.weight = weight;
+		}
+	}
+}
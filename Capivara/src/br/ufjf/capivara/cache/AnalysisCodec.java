@@ -0,0 +1,186 @@
+package br.ufjf.capivara.cache;
+
+import java.io.ByteArrayOutputStream;
+import java.io.DataOutput;
+import java.io.DataOutputStream;
+import java.io.IOException;
+import java.io.UncheckedIOException;
+import java.nio.ByteBuffer;
+import java.nio.charset.StandardCharsets;
+import java.util.ArrayList;
+import java.util.List;
+
+import br.ufjf.capivara.graph.GraphvizGenerator;
+import br.ufjf.capivara.model.ConditionProgram;
+import br.ufjf.capivara.model.ControlFlowGraph;
+import br.ufjf.capivara.model.PathCondition;
+import br.ufjf.capivara.table.TruthTableGenerator;
+import br.ufjf.capivara.table.TruthTableRows;
+
+/**
+ * Formato binário dos resultados gravados no {@link AnalysisStore}.
+ * <p>
+ * Uma análise de método é gravada como o grafo ({@link ControlFlowGraph#writeTo}),
+ * a linha inicial, as condições atômicas e os caminhos com seus programas pós-fixos.
+ * A tabela verdade não é gravada: no modo completo ela tem 2^n linhas, mas é
+ * reconstruída sem custo a partir dos caminhos, e o DOT é gerado de novo a partir do
+ * grafo. Textos são gravados como tamanho seguido de UTF-8, com {@code -1} para
+ * {@code null}.
+ */
+public final class AnalysisCodec {
+
+	private AnalysisCodec() {
+	}
+
+	/**
+	 * Codifica os resultados de um método.
+	 *
+	 * @param analysis Os resultados.
+	 * @return Os bytes a serem gravados.
+	 */
+	public static byte[] encode(CachedMethodAnalysis analysis) {
+		ByteArrayOutputStream bytes = new ByteArrayOutputStream(1024);
+		try (DataOutputStream out = new DataOutputStream(bytes)) {
+			analysis.getGraph().writeTo(out);
+			out.writeInt(analysis.getFirstLine());
+			out.writeInt(analysis.getConditions().size());
+			for (String condition : analysis.getConditions()) {
+				writeString(out, condition);
+			}
+			out.writeInt(analysis.getPathConditions().size());
+			for (PathCondition path : analysis.getPathConditions()) {
+				writeString(out, path.getCondition());
+				writeString(out, path.getEffect());
+				ConditionProgram program = path.getProgram();
+				out.writeInt(program != null ? program.length() : -1);
+				for (int i = 0; program != null && i < program.length(); i++) {
+					out.writeInt(program.opAt(i));
+				}
+			}
+		} catch (IOException e) {
+			throw new UncheckedIOException(e);
+		}
+		return bytes.toByteArray();
+	}
+
+	/**
+	 * Decodifica os resultados de um método, reconstruindo a tabela verdade e o DOT.
+	 *
+	 * @param in                  O buffer com os bytes de {@link #encode}.
+	 * @param truthTableGenerator O gerador usado para reconstruir a tabela.
+	 * @param graphGenerator      O gerador usado para reconstruir o DOT.
+	 * @return Os resultados.
+	 * @throws IllegalArgumentException Se os bytes estiverem corrompidos.
+	 */
+	public static CachedMethodAnalysis decode(ByteBuffer in, TruthTableGenerator truthTableGenerator,
+			GraphvizGenerator graphGenerator) {
+		try {
+			ControlFlowGraph graph = ControlFlowGraph.readFrom(in);
+			int firstLine = in.getInt();
+			int conditionCount = readCount(in);
+			List<String> conditions = new ArrayList<>(conditionCount);
+			for (int i = 0; i < conditionCount; i++) {
+				conditions.add(readString(in));
+			}
+			int pathCount = readCount(in);
+			List<PathCondition> paths = new ArrayList<>(pathCount);
+			for (int i = 0; i < pathCount; i++) {
+				String condition = readString(in);
+				String effect = readString(in);
+				int length = in.getInt();
+				ConditionProgram program = null;
+				if (length >= 0) {
+					ConditionProgram.Builder builder = ConditionProgram.builder();
+					for (int j = 0; j < length; j++) {
+						appendOp(builder, in.getInt());
+					}
+					program = builder.build();
+				}
+				paths.add(new PathCondition(condition, effect, program));
+			}
+
+			TruthTableRows truthTable = truthTableGenerator.createRows(conditions, paths, null);
+			String dotGraph = graphGenerator.generateDotGraph(graph);
+			return new CachedMethodAnalysis(graph, firstLine, conditions, paths, truthTable, dotGraph);
+		} catch (RuntimeException e) {
+			throw new IllegalArgumentException("Análise em cache corrompida", e);
+		}
+	}
+
+	/**
+	 * Codifica um texto simples, como o caminho dos arquivos gerados pelo
+	 * {@link br.ufjf.capivara.batch.BatchAnalyzer}.
+	 *
+	 * @param text O texto.
+	 * @return Os bytes a serem gravados.
+	 */
+	public static byte[] encodeString(String text) {
+		return text.getBytes(StandardCharsets.UTF_8);
+	}
+
+	/**
+	 * Decodifica um texto gravado por {@link #encodeString}.
+	 *
+	 * @param in O buffer, lido até o fim.
+	 * @return O texto.
+	 */
+	public static String decodeString(ByteBuffer in) {
+		byte[] bytes = new byte[in.remaining()];
+		in.get(bytes);
+		return new String(bytes, StandardCharsets.UTF_8);
+	}
+
+	private static void appendOp(ConditionProgram.Builder builder, int op) {
+		if (op >= 0) {
+			builder.atom(op);
+			return;
+		}
+		switch (op) {
+		case ConditionProgram.OP_NOT:
+			builder.not();
+			break;
+		case ConditionProgram.OP_AND:
+			builder.and();
+			break;
+		case ConditionProgram.OP_OR:
+			builder.or();
+			break;
+		case ConditionProgram.OP_TRUE:
+			builder.constant(true);
+			break;
+		case ConditionProgram.OP_FALSE:
+			builder.constant(false);
+			break;
+		default:
+			throw new IllegalArgumentException("Operação inválida: " + op);
+		}
+	}
+
+	private static void writeString(DataOutput out, String text) throws IOException {
+		if (text == null) {
+			out.writeInt(-1);
+			return;
+		}
+		byte[] bytes = text.getBytes(StandardCharsets.UTF_8);
+		out.writeInt(bytes.length);
+		out.write(bytes);
+	}
+
+	private static String readString(ByteBuffer in) {
+		int length = in.getInt();
+		if (length < 0) {
+			return null;
+		}
+		byte[] bytes = new byte[length];
+		in.get(bytes);
+		return new String(bytes, StandardCharsets.UTF_8);
+	}
+
+	private static int readCount(ByteBuffer in) {
+		int count = in.getInt();
+		if (count < 0 || count > in.remaining()) {
+			throw new IllegalArgumentException("Quantidade inválida: " + count);
+		}
+		return count;
+	}
+}
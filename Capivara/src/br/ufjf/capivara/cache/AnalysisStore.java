@@ -0,0 +1,366 @@
+package br.ufjf.capivara.cache;
+
+import java.io.IOException;
+import java.io.InputStream;
+import java.net.URL;
+import java.nio.ByteBuffer;
+import java.nio.MappedByteBuffer;
+import java.nio.channels.FileChannel;
+import java.nio.file.AtomicMoveNotSupportedException;
+import java.nio.file.DirectoryStream;
+import java.nio.file.Files;
+import java.nio.file.NoSuchFileException;
+import java.nio.file.Path;
+import java.nio.file.Paths;
+import java.nio.file.StandardCopyOption;
+import java.nio.file.StandardOpenOption;
+import java.nio.file.attribute.BasicFileAttributes;
+import java.nio.file.attribute.FileTime;
+import java.time.Duration;
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.Comparator;
+import java.util.List;
+import java.util.concurrent.atomic.AtomicBoolean;
+import java.util.concurrent.atomic.AtomicLong;
+import java.util.jar.JarInputStream;
+import java.util.jar.Manifest;
+import java.util.stream.Stream;
+
+import org.osgi.framework.Bundle;
+import org.osgi.framework.FrameworkUtil;
+
+/**
+ * Cache em disco de resultados de análise, indexado pelo {@link ContentHash} do
+ * código do método, que sobrevive ao fechamento do Eclipse.
+ * <p>
+ * Cada entrada é um arquivo {@code <raiz>/<versão>-f<formato>/<xx>/<hash>.bin}, onde
+ * {@code xx} são os dois primeiros dígitos do hash. O arquivo tem um cabeçalho com um
+ * número mágico, a versão do formato, o hash e o tamanho do conteúdo, seguido do
+ * conteúdo produzido pelo {@link AnalysisCodec}. A versão do plugin faz parte do
+ * diretório: ao atualizar o plugin, os resultados antigos deixam de ser lidos e são
+ * apagados na próxima coleta.
+ * <p>
+ * As gravações usam um arquivo temporário renomeado atomicamente, então um leitor
+ * nunca vê uma entrada pela metade; entradas corrompidas são ignoradas e apagadas.
+ * As leituras mapeiam o arquivo em memória e atualizam a data de modificação, usada
+ * como data do último acesso pela coleta: quando o tamanho total passa do limite, as
+ * entradas usadas há mais tempo são apagadas até restar {@value #GC_TARGET_PERCENT}%
+ * do limite, e entradas sem uso há mais de {@code maxAge} são sempre apagadas.
+ * Erros de disco nunca interrompem a análise: o cache apenas deixa de ser usado.
+ */
+public final class AnalysisStore {
+
+	/** Versão do formato dos arquivos; incrementar ao mudar o {@link AnalysisCodec}. */
+	public static final int FORMAT_VERSION = 1;
+
+	private static final int MAGIC = 0x43415056; // "CAPV"
+	private static final int HEADER_LENGTH = 4 + 4 + ContentHash.LENGTH + 4;
+	private static final int GC_TARGET_PERCENT = 80;
+	private static final String ENTRY_SUFFIX = ".bin";
+	private static final String TEMP_SUFFIX = ".tmp";
+
+	private final Path root;
+	private final Path directory;
+	private final long maxBytes;
+	private final Duration maxAge;
+	private final AtomicLong totalBytes = new AtomicLong();
+	private final AtomicBoolean collecting = new AtomicBoolean();
+
+	private final AtomicLong hits = new AtomicLong();
+	private final AtomicLong misses = new AtomicLong();
+	private final AtomicLong writes = new AtomicLong();
+	private final AtomicLong deletions = new AtomicLong();
+
+	/**
+	 * Abre o cache, criando o diretório se necessário, e faz uma primeira coleta.
+	 *
+	 * @param root          O diretório raiz do cache.
+	 * @param pluginVersion A versão do plugin que grava os resultados.
+	 * @param maxBytes      O tamanho máximo do cache em disco, em bytes.
+	 * @param maxAge        O tempo máximo sem uso de uma entrada.
+	 * @throws IOException Se o diretório não puder ser criado.
+	 */
+	public AnalysisStore(Path root, String pluginVersion, long maxBytes, Duration maxAge) throws IOException {
+		if (maxBytes < 1 || maxAge.isNegative() || maxAge.isZero()) {
+			throw new IllegalArgumentException("Limites do cache inválidos: " + maxBytes + " bytes, " + maxAge);
+		}
+		this.root = root;
+		this.directory = root.resolve(pluginVersion.replaceAll("[^A-Za-z0-9._-]", "_") + "-f" + FORMAT_VERSION);
+		this.maxBytes = maxBytes;
+		this.maxAge = maxAge;
+		Files.createDirectories(directory);
+		collectGarbage();
+	}
+
+	/**
+	 * Lê o conteúdo de uma entrada.
+	 *
+	 * @param key O hash do código do método.
+	 * @return O conteúdo, mapeado em memória e pronto para leitura, ou {@code null} se
+	 *         a entrada não existir ou estiver corrompida.
+	 */
+	public ByteBuffer read(ContentHash key) {
+		Path file = entryFile(key);
+		try (FileChannel channel = FileChannel.open(file, StandardOpenOption.READ)) {
+			long size = channel.size();
+			if (size < HEADER_LENGTH || size > Integer.MAX_VALUE) {
+				throw new IOException("Tamanho inválido: " + size);
+			}
+			MappedByteBuffer buffer = channel.map(FileChannel.MapMode.READ_ONLY, 0, size);
+			if (buffer.getInt() != MAGIC || buffer.getInt() != FORMAT_VERSION) {
+				throw new IOException("Cabeçalho inválido");
+			}
+			byte[] storedKey = new byte[ContentHash.LENGTH];
+			buffer.get(storedKey);
+			if (!Arrays.equals(storedKey, key.toBytes()) || buffer.getInt() != buffer.remaining()) {
+				throw new IOException("Cabeçalho inválido");
+			}
+			touch(file);
+			hits.incrementAndGet();
+			return buffer.slice();
+		} catch (NoSuchFileException e) {
+			misses.incrementAndGet();
+			return null;
+		} catch (IOException e) {
+			misses.incrementAndGet();
+			invalidate(key);
+			return null;
+		}
+	}
+
+	/**
+	 * Grava o conteúdo de uma entrada, substituindo o anterior, e faz uma coleta se o
+	 * tamanho total passar do limite.
+	 *
+	 * @param key     O hash do código do método.
+	 * @param payload O conteúdo.
+	 */
+	public void write(ContentHash key, byte[] payload) {
+		Path file = entryFile(key);
+		Path temp = null;
+		try {
+			Files.createDirectories(file.getParent());
+			temp = Files.createTempFile(file.getParent(), file.getFileName().toString(), TEMP_SUFFIX);
+			ByteBuffer header = ByteBuffer.allocate(HEADER_LENGTH);
+			header.putInt(MAGIC).putInt(FORMAT_VERSION).put(key.toBytes()).putInt(payload.length).flip();
+			try (FileChannel channel = FileChannel.open(temp, StandardOpenOption.WRITE)) {
+				ByteBuffer[] buffers = { header, ByteBuffer.wrap(payload) };
+				while (buffers[1].hasRemaining()) {
+					channel.write(buffers);
+				}
+			}
+			long previous = sizeOf(file);
+			try {
+				Files.move(temp, file, StandardCopyOption.ATOMIC_MOVE, StandardCopyOption.REPLACE_EXISTING);
+			} catch (AtomicMoveNotSupportedException e) {
+				Files.move(temp, file, StandardCopyOption.REPLACE_EXISTING);
+			}
+			temp = null;
+			writes.incrementAndGet();
+			if (totalBytes.addAndGet(HEADER_LENGTH + payload.length - previous) > maxBytes) {
+				collectGarbage();
+			}
+		} catch (IOException e) {
+			// O resultado apenas não fica em cache
+		} finally {
+			if (temp != null) {
+				try {
+					Files.deleteIfExists(temp);
+				} catch (IOException e) {
+					// Será apagado na próxima coleta
+				}
+			}
+		}
+	}
+
+	/**
+	 * Apaga uma entrada.
+	 *
+	 * @param key O hash do código do método.
+	 */
+	public void invalidate(ContentHash key) {
+		delete(entryFile(key));
+	}
+
+	/**
+	 * Apaga os diretórios de outras versões do plugin ou do formato, os arquivos
+	 * temporários abandonados e as entradas sem uso há mais de {@code maxAge}; depois,
+	 * se o tamanho total passar do limite, apaga as entradas usadas há mais tempo.
+	 * Se outra coleta estiver em andamento, não faz nada.
+	 */
+	public void collectGarbage() {
+		if (!collecting.compareAndSet(false, true)) {
+			return;
+		}
+		try {
+			try (DirectoryStream<Path> versions = Files.newDirectoryStream(root)) {
+				for (Path version : versions) {
+					if (!version.equals(directory) && Files.isDirectory(version)) {
+						deleteTree(version);
+					}
+				}
+			}
+
+			long oldest = System.currentTimeMillis() - maxAge.toMillis();
+			List<Entry> entries = new ArrayList<>();
+			long total = 0;
+			try (Stream<Path> files = Files.walk(directory, 2)) {
+				for (Path file : (Iterable<Path>) files::iterator) {
+					String name = file.getFileName().toString();
+					if (!name.endsWith(ENTRY_SUFFIX) && !name.endsWith(TEMP_SUFFIX)) {
+						continue;
+					}
+					BasicFileAttributes attributes = Files.readAttributes(file, BasicFileAttributes.class);
+					long lastUse = attributes.lastModifiedTime().toMillis();
+					if (name.endsWith(TEMP_SUFFIX) || lastUse < oldest) {
+						delete(file);
+					} else {
+						entries.add(new Entry(file, lastUse, attributes.size()));
+						total += attributes.size();
+					}
+				}
+			}
+
+			if (total > maxBytes) {
+				long target = maxBytes / 100 * GC_TARGET_PERCENT;
+				entries.sort(Comparator.comparingLong(entry -> entry.lastUse));
+				for (int i = 0; i < entries.size() && total > target; i++) {
+					if (delete(entries.get(i).file)) {
+						total -= entries.get(i).size;
+					}
+				}
+			}
+			totalBytes.set(total);
+		} catch (IOException | RuntimeException e) {
+			// Uma coleta incompleta é refeita na próxima gravação acima do limite
+		} finally {
+			collecting.set(false);
+		}
+	}
+
+	/**
+	 * @return O tamanho total das entradas, em bytes, desde a última coleta.
+	 */
+	public long getTotalBytes() {
+		return totalBytes.get();
+	}
+
+	public long getHits() {
+		return hits.get();
+	}
+
+	public long getMisses() {
+		return misses.get();
+	}
+
+	public long getWrites() {
+		return writes.get();
+	}
+
+	public long getDeletions() {
+		return deletions.get();
+	}
+
+	public Path getDirectory() {
+		return directory;
+	}
+
+	@Override
+	public String toString() {
+		return String.format("%d KB em disco, %d acertos, %d falhas, %d gravações, %d remoções",
+				totalBytes.get() / 1024, hits.get(), misses.get(), writes.get(), deletions.get());
+	}
+
+	/**
+	 * Determina a versão do plugin: a versão do bundle no OSGi, ou a
+	 * {@code Bundle-Version} do manifesto do jar fora do Eclipse.
+	 *
+	 * @return A versão, ou {@code "dev"} se não puder ser determinada.
+	 */
+	public static String pluginVersion() {
+		try {
+			Bundle bundle = FrameworkUtil.getBundle(AnalysisStore.class);
+			if (bundle != null) {
+				return bundle.getVersion().toString();
+			}
+		} catch (LinkageError e) {
+			// Fora do OSGi, sem o framework no classpath
+		}
+		try {
+			URL location = AnalysisStore.class.getProtectionDomain().getCodeSource().getLocation();
+			Path path = Paths.get(location.toURI());
+			if (Files.isRegularFile(path)) {
+				try (InputStream in = Files.newInputStream(path); JarInputStream jar = new JarInputStream(in)) {
+					Manifest manifest = jar.getManifest();
+					String version = manifest != null ? manifest.getMainAttributes().getValue("Bundle-Version") : null;
+					if (version != null) {
+						return version;
+					}
+				}
+			}
+		} catch (Exception e) {
+			// Sem manifesto
+		}
+		return "dev";
+	}
+
+	private Path entryFile(ContentHash key) {
+		String hex = key.toString();
+		return directory.resolve(hex.substring(0, 2)).resolve(hex + ENTRY_SUFFIX);
+	}
+
+	private static void touch(Path file) {
+		try {
+			Files.setLastModifiedTime(file, FileTime.fromMillis(System.currentTimeMillis()));
+		} catch (IOException e) {
+			// A entrada só parecerá mais antiga para a coleta
+		}
+	}
+
+	private static long sizeOf(Path file) {
+		try {
+			return Files.size(file);
+		} catch (IOException e) {
+			return 0;
+		}
+	}
+
+	private boolean delete(Path file) {
+		try {
+			long size = sizeOf(file);
+			if (Files.deleteIfExists(file)) {
+				totalBytes.addAndGet(-size);
+				deletions.incrementAndGet();
+				return true;
+			}
+		} catch (IOException e) {
+			// No Windows, um arquivo ainda mapeado não pode ser apagado; fica para a próxima coleta
+		}
+		return false;
+	}
+
+	private void deleteTree(Path tree) throws IOException {
+		try (Stream<Path> files = Files.walk(tree)) {
+			files.sorted(Comparator.reverseOrder()).forEach(file -> {
+				try {
+					Files.deleteIfExists(file);
+				} catch (IOException e) {
+					// Fica para a próxima coleta
+				}
+			});
+		}
+	}
+
+	private static final class Entry {
+		private final Path file;
+		private final long lastUse;
+		private final long size;
+
+		private Entry(Path file, long lastUse, long size) {
+			this.file = file;
+			this.lastUse = lastUse;
+			this.size = size;
+		}
+	}
+}
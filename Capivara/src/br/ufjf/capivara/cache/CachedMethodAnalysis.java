@@ -0,0 +1,90 @@
+package br.ufjf.capivara.cache;
+
+import java.util.List;
+
+import br.ufjf.capivara.model.ControlFlowGraph;
+import br.ufjf.capivara.model.PathCondition;
+import br.ufjf.capivara.table.TruthTableRows;
+
+/**
+ * Resultados de um método guardados no {@link AnalysisCache}: o grafo de fluxo de
+ * controle, as condições e caminhos extraídos, a tabela verdade e o grafo DOT.
+ * <p>
+ * O {@link AnalysisStore} grava apenas o grafo, as condições e os caminhos; a tabela
+ * e o DOT são reconstruídos a partir deles na leitura ({@link AnalysisCodec}).
+ * <p>
+ * O grafo associa nós às linhas da unidade de compilação em que o método foi
+ * analisado. Como a chave do cache preserva o número de linhas do método, basta
+ * deslocar as linhas por {@link #getFirstLine()} para reutilizar o grafo quando o
+ * mesmo método aparece em outra posição.
+ */
+public final class CachedMethodAnalysis {
+
+	private final ControlFlowGraph graph;
+	private final int firstLine;
+	private final List<String> conditions;
+	private final List<PathCondition> pathConditions;
+	private final TruthTableRows truthTable;
+	private final String dotGraph;
+
+	/**
+	 * @param graph          O grafo de fluxo de controle do método.
+	 * @param firstLine      A linha, na unidade de compilação analisada, em que o método começa.
+	 * @param conditions     As condições atômicas do método.
+	 * @param pathConditions Os caminhos de execução compilados.
+	 * @param truthTable     As linhas da tabela verdade.
+	 * @param dotGraph       O grafo no formato DOT.
+	 */
+	public CachedMethodAnalysis(ControlFlowGraph graph, int firstLine, List<String> conditions,
+			List<PathCondition> pathConditions, TruthTableRows truthTable, String dotGraph) {
+		this.graph = graph;
+		this.firstLine = firstLine;
+		this.conditions = List.copyOf(conditions);
+		this.pathConditions = List.copyOf(pathConditions);
+		this.truthTable = truthTable;
+		this.dotGraph = dotGraph;
+	}
+
+	public ControlFlowGraph getGraph() {
+		return graph;
+	}
+
+	public int getFirstLine() {
+		return firstLine;
+	}
+
+	public List<String> getConditions() {
+		return conditions;
+	}
+
+	public List<PathCondition> getPathConditions() {
+		return pathConditions;
+	}
+
+	public TruthTableRows getTruthTable() {
+		return truthTable;
+	}
+
+	public String getDotGraph() {
+		return dotGraph;
+	}
+
+	/**
+	 * Estima a memória ocupada pelos resultados, usada como peso no {@link AnalysisCache}.
+	 *
+	 * @return A estimativa, em bytes.
+	 */
+	public long getRetainedBytes() {
+		long bytes = 64 + 2L * dotGraph.length() + truthTable.getRetainedBytes();
+		for (PathCondition path : pathConditions) {
+			bytes += 64 + (path.getCondition() != null ? 2L * path.getCondition().length() : 0)
+					+ 2L * path.getEffect().length() + (path.getProgram() != null ? 4L * path.getProgram().length() : 0);
+		}
+		int nodes = graph.getNodeCount();
+		for (int node = 1; node <= nodes; node++) {
+			String label = graph.getNodeLabel(node);
+			bytes += 16 + (label != null ? 48 + 2L * label.length() : 0);
+		}
+		return bytes + 5L * graph.getEdgeCount() + 8L * (graph.getMaxLine() + 1);
+	}
+}
@@ -0,0 +1,116 @@
+package br.ufjf.capivara.cache;
+
+import java.nio.charset.StandardCharsets;
+import java.security.MessageDigest;
+import java.security.NoSuchAlgorithmException;
+import java.util.Arrays;
+
+/**
+ * Hash SHA-256 do código-fonte normalizado de um método, usado como chave dos caches
+ * de análise.
+ * <p>
+ * A normalização remove as quebras de linha {@code \r} e os espaços no fim de cada
+ * linha, mas preserva o número de linhas: os resultados guardados em cache (por
+ * exemplo, o mapeamento linha → nó) continuam válidos para o código normalizado.
+ */
+public final class ContentHash {
+
+	/** Tamanho do hash, em bytes. */
+	public static final int LENGTH = 32;
+
+	private final byte[] digest;
+
+	private ContentHash(byte[] digest) {
+		this.digest = digest;
+	}
+
+	/**
+	 * Calcula o hash do código de um método.
+	 *
+	 * @param configuration Uma descrição das opções que afetam o resultado da análise
+	 *                      (por exemplo, o modo da tabela verdade); métodos iguais
+	 *                      analisados com opções diferentes têm chaves diferentes.
+	 * @param methodSource  O código-fonte do método.
+	 * @return O hash do código normalizado.
+	 */
+	public static ContentHash of(String configuration, String methodSource) {
+		MessageDigest sha256;
+		try {
+			sha256 = MessageDigest.getInstance("SHA-256");
+		} catch (NoSuchAlgorithmException e) {
+			throw new IllegalStateException("SHA-256 não disponível", e);
+		}
+		sha256.update(configuration.getBytes(StandardCharsets.UTF_8));
+		sha256.update((byte) 0);
+		sha256.update(normalize(methodSource).getBytes(StandardCharsets.UTF_8));
+		return new ContentHash(sha256.digest());
+	}
+
+	/**
+	 * Reconstrói um hash a partir dos seus bytes.
+	 *
+	 * @param bytes Os {@link #LENGTH} bytes do hash.
+	 * @return O hash.
+	 */
+	public static ContentHash fromBytes(byte[] bytes) {
+		if (bytes.length != LENGTH) {
+			throw new IllegalArgumentException("Hash inválido: " + bytes.length + " bytes");
+		}
+		return new ContentHash(bytes.clone());
+	}
+
+	/**
+	 * Normaliza o código-fonte: remove {@code \r} e os espaços e tabulações no fim das linhas.
+	 *
+	 * @param source O código-fonte.
+	 * @return O código normalizado, com o mesmo número de linhas.
+	 */
+	public static String normalize(String source) {
+		StringBuilder normalized = new StringBuilder(source.length());
+		int lineStart = 0;
+		while (lineStart <= source.length()) {
+			int lineEnd = source.indexOf('\n', lineStart);
+			int next = lineEnd < 0 ? source.length() + 1 : lineEnd + 1;
+			int end = lineEnd < 0 ? source.length() : lineEnd;
+			while (end > lineStart) {
+				char c = source.charAt(end - 1);
+				if (c != ' ' && c != '\t' && c != '\r') {
+					break;
+				}
+				end--;
+			}
+			normalized.append(source, lineStart, end);
+			if (lineEnd >= 0) {
+				normalized.append('\n');
+			}
+			lineStart = next;
+		}
+		return normalized.toString();
+	}
+
+	/**
+	 * @return Uma cópia dos bytes do hash.
+	 */
+	public byte[] toBytes() {
+		return digest.clone();
+	}
+
+	@Override
+	public boolean equals(Object obj) {
+		return obj instanceof ContentHash && Arrays.equals(digest, ((ContentHash) obj).digest);
+	}
+
+	@Override
+	public int hashCode() {
+		return (digest[0] & 0xFF) << 24 | (digest[1] & 0xFF) << 16 | (digest[2] & 0xFF) << 8 | (digest[3] & 0xFF);
+	}
+
+	@Override
+	public String toString() {
+		StringBuilder hex = new StringBuilder(2 * LENGTH);
+		for (byte b : digest) {
+			hex.append(Character.forDigit((b >> 4) & 0xF, 16)).append(Character.forDigit(b & 0xF, 16));
+		}
+		return hex.toString();
+	}
+}
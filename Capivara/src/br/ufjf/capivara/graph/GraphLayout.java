@@ -0,0 +1,504 @@
+package br.ufjf.capivara.graph;
+
+import java.util.ArrayDeque;
+import java.util.Arrays;
+import java.util.Deque;
+
+import br.ufjf.capivara.model.ControlFlowGraph;
+
+/**
+ * Layout em camadas (no estilo de Sugiyama) de um {@link ControlFlowGraph}, calculado
+ * no próprio processo, sem o Graphviz.
+ * <p>
+ * O cálculo segue as etapas clássicas:
+ * <ol>
+ * <li>remoção de ciclos: as arestas de retorno dos laços, encontradas por uma busca
+ * em profundidade a partir da entrada, são invertidas temporariamente;</li>
+ * <li>camadas: cada nó fica uma camada abaixo do seu predecessor mais distante
+ * (caminho mais longo), então o fluxo sempre desce;</li>
+ * <li>nós virtuais: arestas que atravessam várias camadas são divididas em trechos
+ * de uma camada, e os pontos intermediários viram as dobras da aresta;</li>
+ * <li>cruzamentos: a ordem dentro de cada camada é refeita por baricentro, com
+ * varreduras alternadas para baixo e para cima;</li>
+ * <li>coordenadas: cada nó tenta ficar na média horizontal dos vizinhos, respeitando
+ * a ordem e a distância mínima da camada.</li>
+ * </ol>
+ * Todas as etapas são lineares no tamanho do grafo (mais a ordenação de cada
+ * camada), então grafos de alguns milhares de nós são posicionados em milissegundos.
+ * O resultado é desenhado pelo {@link SvgRenderer} e pela aba de visualização da
+ * {@link br.ufjf.capivara.views.AnalysisResultView}.
+ */
+public final class GraphLayout {
+
+    /** Raio dos nós, em pixels. */
+    public static final int NODE_RADIUS = 18;
+    /** Distância horizontal mínima entre os centros de dois nós vizinhos. */
+    public static final int NODE_SPACING = 56;
+    /** Distância vertical entre duas camadas. */
+    public static final int LAYER_SPACING = 72;
+    /** Margem em volta do desenho. */
+    public static final int MARGIN = 24;
+
+    // Distância mínima entre dobras de arestas (nós virtuais) vizinhas
+    private static final int DUMMY_SPACING = 16;
+    private static final int ORDERING_SWEEPS = 4;
+    private static final int POSITIONING_SWEEPS = 4;
+
+    private final ControlFlowGraph graph;
+    private final int[] nodeX;
+    private final int[] nodeY;
+    private final int[][] edgePoints;
+    private final int width;
+    private final int height;
+
+    private GraphLayout(ControlFlowGraph graph, int[] nodeX, int[] nodeY, int[][] edgePoints, int width, int height) {
+        this.graph = graph;
+        this.nodeX = nodeX;
+        this.nodeY = nodeY;
+        this.edgePoints = edgePoints;
+        this.width = width;
+        this.height = height;
+    }
+
+    /**
+     * Calcula o layout de um grafo.
+     *
+     * @param graph O grafo.
+     * @return O layout, com as coordenadas de nós e arestas.
+     */
+    public static GraphLayout compute(ControlFlowGraph graph) {
+        return new Builder(graph).build();
+    }
+
+    public ControlFlowGraph getGraph() {
+        return graph;
+    }
+
+    /**
+     * @return A largura do desenho, em pixels, incluindo as margens.
+     */
+    public int getWidth() {
+        return width;
+    }
+
+    /**
+     * @return A altura do desenho, em pixels, incluindo as margens.
+     */
+    public int getHeight() {
+        return height;
+    }
+
+    /**
+     * @return A coordenada horizontal do centro do nó.
+     */
+    public int getNodeX(int node) {
+        return nodeX[node];
+    }
+
+    /**
+     * @return A coordenada vertical do centro do nó.
+     */
+    public int getNodeY(int node) {
+        return nodeY[node];
+    }
+
+    /**
+     * Obtém o traçado de uma aresta, da borda do nó de origem à borda do nó de destino,
+     * passando pelas dobras.
+     *
+     * @param edge A posição da aresta no grafo (entre {@link ControlFlowGraph#edgeStart}
+     *             e {@link ControlFlowGraph#edgeEnd} do nó de origem).
+     * @return As coordenadas {@code x0, y0, x1, y1, ...}; uma aresta de um nó para ele
+     *         mesmo é desenhada como um laço ao lado do nó.
+     */
+    public int[] getEdgePoints(int edge) {
+        return edgePoints[edge].clone();
+    }
+
+    /**
+     * Estado temporário do cálculo. Os vértices {@code 0 .. nodeCount - 1} são os nós
+     * do grafo (nó {@code n} no vértice {@code n - 1}); os seguintes são os nós virtuais.
+     */
+    private static final class Builder {
+        private final ControlFlowGraph graph;
+        private final int nodeCount;
+        private final boolean[] reversed;
+
+        private int vertexCount;
+        private int[] layer;
+        // Arestas entre camadas vizinhas, sempre da camada de cima para a de baixo
+        private int virtualEdgeCount;
+        private int[] virtualFrom = new int[16];
+        private int[] virtualTo = new int[16];
+        // Vértices de cada aresta do grafo, de cima para baixo
+        private int[][] chains;
+
+        private int[][] layers;
+        private int[] position;
+        private int[] upOffsets;
+        private int[] upNeighbors;
+        private int[] downOffsets;
+        private int[] downNeighbors;
+        private double[] x;
+
+        Builder(ControlFlowGraph graph) {
+            this.graph = graph;
+            this.nodeCount = graph.getNodeCount();
+            this.reversed = new boolean[graph.getEdgeCount()];
+        }
+
+        GraphLayout build() {
+            findBackEdges();
+            assignLayers();
+            splitLongEdges();
+            buildAdjacency();
+            orderLayers();
+            assignCoordinates();
+            return toLayout();
+        }
+
+        /**
+         * Busca em profundidade iterativa; uma aresta para um nó ainda na pilha fecha
+         * um ciclo e é invertida.
+         */
+        private void findBackEdges() {
+            byte[] state = new byte[nodeCount + 1]; // 0: não visitado, 1: na pilha, 2: concluído
+            int[] stack = new int[nodeCount + 1];
+            int[] nextEdge = new int[nodeCount + 1];
+            for (int root = 1; root <= nodeCount; root++) {
+                if (state[root] != 0) {
+                    continue;
+                }
+                int top = 0;
+                stack[top++] = root;
+                state[root] = 1;
+                nextEdge[root] = graph.edgeStart(root);
+                while (top > 0) {
+                    int node = stack[top - 1];
+                    if (nextEdge[node] == graph.edgeEnd(node)) {
+                        state[node] = 2;
+                        top--;
+                        continue;
+                    }
+                    int edge = nextEdge[node]++;
+                    int target = graph.getEdgeTarget(edge);
+                    if (state[target] == 1) {
+                        reversed[edge] = true;
+                    } else if (state[target] == 0) {
+                        state[target] = 1;
+                        nextEdge[target] = graph.edgeStart(target);
+                        stack[top++] = target;
+                    }
+                }
+            }
+        }
+
+        /** Camadas pelo caminho mais longo, em ordem topológica (algoritmo de Kahn). */
+        private void assignLayers() {
+            int[] inDegree = new int[nodeCount + 1];
+            forEachLayoutEdge((edge, from, to) -> inDegree[to]++);
+            layer = new int[nodeCount];
+            Deque<Integer> ready = new ArrayDeque<>();
+            for (int node = 1; node <= nodeCount; node++) {
+                if (inDegree[node] == 0) {
+                    ready.add(node);
+                }
+            }
+            int[][] successors = layoutSuccessors();
+            while (!ready.isEmpty()) {
+                int node = ready.poll();
+                for (int target : successors[node]) {
+                    layer[target - 1] = Math.max(layer[target - 1], layer[node - 1] + 1);
+                    if (--inDegree[target] == 0) {
+                        ready.add(target);
+                    }
+                }
+            }
+        }
+
+        /** Sucessores de cada nó no grafo sem ciclos, sem laços de um nó para ele mesmo. */
+        private int[][] layoutSuccessors() {
+            int[] count = new int[nodeCount + 1];
+            forEachLayoutEdge((edge, from, to) -> count[from]++);
+            int[][] successors = new int[nodeCount + 1][];
+            for (int node = 1; node <= nodeCount; node++) {
+                successors[node] = new int[count[node]];
+            }
+            Arrays.fill(count, 0);
+            forEachLayoutEdge((edge, from, to) -> successors[from][count[from]++] = to);
+            return successors;
+        }
+
+        private void forEachLayoutEdge(EdgeVisitor visitor) {
+            for (int node = 1; node <= nodeCount; node++) {
+                for (int edge = graph.edgeStart(node); edge < graph.edgeEnd(node); edge++) {
+                    int target = graph.getEdgeTarget(edge);
+                    if (target == node) {
+                        continue;
+                    }
+                    if (reversed[edge]) {
+                        visitor.visit(edge, target, node);
+                    } else {
+                        visitor.visit(edge, node, target);
+                    }
+                }
+            }
+        }
+
+        private void splitLongEdges() {
+            vertexCount = nodeCount;
+            chains = new int[graph.getEdgeCount()][];
+            forEachLayoutEdge((edge, from, to) -> {
+                int span = layer[to - 1] - layer[from - 1];
+                int[] chain = new int[span + 1];
+                chain[0] = from - 1;
+                chain[span] = to - 1;
+                for (int step = 1; step < span; step++) {
+                    chain[step] = addVertex(layer[from - 1] + step);
+                }
+                for (int step = 0; step < span; step++) {
+                    addVirtualEdge(chain[step], chain[step + 1]);
+                }
+                chains[edge] = chain;
+            });
+        }
+
+        private int addVertex(int vertexLayer) {
+            if (vertexCount == layer.length) {
+                layer = Arrays.copyOf(layer, vertexCount * 2);
+            }
+            layer[vertexCount] = vertexLayer;
+            return vertexCount++;
+        }
+
+        private void addVirtualEdge(int from, int to) {
+            if (virtualEdgeCount == virtualFrom.length) {
+                virtualFrom = Arrays.copyOf(virtualFrom, virtualEdgeCount * 2);
+                virtualTo = Arrays.copyOf(virtualTo, virtualEdgeCount * 2);
+            }
+            virtualFrom[virtualEdgeCount] = from;
+            virtualTo[virtualEdgeCount] = to;
+            virtualEdgeCount++;
+        }
+
+        /** Vizinhos de cima e de baixo de cada vértice, em formato CSR. */
+        private void buildAdjacency() {
+            upOffsets = new int[vertexCount + 1];
+            downOffsets = new int[vertexCount + 1];
+            for (int e = 0; e < virtualEdgeCount; e++) {
+                upOffsets[virtualTo[e] + 1]++;
+                downOffsets[virtualFrom[e] + 1]++;
+            }
+            for (int v = 0; v < vertexCount; v++) {
+                upOffsets[v + 1] += upOffsets[v];
+                downOffsets[v + 1] += downOffsets[v];
+            }
+            upNeighbors = new int[virtualEdgeCount];
+            downNeighbors = new int[virtualEdgeCount];
+            int[] upFill = Arrays.copyOf(upOffsets, vertexCount);
+            int[] downFill = Arrays.copyOf(downOffsets, vertexCount);
+            for (int e = 0; e < virtualEdgeCount; e++) {
+                upNeighbors[upFill[virtualTo[e]]++] = virtualFrom[e];
+                downNeighbors[downFill[virtualFrom[e]]++] = virtualTo[e];
+            }
+        }
+
+        /**
+         * Ordem inicial pela ordem de criação dos vértices (a ordem do código), seguida
+         * de varreduras por baricentro.
+         */
+        private void orderLayers() {
+            int layerCount = 0;
+            for (int v = 0; v < vertexCount; v++) {
+                layerCount = Math.max(layerCount, layer[v] + 1);
+            }
+            int[] sizes = new int[layerCount];
+            for (int v = 0; v < vertexCount; v++) {
+                sizes[layer[v]]++;
+            }
+            layers = new int[layerCount][];
+            for (int l = 0; l < layerCount; l++) {
+                layers[l] = new int[sizes[l]];
+                sizes[l] = 0;
+            }
+            position = new int[vertexCount];
+            for (int v = 0; v < vertexCount; v++) {
+                position[v] = sizes[layer[v]];
+                layers[layer[v]][sizes[layer[v]]++] = v;
+            }
+
+            double[] barycenter = new double[vertexCount];
+            Integer[] order = new Integer[0];
+            for (int sweep = 0; sweep < ORDERING_SWEEPS; sweep++) {
+                for (int l = 1; l < layerCount; l++) {
+                    order = reorder(layers[l], barycenter, upOffsets, upNeighbors, order);
+                }
+                for (int l = layerCount - 2; l >= 0; l--) {
+                    order = reorder(layers[l], barycenter, downOffsets, downNeighbors, order);
+                }
+            }
+        }
+
+        private Integer[] reorder(int[] vertices, double[] barycenter, int[] offsets, int[] neighbors,
+                Integer[] order) {
+            for (int v : vertices) {
+                int count = offsets[v + 1] - offsets[v];
+                if (count == 0) {
+                    // Sem vizinhos na camada de referência: mantém a posição atual
+                    barycenter[v] = position[v];
+                    continue;
+                }
+                double sum = 0;
+                for (int i = offsets[v]; i < offsets[v + 1]; i++) {
+                    sum += position[neighbors[i]];
+                }
+                barycenter[v] = sum / count;
+            }
+            if (order.length < vertices.length) {
+                order = new Integer[Math.max(vertices.length, order.length * 2)];
+            }
+            for (int i = 0; i < vertices.length; i++) {
+                order[i] = vertices[i];
+            }
+            // Ordenação estável: empates mantêm a ordem anterior
+            Arrays.sort(order, 0, vertices.length, (a, b) -> Double.compare(barycenter[a], barycenter[b]));
+            for (int i = 0; i < vertices.length; i++) {
+                vertices[i] = order[i];
+                position[order[i]] = i;
+            }
+            return order;
+        }
+
+        /**
+         * Coloca cada vértice na média dos vizinhos da camada de referência e resolve
+         * as sobreposições mantendo a ordem: uma passada da esquerda para a direita e
+         * outra da direita para a esquerda, das quais se usa a média.
+         */
+        private void assignCoordinates() {
+            x = new double[vertexCount];
+            for (int[] vertices : layers) {
+                double next = 0;
+                for (int v : vertices) {
+                    x[v] = next;
+                    next += spacing(v);
+                }
+            }
+            double[] desired = new double[vertexCount];
+            for (int sweep = 0; sweep < POSITIONING_SWEEPS; sweep++) {
+                for (int l = 1; l < layers.length; l++) {
+                    place(layers[l], desired, upOffsets, upNeighbors);
+                }
+                for (int l = layers.length - 2; l >= 0; l--) {
+                    place(layers[l], desired, downOffsets, downNeighbors);
+                }
+            }
+        }
+
+        private void place(int[] vertices, double[] desired, int[] offsets, int[] neighbors) {
+            for (int v : vertices) {
+                int count = offsets[v + 1] - offsets[v];
+                double sum = 0;
+                for (int i = offsets[v]; i < offsets[v + 1]; i++) {
+                    sum += x[neighbors[i]];
+                }
+                desired[v] = count > 0 ? sum / count : x[v];
+            }
+            int k = vertices.length;
+            double[] left = new double[k];
+            double[] right = new double[k];
+            for (int i = 0; i < k; i++) {
+                double target = desired[vertices[i]];
+                left[i] = i == 0 ? target : Math.max(target, left[i - 1] + gap(vertices[i - 1], vertices[i]));
+            }
+            for (int i = k - 1; i >= 0; i--) {
+                double target = desired[vertices[i]];
+                right[i] = i == k - 1 ? target : Math.min(target, right[i + 1] - gap(vertices[i], vertices[i + 1]));
+            }
+            for (int i = 0; i < k; i++) {
+                double value = (left[i] + right[i]) / 2;
+                x[vertices[i]] = i == 0 ? value : Math.max(value, x[vertices[i - 1]] + gap(vertices[i - 1], vertices[i]));
+            }
+        }
+
+        private double spacing(int v) {
+            return v < nodeCount ? NODE_SPACING : DUMMY_SPACING;
+        }
+
+        private double gap(int a, int b) {
+            return a < nodeCount || b < nodeCount ? NODE_SPACING : DUMMY_SPACING;
+        }
+
+        private GraphLayout toLayout() {
+            double minX = 0;
+            double maxX = 0;
+            for (int v = 0; v < vertexCount; v++) {
+                minX = v == 0 ? x[v] : Math.min(minX, x[v]);
+                maxX = v == 0 ? x[v] : Math.max(maxX, x[v]);
+            }
+            int[] vx = new int[vertexCount];
+            int[] vy = new int[vertexCount];
+            for (int v = 0; v < vertexCount; v++) {
+                vx[v] = (int) Math.round(x[v] - minX) + MARGIN + NODE_RADIUS;
+                vy[v] = layer[v] * LAYER_SPACING + MARGIN + NODE_RADIUS;
+            }
+
+            int[] nodeX = new int[nodeCount + 1];
+            int[] nodeY = new int[nodeCount + 1];
+            for (int node = 1; node <= nodeCount; node++) {
+                nodeX[node] = vx[node - 1];
+                nodeY[node] = vy[node - 1];
+            }
+            int[][] edgePoints = new int[graph.getEdgeCount()][];
+            for (int node = 1; node <= nodeCount; node++) {
+                for (int edge = graph.edgeStart(node); edge < graph.edgeEnd(node); edge++) {
+                    int[] chain = chains[edge];
+                    if (chain == null) {
+                        // Laço de um nó para ele mesmo, à direita do nó
+                        int cx = nodeX[node];
+                        int cy = nodeY[node];
+                        int r = NODE_RADIUS;
+                        edgePoints[edge] = new int[] { cx + r, cy - r / 2, cx + 2 * r, cy - r, cx + 2 * r, cy + r,
+                                cx + r, cy + r / 2 };
+                        continue;
+                    }
+                    int[] points = new int[chain.length * 2];
+                    for (int i = 0; i < chain.length; i++) {
+                        // Arestas invertidas voltam ao sentido original
+                        int v = reversed[edge] ? chain[chain.length - 1 - i] : chain[i];
+                        points[2 * i] = vx[v];
+                        points[2 * i + 1] = vy[v];
+                    }
+                    clipToNodes(points);
+                    edgePoints[edge] = points;
+                }
+            }
+            int layerCount = layers.length;
+            int width = (int) Math.round(maxX - minX) + 2 * (MARGIN + NODE_RADIUS) + 2 * NODE_RADIUS;
+            int height = Math.max(0, layerCount - 1) * LAYER_SPACING + 2 * (MARGIN + NODE_RADIUS);
+            return new GraphLayout(graph, nodeX, nodeY, edgePoints, width, height);
+        }
+    }
+
+    /** Encurta o primeiro e o último trecho para que comecem e terminem na borda dos nós. */
+    private static void clipToNodes(int[] points) {
+        int last = points.length - 2;
+        moveToward(points, 0, points[2], points[3]);
+        moveToward(points, last, points[last - 2], points[last - 1]);
+    }
+
+    private static void moveToward(int[] points, int index, int towardX, int towardY) {
+        double dx = towardX - points[index];
+        double dy = towardY - points[index + 1];
+        double length = Math.sqrt(dx * dx + dy * dy);
+        if (length == 0) {
+            return;
+        }
+        double step = Math.min(NODE_RADIUS, length / 2);
+        points[index] += (int) Math.round(dx / length * step);
+        points[index + 1] += (int) Math.round(dy / length * step);
+    }
+
+    private interface EdgeVisitor {
+        void visit(int edge, int from, int to);
+    }
+}
@@ -1,79 +1,188 @@
 package br.ufjf.capivara.graph;
 
-import java.util.*;
-import br.ufjf.capivara.model.Edge;
+import java.io.IOException;
+import java.io.UncheckedIOException;
+import java.nio.ByteBuffer;
+import java.nio.channels.WritableByteChannel;
+import java.nio.charset.StandardCharsets;
+
+import br.ufjf.capivara.model.ControlFlowGraph;
+import br.ufjf.capivara.model.ControlFlowGraph.NodeType;
 
 /**
  * Classe responsável por gerar o código fonte do grafo no formato DOT,
  * compatível com a ferramenta Graphviz.
  * <p>
- * Esta classe recebe as estruturas de dados que representam o grafo de fluxo de controle
- * (nós, arestas e tipos), processadas pelo {@link br.ufjf.capivara.analyzer.CauseEffectVisitor},
- * e as converte em uma String formatada.
+ * Esta classe recebe o {@link ControlFlowGraph} (nós, arestas e tipos) construído pelo
+ * {@link br.ufjf.capivara.analyzer.CauseEffectVisitor} e o converte em texto DOT. O texto
+ * pode ser obtido como uma String ({@link #generateDotGraph}) ou escrito diretamente em
+ * um {@link Appendable} (por exemplo, um {@link java.io.Writer}) ou em um
+ * {@link WritableByteChannel}, sem montar o texto inteiro na memória. Nós e arestas são
+ * emitidos na ordem do próprio grafo, e os atributos de cada tipo de nó são montados
+ * uma única vez, então nenhuma linha passa por {@link String#format}.
  *
  * @see br.ufjf.capivara.analyzer.CauseEffectVisitor
  */
 public class GraphvizGenerator {
 
-    public String generateDotGraph(Map<Integer, List<Edge>> graphEdges,
-                                   Map<Integer, String> nodeTypes, 
-                                   Map<Integer, String> nodeLabels) {
+    private static final String HEADER = "digraph G {\n"
+            + "  rankdir=TB;\n"
+            + "  node [shape=circle, style=solid, width=0.5, fixedsize=true, fontname=\"Helvetica\"];\n"
+            + "  edge [fontname=\"Helvetica\", fontsize=10];\n\n";
+    private static final String FOOTER = "}\n";
 
-        StringBuilder dot = new StringBuilder();
+    // Final da linha de cada tipo de nó, depois do rótulo, indexado pelo código do tipo
+    private static final String[] NODE_SUFFIXES = new String[NodeType.values().length];
+    private static final byte[][] NODE_SUFFIX_BYTES = new byte[NODE_SUFFIXES.length][];
 
-        // Cabecalho do grafo
-        dot.append("digraph G {\n");
-        dot.append("  rankdir=TB;\n");
-        dot.append("  node [shape=circle, style=solid, width=0.5, fixedsize=true, fontname=\"Helvetica\"];\n");
-        dot.append("  edge [fontname=\"Helvetica\", fontsize=10];\n\n");
+    private static final byte[] HEADER_BYTES = HEADER.getBytes(StandardCharsets.US_ASCII);
+    private static final byte[] FOOTER_BYTES = FOOTER.getBytes(StandardCharsets.US_ASCII);
+    private static final byte[] NODE_PREFIX_BYTES = "  ".getBytes(StandardCharsets.US_ASCII);
+    private static final byte[] LABEL_BYTES = " [label=\"".getBytes(StandardCharsets.US_ASCII);
+    private static final byte[] ARROW_BYTES = " -> ".getBytes(StandardCharsets.US_ASCII);
+    private static final byte[] EDGE_END_BYTES = ";\n".getBytes(StandardCharsets.US_ASCII);
 
-        Set<Integer> allNodes = new TreeSet<>(nodeTypes.keySet());
+    /** Tamanho do buffer usado para escrever em um canal. */
+    private static final int CHANNEL_BUFFER_SIZE = 64 * 1024;
+    // Uma linha de nó ou de aresta nunca passa deste tamanho
+    private static final int MAX_LINE_BYTES = 256;
 
-        for (Integer nodeId : allNodes) {
-            String nodeType = nodeTypes.get(nodeId);
-            String color = getNodeColor(nodeType);
-            String shape = getNodeShape(nodeType);
-            String label = String.valueOf(nodeId);
-           
-            String extraAttributes = "";
+    static {
+        for (NodeType nodeType : NodeType.values()) {
+            NODE_SUFFIXES[nodeType.code()] = "\", shape=" + getNodeShape(nodeType) + ", color=\""
+                    + getNodeColor(nodeType) + "\", style=solid];\n";
+            NODE_SUFFIX_BYTES[nodeType.code()] = NODE_SUFFIXES[nodeType.code()].getBytes(StandardCharsets.US_ASCII);
+        }
+    }
 
-            dot.append(String.format(
-                "  %d [label=\"%s\", shape=%s, color=\"%s\", style=solid%s];\n",
-                nodeId, label, shape, color, extraAttributes
-            ));
+    public String generateDotGraph(ControlFlowGraph graph) {
+        StringBuilder dot = new StringBuilder(HEADER.length() + graph.getNodeCount() * 80
+                + graph.getEdgeCount() * 16);
+        try {
+            writeDotGraph(graph, dot);
+        } catch (IOException e) {
+            // Um StringBuilder não lança IOException
+            throw new UncheckedIOException(e);
         }
+        return dot.toString();
+    }
 
-        for (Map.Entry<Integer, List<Edge>> entry : graphEdges.entrySet()) {
-            Integer fromNode = entry.getKey();
-            List<Edge> edges = entry.getValue();
+    /**
+     * Escreve o grafo no formato DOT em um destino de texto, linha a linha.
+     *
+     * @param graph O grafo.
+     * @param out   O destino (por exemplo, um {@link java.io.Writer}).
+     * @throws IOException Se ocorrer um erro ao escrever no destino.
+     */
+    public void writeDotGraph(ControlFlowGraph graph, Appendable out) throws IOException {
+        out.append(HEADER);
+        for (int nodeId = 1; nodeId <= graph.getNodeCount(); nodeId++) {
+            String id = Integer.toString(nodeId);
+            out.append("  ").append(id).append(" [label=\"").append(id)
+                    .append(NODE_SUFFIXES[graph.getNodeType(nodeId).code()]);
+        }
+        for (int fromNode = 1; fromNode <= graph.getNodeCount(); fromNode++) {
+            String from = Integer.toString(fromNode);
+            for (int edge = graph.edgeStart(fromNode); edge < graph.edgeEnd(fromNode); edge++) {
+                out.append("  ").append(from).append(" -> ").append(Integer.toString(graph.getEdgeTarget(edge)))
+                        .append(";\n");
+            }
+        }
+        out.append(FOOTER);
+    }
 
-            for (Edge edge : edges) {
-                Integer toNode = edge.getDestinationNodeId();
-                dot.append(String.format("  %d -> %d;\n", fromNode, toNode));
+    /**
+     * Escreve o grafo no formato DOT em um canal, em ASCII. O texto é montado em um
+     * buffer de tamanho fixo que é esvaziado no canal sempre que enche, então a
+     * memória usada não depende do tamanho do grafo.
+     *
+     * @param graph   O grafo.
+     * @param channel O canal de destino (por exemplo, um
+     *                {@link java.nio.channels.FileChannel}).
+     * @throws IOException Se ocorrer um erro ao escrever no canal.
+     */
+    public void writeDotGraph(ControlFlowGraph graph, WritableByteChannel channel) throws IOException {
+        ByteBuffer buffer = ByteBuffer.allocate(CHANNEL_BUFFER_SIZE);
+        put(buffer, HEADER_BYTES, channel);
+        for (int nodeId = 1; nodeId <= graph.getNodeCount(); nodeId++) {
+            ensureRemaining(buffer, MAX_LINE_BYTES, channel);
+            buffer.put(NODE_PREFIX_BYTES);
+            putInt(buffer, nodeId);
+            buffer.put(LABEL_BYTES);
+            putInt(buffer, nodeId);
+            buffer.put(NODE_SUFFIX_BYTES[graph.getNodeType(nodeId).code()]);
+        }
+        for (int fromNode = 1; fromNode <= graph.getNodeCount(); fromNode++) {
+            for (int edge = graph.edgeStart(fromNode); edge < graph.edgeEnd(fromNode); edge++) {
+                ensureRemaining(buffer, MAX_LINE_BYTES, channel);
+                buffer.put(NODE_PREFIX_BYTES);
+                putInt(buffer, fromNode);
+                buffer.put(ARROW_BYTES);
+                putInt(buffer, graph.getEdgeTarget(edge));
+                buffer.put(EDGE_END_BYTES);
             }
         }
+        put(buffer, FOOTER_BYTES, channel);
+        flush(buffer, channel);
+    }
+
+    private static void put(ByteBuffer buffer, byte[] bytes, WritableByteChannel channel) throws IOException {
+        ensureRemaining(buffer, bytes.length, channel);
+        buffer.put(bytes);
+    }
+
+    private static void ensureRemaining(ByteBuffer buffer, int length, WritableByteChannel channel)
+            throws IOException {
+        if (buffer.remaining() < length) {
+            flush(buffer, channel);
+        }
+    }
 
-        dot.append("}\n");
-        return dot.toString();
+    private static void flush(ByteBuffer buffer, WritableByteChannel channel) throws IOException {
+        buffer.flip();
+        while (buffer.hasRemaining()) {
+            channel.write(buffer);
+        }
+        buffer.clear();
+    }
+
+    /** Escreve os dígitos decimais de um inteiro não negativo. */
+    private static void putInt(ByteBuffer buffer, int value) {
+        int digits = 1;
+        for (int rest = value / 10; rest > 0; rest /= 10) {
+            digits++;
+        }
+        int end = buffer.position() + digits;
+        for (int position = end - 1; position >= buffer.position(); position--) {
+            buffer.put(position, (byte) ('0' + value % 10));
+            value /= 10;
+        }
+        buffer.position(end);
     }
 
-    private String getNodeColor(String nodeType) {
+    /**
+     * @return A cor de um tipo de nó, em hexadecimal ({@code #rrggbb}) ou {@code black}.
+     */
+    public static String getNodeColor(NodeType nodeType) {
         if (nodeType == null) return "black";
         switch (nodeType) {
-            case "ENTRY": return "#28a745";
-            case "DECISION": return "#007bff";
-            case "LOOP_DECISION": return "#FFA500";
-            case "EXIT": return "#dc3545";
-            case "PROCESSING":
+            case ENTRY: return "#28a745";
+            case DECISION: return "#007bff";
+            case LOOP_DECISION: return "#FFA500";
+            case EXIT: return "#dc3545";
+            case PROCESSING:
             default: return "black";
         }
     }
 
-    private String getNodeShape(String nodeType) {
+    /**
+     * @return A forma de um tipo de nó: {@code circle} ou {@code doublecircle}.
+     */
+    public static String getNodeShape(NodeType nodeType) {
         if (nodeType == null) return "circle";
         switch (nodeType) {
-            case "EXIT": return "doublecircle";
+            case EXIT: return "doublecircle";
             default: return "circle";
         }
     }
-}
\ No newline at end of file
+}
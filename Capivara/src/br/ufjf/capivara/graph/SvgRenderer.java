@@ -0,0 +1,109 @@
+package br.ufjf.capivara.graph;
+
+import java.io.IOException;
+import java.io.UncheckedIOException;
+
+import br.ufjf.capivara.model.ControlFlowGraph;
+import br.ufjf.capivara.model.ControlFlowGraph.NodeType;
+
+/**
+ * Desenha um {@link GraphLayout} no formato SVG, com as mesmas cores e formas do
+ * {@link GraphvizGenerator}, para que o grafo possa ser visto sem o Graphviz.
+ * <p>
+ * As arestas são desenhadas antes dos nós, com uma seta na borda do círculo de
+ * destino; os rótulos das arestas (quando houver) ficam no meio do primeiro trecho.
+ */
+public class SvgRenderer {
+
+    private static final int ARROW_LENGTH = 8;
+
+    public String generateSvg(GraphLayout layout) {
+        StringBuilder svg = new StringBuilder(512 + layout.getGraph().getNodeCount() * 160
+                + layout.getGraph().getEdgeCount() * 96);
+        try {
+            writeSvg(layout, svg);
+        } catch (IOException e) {
+            // Um StringBuilder não lança IOException
+            throw new UncheckedIOException(e);
+        }
+        return svg.toString();
+    }
+
+    /**
+     * Escreve o desenho no formato SVG em um destino de texto.
+     *
+     * @param layout O layout do grafo.
+     * @param out    O destino (por exemplo, um {@link java.io.Writer}).
+     * @throws IOException Se ocorrer um erro ao escrever no destino.
+     */
+    public void writeSvg(GraphLayout layout, Appendable out) throws IOException {
+        ControlFlowGraph graph = layout.getGraph();
+        String width = Integer.toString(layout.getWidth());
+        String height = Integer.toString(layout.getHeight());
+        out.append("<?xml version=\"1.0\" encoding=\"UTF-8\"?>\n")
+                .append("<svg xmlns=\"http://www.w3.org/2000/svg\" width=\"").append(width)
+                .append("\" height=\"").append(height).append("\" viewBox=\"0 0 ").append(width).append(' ')
+                .append(height).append("\">\n")
+                .append("  <defs>\n")
+                .append("    <marker id=\"arrow\" markerWidth=\"").append(Integer.toString(ARROW_LENGTH))
+                .append("\" markerHeight=\"6\" refX=\"").append(Integer.toString(ARROW_LENGTH))
+                .append("\" refY=\"3\" orient=\"auto\" markerUnits=\"userSpaceOnUse\">")
+                .append("<path d=\"M0,0 L8,3 L0,6 z\"/></marker>\n")
+                .append("  </defs>\n")
+                .append("  <rect width=\"100%\" height=\"100%\" fill=\"white\"/>\n");
+
+        out.append("  <g fill=\"none\" stroke=\"black\" marker-end=\"url(#arrow)\">\n");
+        for (int node = 1; node <= graph.getNodeCount(); node++) {
+            for (int edge = graph.edgeStart(node); edge < graph.edgeEnd(node); edge++) {
+                int[] points = layout.getEdgePoints(edge);
+                out.append("    <polyline points=\"");
+                for (int i = 0; i < points.length; i += 2) {
+                    if (i > 0) {
+                        out.append(' ');
+                    }
+                    out.append(Integer.toString(points[i])).append(',').append(Integer.toString(points[i + 1]));
+                }
+                out.append("\"/>\n");
+            }
+        }
+        out.append("  </g>\n");
+
+        out.append("  <g font-family=\"Helvetica, Arial, sans-serif\" font-size=\"10\">\n");
+        for (int node = 1; node <= graph.getNodeCount(); node++) {
+            for (int edge = graph.edgeStart(node); edge < graph.edgeEnd(node); edge++) {
+                String label = graph.getEdgeLabel(edge);
+                if (label.isEmpty()) {
+                    continue;
+                }
+                int[] points = layout.getEdgePoints(edge);
+                out.append("    <text x=\"").append(Integer.toString((points[0] + points[2]) / 2 + 4))
+                        .append("\" y=\"").append(Integer.toString((points[1] + points[3]) / 2))
+                        .append("\">").append(label).append("</text>\n");
+            }
+        }
+        out.append("  </g>\n");
+
+        out.append("  <g font-family=\"Helvetica, Arial, sans-serif\" font-size=\"12\" text-anchor=\"middle\">\n");
+        for (int node = 1; node <= graph.getNodeCount(); node++) {
+            NodeType nodeType = graph.getNodeType(node);
+            String color = GraphvizGenerator.getNodeColor(nodeType);
+            String cx = Integer.toString(layout.getNodeX(node));
+            String cy = Integer.toString(layout.getNodeY(node));
+            appendCircle(out, cx, cy, GraphLayout.NODE_RADIUS, color);
+            if ("doublecircle".equals(GraphvizGenerator.getNodeShape(nodeType))) {
+                appendCircle(out, cx, cy, GraphLayout.NODE_RADIUS - 4, color);
+            }
+            out.append("    <text x=\"").append(cx).append("\" y=\"").append(cy).append("\" dy=\"4\">")
+                    .append(Integer.toString(node)).append("</text>\n");
+        }
+        out.append("  </g>\n");
+        out.append("</svg>\n");
+    }
+
+    private static void appendCircle(Appendable out, String cx, String cy, int radius, String color)
+            throws IOException {
+        out.append("    <circle cx=\"").append(cx).append("\" cy=\"").append(cy).append("\" r=\"")
+                .append(Integer.toString(radius)).append("\" fill=\"white\" stroke=\"").append(color)
+                .append("\"/>\n");
+    }
+}
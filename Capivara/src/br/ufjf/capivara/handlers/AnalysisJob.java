@@ -0,0 +1,435 @@
+package br.ufjf.capivara.handlers;
+
+import java.nio.ByteBuffer;
+import java.util.ArrayList;
+import java.util.HashMap;
+import java.util.List;
+import java.util.Map;
+
+import org.eclipse.core.runtime.IProgressMonitor;
+import org.eclipse.core.runtime.IStatus;
+import org.eclipse.core.runtime.OperationCanceledException;
+import org.eclipse.core.runtime.Status;
+import org.eclipse.core.runtime.SubMonitor;
+import org.eclipse.core.runtime.jobs.Job;
+import org.eclipse.jdt.core.dom.ASTVisitor;
+import org.eclipse.jdt.core.dom.CompilationUnit;
+import org.eclipse.jdt.core.dom.MethodDeclaration;
+import org.eclipse.jdt.core.dom.SingleVariableDeclaration;
+import org.eclipse.ui.IWorkbenchPage;
+import org.eclipse.ui.IWorkbenchWindow;
+import org.eclipse.ui.PartInitException;
+import br.ufjf.capivara.Activator;
+import br.ufjf.capivara.analyzer.CauseEffectVisitor;
+import br.ufjf.capivara.analyzer.CodeAnalyzer;
+import br.ufjf.capivara.cache.AnalysisCache;
+import br.ufjf.capivara.cache.AnalysisCodec;
+import br.ufjf.capivara.cache.AnalysisStore;
+import br.ufjf.capivara.cache.CachedMethodAnalysis;
+import br.ufjf.capivara.cache.ContentHash;
+import br.ufjf.capivara.graph.GraphvizGenerator;
+import br.ufjf.capivara.model.ControlFlowGraph;
+import br.ufjf.capivara.model.MethodAnalysis;
+import br.ufjf.capivara.model.PathCondition;
+import br.ufjf.capivara.table.TruthTableGenerator;
+import br.ufjf.capivara.table.TruthTableRows;
+import br.ufjf.capivara.views.AnalysisResultView;
+
+/**
+ * {@link Job} que executa a análise do código selecionado fora da thread de UI.
+ * <p>
+ * O código é analisado sintaticamente uma única vez e uma única visita do
+ * {@link CauseEffectVisitor} produz o grafo de todos os métodos selecionados; cada
+ * método recebe sua própria tabela verdade e seu próprio grafo DOT. Os resultados
+ * ficam em um {@link AnalysisCache} indexado pelo código de cada método, então
+ * repetir a análise de métodos inalterados não refaz o grafo nem a tabela. O
+ * {@link AnalysisStore} do plugin guarda os mesmos resultados em disco, e métodos
+ * analisados em sessões anteriores do Eclipse também não são refeitos.
+ * <p>
+ * Cada etapa (parser, grafo de fluxo de controle, tabela verdade e grafo DOT) é
+ * reportada ao {@link IProgressMonitor} e pode ser cancelada pelo usuário. Os
+ * resultados só são enviados à {@link AnalysisResultView} quando a análise termina.
+ * Uma nova análise agendada por {@link #scheduleAnalysis} cancela a que ainda
+ * estiver em execução, e os resultados de uma análise substituída são descartados.
+ * <p>
+ * No modo ao vivo ({@link LiveAnalysis}), {@link #scheduleLiveAnalysis} analisa o
+ * arquivo inteiro do editor após um intervalo sem edições; como apenas os métodos
+ * ausentes do cache são visitados, o custo é proporcional aos métodos alterados.
+ * Os resultados ao vivo só atualizam a view se ela já estiver aberta, sem tirar o
+ * foco do editor.
+ * <p>
+ * A tabela de cada método tem a forma escolhida no menu da view
+ * ({@link TableModeHandler}), que também faz parte da chave do cache.
+ */
+public class AnalysisJob extends Job {
+
+	/** Família usada para localizar e cancelar as análises em andamento. */
+	public static final Object FAMILY = AnalysisJob.class;
+
+	/** Família das análises agendadas pelo modo ao vivo, canceladas quando ele é desativado. */
+	public static final Object LIVE_FAMILY = LiveAnalysis.class;
+
+	private static volatile AnalysisJob latest;
+
+	/** Resultados por método, reaproveitados enquanto o código do método não mudar. */
+	private static final AnalysisCache<CachedMethodAnalysis> CACHE = new AnalysisCache<>(256, 64L << 20,
+			CachedMethodAnalysis::getRetainedBytes);
+
+	private final String source;
+	private final String code;
+	private final int lineOffset;
+	private final IWorkbenchWindow window;
+	private final boolean live;
+	private final String tableMode;
+
+	/**
+	 * @param selectedText O código Java selecionado pelo usuário.
+	 * @param window       A janela em que os resultados serão exibidos.
+	 */
+	public AnalysisJob(String selectedText, IWorkbenchWindow window) {
+		this(selectedText, "class Wrapper {\n" + selectedText + "\n}", 1, window, false);
+		setUser(true);
+	}
+
+	/**
+	 * Cria a análise na thread de UI, com a forma de tabela escolhida no menu da view.
+	 *
+	 * @param source        O código exibido ao usuário.
+	 * @param code          O código analisado, que contém {@code source} a partir da
+	 *                      linha {@code lineOffset + 1}.
+	 * @param lineOffset    O número de linhas de {@code code} antes de {@code source}.
+	 * @param window        A janela em que os resultados serão exibidos.
+	 * @param live          Se a análise vem do modo ao vivo, que não abre nem ativa a view.
+	 */
+	private AnalysisJob(String source, String code, int lineOffset, IWorkbenchWindow window, boolean live) {
+		super("Análise Capivara");
+		this.source = source;
+		this.code = code;
+		this.lineOffset = lineOffset;
+		this.window = window;
+		this.live = live;
+		this.tableMode = TableModeHandler.getSelectedMode();
+	}
+
+	/**
+	 * Cancela as análises em andamento e agenda uma nova análise do texto selecionado.
+	 *
+	 * @param selectedText O código Java selecionado pelo usuário.
+	 * @param window       A janela em que os resultados serão exibidos.
+	 * @return A análise agendada.
+	 */
+	public static AnalysisJob scheduleAnalysis(String selectedText, IWorkbenchWindow window) {
+		Job.getJobManager().cancel(FAMILY);
+		AnalysisJob job = new AnalysisJob(selectedText, window);
+		latest = job;
+		job.schedule();
+		return job;
+	}
+
+	/**
+	 * Cancela as análises em andamento e agenda a análise de um arquivo inteiro após
+	 * um intervalo. Chamadas sucessivas dentro do intervalo adiam a análise, de modo
+	 * que apenas a última versão do arquivo é analisada.
+	 * <p>
+	 * O código é sempre analisado de novo pelo job, e não reaproveitado da AST do
+	 * reconciliador: o cache é indexado pelo texto de cada método, então a AST precisa
+	 * ser exatamente a do texto capturado.
+	 *
+	 * @param source O código completo do arquivo.
+	 * @param window A janela em que os resultados serão exibidos.
+	 * @param delay  O intervalo, em milissegundos.
+	 * @return A análise agendada.
+	 */
+	public static AnalysisJob scheduleLiveAnalysis(String source, IWorkbenchWindow window, long delay) {
+		Job.getJobManager().cancel(FAMILY);
+		AnalysisJob job = new AnalysisJob(source, source, 0, window, true);
+		job.setSystem(true);
+		latest = job;
+		job.schedule(delay);
+		return job;
+	}
+
+	@Override
+	public boolean belongsTo(Object family) {
+		return family == FAMILY || live && family == LIVE_FAMILY;
+	}
+
+	/**
+	 * Executa a análise:
+	 * 1. Utilizar o {@link CodeAnalyzer} para gerar uma Árvore de Sintaxe Abstrata (AST).
+	 * 2. Consultar o cache em memória e depois o cache em disco; os passos seguintes só são executados para os métodos ausentes.
+	 * 3. Invocar o {@link CauseEffectVisitor} sobre os métodos ausentes para construir seus grafos de fluxo de controle.
+	 * 4. Invocar o {@link TruthTableGenerator} para criar a tabela verdade de cada método.
+	 * 5. Formatar as saídas de cada método (código anotado e grafo DOT).
+	 * 6. Exibir todos os resultados na {@link AnalysisResultView}.
+	 *
+	 * @param monitor O monitor de progresso fornecido pela plataforma.
+	 * @return {@link Status#OK_STATUS}, ou {@link Status#CANCEL_STATUS} se a análise for cancelada.
+	 */
+	@Override
+	protected IStatus run(IProgressMonitor monitor) {
+		SubMonitor progress = SubMonitor.convert(monitor, "Analisando código", 100);
+		try {
+			progress.subTask("Analisando a sintaxe");
+			CompilationUnit astRoot = new CodeAnalyzer().parse(code, progress.split(10));
+
+			List<MethodDeclaration> methods = findMethods(astRoot);
+			if (methods.isEmpty()) {
+				// No modo ao vivo, arquivos sem métodos (interfaces, enums) são comuns e reanalisados a cada pausa
+				if (!live) {
+					System.out.println("AVISO: Nenhum método Java válido foi encontrado no código selecionado.");
+				}
+				return Status.OK_STATUS;
+			}
+
+			// Métodos inalterados desde uma análise anterior são obtidos do cache
+			TruthTableGenerator truthTableGenerator = new TruthTableGenerator();
+			TableModeHandler.configure(truthTableGenerator, tableMode);
+			GraphvizGenerator graphGenerator = new GraphvizGenerator();
+			String configuration = truthTableGenerator.getTableMode() + "/" + truthTableGenerator.getMaxFullTableConditions()
+					+ "/" + truthTableGenerator.getCoveringStrength();
+			List<ContentHash> keys = new ArrayList<>(methods.size());
+			Map<MethodDeclaration, CachedMethodAnalysis> cached = new HashMap<>();
+			for (MethodDeclaration method : methods) {
+				ContentHash key = ContentHash.of(configuration, getSource(code, method));
+				keys.add(key);
+				CachedMethodAnalysis hit = CACHE.get(key);
+				if (hit == null) {
+					hit = readFromStore(key, truthTableGenerator, graphGenerator);
+				}
+				if (hit != null) {
+					cached.put(method, hit);
+				}
+			}
+
+			// Uma única visita produz o grafo, as condições e os caminhos de cada método
+			progress.subTask("Construindo o grafo de fluxo de controle");
+			CauseEffectVisitor cfgVisitor = new CauseEffectVisitor();
+			cfgVisitor.setup(astRoot, progress.split(10));
+			for (MethodDeclaration method : methods) {
+				// Visitar um método também produz os grafos dos métodos de suas classes locais
+				if (!cached.containsKey(method) && cfgVisitor.getControlFlowGraph(method) == null) {
+					method.accept(cfgVisitor);
+				}
+			}
+
+			String[] codeLines = source.split("\\r?\\n");
+			SubMonitor methodsProgress = progress.split(80).setWorkRemaining(methods.size());
+			List<MethodAnalysis> results = new ArrayList<>(methods.size());
+			for (int i = 0; i < methods.size(); i++) {
+				MethodDeclaration method = methods.get(i);
+				SubMonitor methodProgress = methodsProgress.split(1).setWorkRemaining(8);
+				String methodName = getMethodName(method);
+
+				CachedMethodAnalysis analysis = cached.get(method);
+				if (analysis == null) {
+					ControlFlowGraph graph = cfgVisitor.getControlFlowGraph(method);
+
+					methodProgress.subTask("Gerando a tabela verdade de " + methodName);
+					List<String> conditions;
+					List<PathCondition> paths;
+					TruthTableRows truthTable;
+					try {
+						conditions = cfgVisitor.getAtomicConditions(method);
+						paths = cfgVisitor.getPathConditions(method);
+						truthTable = truthTableGenerator.createRows(conditions, paths, methodProgress.split(7));
+					} catch (OperationCanceledException e) {
+						throw e;
+					} catch (Exception e) {
+						conditions = null;
+						paths = null;
+						truthTable = TruthTableRows.message("Erro ao gerar tabela verdade: " + e.getMessage());
+					}
+
+					methodProgress.subTask("Gerando o grafo DOT de " + methodName);
+					methodProgress.split(1);
+					String dotGraph = graphGenerator.generateDotGraph(graph);
+
+					if (conditions != null) {
+						analysis = new CachedMethodAnalysis(graph, getFirstLine(astRoot, method), conditions, paths,
+								truthTable, dotGraph);
+						CACHE.put(keys.get(i), analysis);
+						writeToStore(keys.get(i), analysis);
+					} else {
+						// Erros de extração não são guardados: a próxima análise tenta de novo
+						analysis = new CachedMethodAnalysis(graph, getFirstLine(astRoot, method), List.of(), List.of(),
+								truthTable, dotGraph);
+					}
+				}
+
+				String annotatedCode = getAnnotatedCode(codeLines, astRoot, method, analysis);
+				results.add(new MethodAnalysis(methodName, annotatedCode, analysis.getTruthTable(), analysis.getDotGraph(),
+						analysis.getGraph()));
+			}
+
+			progress.checkCanceled();
+			showResultsInView(results);
+			return Status.OK_STATUS;
+		} catch (OperationCanceledException e) {
+			return Status.CANCEL_STATUS;
+		}
+	}
+
+	/**
+	 * Obtém o cache de resultados por método, compartilhado por todas as análises.
+	 *
+	 * @return O cache, com seus contadores de acertos e falhas.
+	 */
+	public static AnalysisCache<CachedMethodAnalysis> getCache() {
+		return CACHE;
+	}
+
+	/**
+	 * Obtém os resultados de um método do cache em disco e os promove ao cache em memória.
+	 *
+	 * @return Os resultados, ou {@code null} se o cache em disco não estiver disponível
+	 *         ou não tiver o método.
+	 */
+	private static CachedMethodAnalysis readFromStore(ContentHash key, TruthTableGenerator truthTableGenerator,
+			GraphvizGenerator graphGenerator) {
+		AnalysisStore store = getStore();
+		ByteBuffer bytes = store != null ? store.read(key) : null;
+		if (bytes == null) {
+			return null;
+		}
+		try {
+			CachedMethodAnalysis analysis = AnalysisCodec.decode(bytes, truthTableGenerator, graphGenerator);
+			CACHE.put(key, analysis);
+			return analysis;
+		} catch (IllegalArgumentException e) {
+			store.invalidate(key);
+			return null;
+		}
+	}
+
+	private static void writeToStore(ContentHash key, CachedMethodAnalysis analysis) {
+		AnalysisStore store = getStore();
+		if (store != null) {
+			store.write(key, AnalysisCodec.encode(analysis));
+		}
+	}
+
+	private static AnalysisStore getStore() {
+		Activator activator = Activator.getDefault();
+		return activator != null ? activator.getAnalysisStore() : null;
+	}
+
+	/**
+	 * Exibe os resultados da análise na view customizada do plugin, na thread de UI.
+	 * Se outra análise tiver sido agendada nesse meio tempo, os resultados são descartados.
+	 * As análises ao vivo apenas atualizam a view, se ela estiver aberta: ativá-la a cada
+	 * reconciliação tiraria o foco do editor enquanto o usuário digita.
+	 *
+	 * @param results Os resultados de cada método, na ordem de declaração.
+	 */
+	private void showResultsInView(List<MethodAnalysis> results) {
+		if (window.getShell() == null || window.getShell().isDisposed()) {
+			return;
+		}
+		window.getShell().getDisplay().asyncExec(() -> {
+			if (latest != this || window.getShell() == null || window.getShell().isDisposed()) {
+				return;
+			}
+			// O modo ao vivo pode ter sido desativado depois que a análise terminou
+			if (live && !LiveAnalysis.isActive()) {
+				return;
+			}
+			try {
+				IWorkbenchPage page = window.getActivePage();
+				if (page == null) {
+					return;
+				}
+				AnalysisResultView view;
+				if (live) {
+					view = (AnalysisResultView) page.findView(AnalysisResultView.ID);
+					if (view == null) {
+						return;
+					}
+				} else {
+					view = (AnalysisResultView) page.showView(AnalysisResultView.ID);
+				}
+				view.displayResults(results);
+			} catch (PartInitException e) {
+				System.err.println("Erro ao tentar abrir a view de resultados do Capivara.");
+				e.printStackTrace();
+			}
+		});
+	}
+
+	/**
+	 * Monta o nome exibido de um método: o identificador e os tipos dos parâmetros,
+	 * que distinguem sobrecargas.
+	 *
+	 * @param method O método.
+	 * @return O nome, por exemplo {@code calcular(int, String)}.
+	 */
+	private String getMethodName(MethodDeclaration method) {
+		StringBuilder name = new StringBuilder(method.getName().getIdentifier()).append('(');
+		for (Object parameter : method.parameters()) {
+			if (name.charAt(name.length() - 1) != '(') {
+				name.append(", ");
+			}
+			SingleVariableDeclaration declaration = (SingleVariableDeclaration) parameter;
+			name.append(declaration.getType()).append(declaration.isVarargs() ? "..." : "");
+		}
+		return name.append(')').toString();
+	}
+
+	/**
+	 * Utilitário para encontrar todos os métodos declarados no código selecionado,
+	 * inclusive os de classes internas, na ordem em que aparecem.
+	 *
+	 * @param cu A raiz da AST (CompilationUnit).
+	 * @return Os métodos encontrados.
+	 */
+	private List<MethodDeclaration> findMethods(CompilationUnit cu) {
+		List<MethodDeclaration> methods = new ArrayList<>();
+		cu.accept(new ASTVisitor() {
+			@Override
+			public boolean visit(MethodDeclaration node) {
+				methods.add(node);
+				return true;
+			}
+		});
+		return methods;
+	}
+
+	private String getSource(String code, MethodDeclaration method) {
+		return code.substring(method.getStartPosition(), method.getStartPosition() + method.getLength());
+	}
+
+	private int getFirstLine(CompilationUnit astRoot, MethodDeclaration method) {
+		return astRoot.getLineNumber(method.getStartPosition());
+	}
+
+	/**
+	 * Gera uma string com as linhas do código selecionado que pertencem ao método, cada
+	 * uma prefixada por um comentário indicando seu número de linha e o ID do nó do
+	 * grafo correspondente.
+	 *
+	 * @param codeLines As linhas do código selecionado pelo usuário.
+	 * @param astRoot A AST do código selecionado, usada para localizar o método.
+	 * @param method O método cujas linhas serão anotadas.
+	 * @param analysis Os resultados do método; o grafo associa cada número de linha a
+	 *                 um ID de nó, relativo à linha em que o método começava quando foi analisado.
+	 * @return O código formatado com as anotações.
+	 */
+	private String getAnnotatedCode(String[] codeLines, CompilationUnit astRoot, MethodDeclaration method,
+			CachedMethodAnalysis analysis) {
+		StringBuilder sb = new StringBuilder();
+		ControlFlowGraph graph = analysis.getGraph();
+		int lineShift = getFirstLine(astRoot, method) - analysis.getFirstLine();
+		// A linha no CompilationUnit é a linha do editor + lineOffset (por causa do "class Wrapper {")
+		int firstLine = Math.max(getFirstLine(astRoot, method) - lineOffset, 1);
+		int lastLine = Math.min(astRoot.getLineNumber(method.getStartPosition() + method.getLength() - 1) - lineOffset,
+				codeLines.length);
+
+		for (int i = firstLine - 1; i < lastLine; i++) {
+			int currentLineInCU = i + 1 + lineOffset;
+			int nodeId = graph.getNodeForLine(currentLineInCU - lineShift);
+			String nodeLabel = (nodeId != 0) ? String.format("/*Nó %02d*/", nodeId) : "/* */";
+			sb.append(String.format("/*Linha %02d*/ %s \t%s\n", (i + 1), nodeLabel, codeLines[i]));
+		}
+		return sb.toString();
+	}
+}
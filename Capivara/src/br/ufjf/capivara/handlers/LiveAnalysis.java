@@ -0,0 +1,126 @@
+package br.ufjf.capivara.handlers;
+
+import org.eclipse.core.resources.IFile;
+import org.eclipse.core.runtime.jobs.Job;
+import org.eclipse.jdt.core.ElementChangedEvent;
+import org.eclipse.jdt.core.ICompilationUnit;
+import org.eclipse.jdt.core.IElementChangedListener;
+import org.eclipse.jdt.core.IJavaElementDelta;
+import org.eclipse.jdt.core.JavaCore;
+import org.eclipse.jdt.core.JavaModelException;
+import org.eclipse.swt.widgets.Display;
+import org.eclipse.ui.IEditorPart;
+import org.eclipse.ui.IWorkbenchPage;
+import org.eclipse.ui.IWorkbenchWindow;
+import org.eclipse.ui.ide.ResourceUtil;
+
+/**
+ * Modo de análise ao vivo: reanalisa o arquivo enquanto o usuário digita.
+ * <p>
+ * Quando ativado, escuta os eventos de reconciliação ({@link ElementChangedEvent#POST_RECONCILE})
+ * que o editor Java emite após cada pausa na digitação. Eventos que não alteram o
+ * conteúdo do arquivo (por exemplo, apenas marcadores de erro) são ignorados, assim
+ * como os de arquivos que não estão no editor ativo da janela (reconciliações em
+ * segundo plano de outros editores). Para os demais, um {@link AnalysisJob} é
+ * agendado após {@link #DEBOUNCE_DELAY} ms sem novas edições, com o código do arquivo
+ * no momento do evento. Os métodos cujo código não mudou são obtidos do cache do
+ * {@link AnalysisJob}, então apenas os métodos editados passam de novo pelo
+ * {@link br.ufjf.capivara.analyzer.CauseEffectVisitor} e pelo
+ * {@link br.ufjf.capivara.table.TruthTableGenerator}.
+ */
+public final class LiveAnalysis {
+
+	/** Intervalo sem edições, em milissegundos, antes de reanalisar o arquivo. */
+	public static final long DEBOUNCE_DELAY = 500;
+
+	private static IElementChangedListener listener;
+
+	private LiveAnalysis() {
+	}
+
+	/**
+	 * Ativa o modo ao vivo; os resultados são exibidos na janela informada.
+	 *
+	 * @param window A janela em que os resultados serão exibidos.
+	 */
+	public static synchronized void start(IWorkbenchWindow window) {
+		stop();
+		listener = event -> {
+			IJavaElementDelta delta = event.getDelta();
+			if (delta.getElement() instanceof ICompilationUnit && changesContent(delta)) {
+				schedule((ICompilationUnit) delta.getElement(), window);
+			}
+		};
+		JavaCore.addElementChangedListener(listener, ElementChangedEvent.POST_RECONCILE);
+	}
+
+	/**
+	 * Desativa o modo ao vivo e cancela as análises ao vivo ainda pendentes. Não faz
+	 * nada se ele não estiver ativo.
+	 */
+	public static synchronized void stop() {
+		if (listener != null) {
+			JavaCore.removeElementChangedListener(listener);
+			listener = null;
+			Job.getJobManager().cancel(AnalysisJob.LIVE_FAMILY);
+		}
+	}
+
+	public static synchronized boolean isActive() {
+		return listener != null;
+	}
+
+	private static void schedule(ICompilationUnit unit, IWorkbenchWindow window) {
+		Display display = window.getWorkbench().getDisplay();
+		if (display.isDisposed()) {
+			return;
+		}
+		// O editor ativo só pode ser consultado na thread de UI
+		display.asyncExec(() -> {
+			if (!isActive() || !isInActiveEditor(unit, window)) {
+				return;
+			}
+			String source;
+			try {
+				source = unit.getSource();
+			} catch (JavaModelException e) {
+				return;
+			}
+			// O job analisa o próprio texto capturado, para que a AST e o cache concordem
+			AnalysisJob.scheduleLiveAnalysis(source, window, DEBOUNCE_DELAY);
+		});
+	}
+
+	/**
+	 * Verifica se o arquivo está aberto no editor ativo da janela.
+	 */
+	private static boolean isInActiveEditor(ICompilationUnit unit, IWorkbenchWindow window) {
+		if (window.getShell() == null || window.getShell().isDisposed()) {
+			return false;
+		}
+		IWorkbenchPage page = window.getActivePage();
+		IEditorPart editor = page != null ? page.getActiveEditor() : null;
+		if (editor == null) {
+			return false;
+		}
+		IFile file = ResourceUtil.getFile(editor.getEditorInput());
+		return file != null && file.equals(unit.getResource());
+	}
+
+	/**
+	 * Verifica se a reconciliação alterou o código do arquivo ou de algum de seus
+	 * membros, e não apenas os problemas ou a AST.
+	 */
+	private static boolean changesContent(IJavaElementDelta delta) {
+		if ((delta.getFlags() & (IJavaElementDelta.F_CONTENT | IJavaElementDelta.F_CHILDREN)) != 0
+				|| delta.getKind() != IJavaElementDelta.CHANGED) {
+			return true;
+		}
+		for (IJavaElementDelta child : delta.getAffectedChildren()) {
+			if (changesContent(child)) {
+				return true;
+			}
+		}
+		return false;
+	}
+}
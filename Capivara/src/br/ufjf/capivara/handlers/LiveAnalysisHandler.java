@@ -0,0 +1,29 @@
+package br.ufjf.capivara.handlers;
+
+import org.eclipse.core.commands.AbstractHandler;
+import org.eclipse.core.commands.Command;
+import org.eclipse.core.commands.ExecutionEvent;
+import org.eclipse.core.commands.ExecutionException;
+import org.eclipse.ui.handlers.HandlerUtil;
+
+/**
+ * Handler do comando "Análise ao Vivo", um botão de alternância na barra de
+ * ferramentas da {@link br.ufjf.capivara.views.AnalysisResultView}.
+ * <p>
+ * Ativa ou desativa o {@link LiveAnalysis}; os resultados passam a ser exibidos na
+ * janela em que o comando foi acionado.
+ */
+public class LiveAnalysisHandler extends AbstractHandler {
+
+	@Override
+	public Object execute(ExecutionEvent event) throws ExecutionException {
+		Command command = event.getCommand();
+		boolean wasActive = HandlerUtil.toggleCommandState(command);
+		if (wasActive) {
+			LiveAnalysis.stop();
+		} else {
+			LiveAnalysis.start(HandlerUtil.getActiveWorkbenchWindowChecked(event));
+		}
+		return null;
+	}
+}
@@ -0,0 +1,75 @@
+package br.ufjf.capivara.handlers;
+
+import org.eclipse.core.commands.AbstractHandler;
+import org.eclipse.core.commands.Command;
+import org.eclipse.core.commands.ExecutionEvent;
+import org.eclipse.core.commands.ExecutionException;
+import org.eclipse.core.commands.State;
+import org.eclipse.ui.PlatformUI;
+import org.eclipse.ui.commands.ICommandService;
+import org.eclipse.ui.handlers.HandlerUtil;
+import org.eclipse.ui.handlers.RadioState;
+
+import br.ufjf.capivara.table.TruthTableGenerator;
+import br.ufjf.capivara.table.TruthTableGenerator.TableMode;
+
+/**
+ * Handler do comando "Forma da Tabela", um grupo de opções exclusivas no menu da
+ * {@link br.ufjf.capivara.views.AnalysisResultView}.
+ * <p>
+ * O valor de cada opção é o nome de um {@link TableMode}, seguido de {@code :t} para
+ * escolher a força do modo {@link TableMode#COVERING} (por exemplo,
+ * {@code COVERING:3}). A opção escolhida é guardada no estado do comando, persistido
+ * entre sessões, e vale para as análises agendadas a partir de então.
+ */
+public class TableModeHandler extends AbstractHandler {
+
+	/** Identificador do comando, declarado no plugin.xml. */
+	public static final String COMMAND_ID = "br.ufjf.capivara.commands.tableMode";
+
+	@Override
+	public Object execute(ExecutionEvent event) throws ExecutionException {
+		if (HandlerUtil.matchesRadioState(event)) {
+			return null;
+		}
+		HandlerUtil.updateRadioState(event.getCommand(), event.getParameter(RadioState.PARAMETER_ID));
+		return null;
+	}
+
+	/**
+	 * Obtém a opção escolhida no menu da view. Deve ser chamado na thread de UI.
+	 *
+	 * @return O valor da opção, ou {@code null} se o comando não estiver disponível.
+	 */
+	public static String getSelectedMode() {
+		ICommandService commandService = PlatformUI.getWorkbench().getService(ICommandService.class);
+		Command command = commandService != null ? commandService.getCommand(COMMAND_ID) : null;
+		State state = command != null ? command.getState(RadioState.STATE_ID) : null;
+		return state != null ? (String) state.getValue() : null;
+	}
+
+	/**
+	 * Configura o gerador com uma opção do menu. Opções inválidas, de versões
+	 * anteriores do plugin, mantêm a tabela completa.
+	 *
+	 * @param truthTableGenerator O gerador a configurar.
+	 * @param mode                O valor da opção, ou {@code null} para a tabela
+	 *                            completa.
+	 */
+	public static void configure(TruthTableGenerator truthTableGenerator, String mode) {
+		if (mode == null) {
+			return;
+		}
+		int separator = mode.indexOf(':');
+		try {
+			if (separator < 0) {
+				truthTableGenerator.setTableMode(TableMode.valueOf(mode));
+			} else {
+				truthTableGenerator.setTableMode(TableMode.valueOf(mode.substring(0, separator)));
+				truthTableGenerator.setCoveringStrength(Integer.parseInt(mode.substring(separator + 1)));
+			}
+		} catch (IllegalArgumentException e) {
+			truthTableGenerator.setTableMode(TableMode.FULL);
+		}
+	}
+}
@@ -0,0 +1,317 @@
+package br.ufjf.capivara.model;
+
+import java.util.Arrays;
+
+/**
+ * Representa a condição de um caminho compilada em um programa booleano pós-fixo,
+ * indexado pelas condições atômicas do método.
+ * <p>
+ * Cada posição do código é uma operação: valores não negativos empilham o valor da
+ * condição atômica de mesmo índice e valores negativos são operadores
+ * ({@link #OP_NOT}, {@link #OP_AND}, {@link #OP_OR}) ou constantes
+ * ({@link #OP_TRUE}, {@link #OP_FALSE}).
+ * <p>
+ * O programa é compilado uma única vez por {@link PathCondition} e avaliado
+ * diretamente sobre a máscara de bits de cada linha da tabela verdade, sem alocar
+ * Strings ou mapas por linha. Instâncias são imutáveis e podem ser compartilhadas
+ * entre threads.
+ *
+ * @see br.ufjf.capivara.table.TruthTableGenerator
+ */
+public final class ConditionProgram {
+
+	public static final int OP_NOT = -1;
+	public static final int OP_AND = -2;
+	public static final int OP_OR = -3;
+	public static final int OP_TRUE = -4;
+	public static final int OP_FALSE = -5;
+
+	/** Programa que é sempre verdadeiro (caminho padrão). */
+	public static final ConditionProgram TRUE = new ConditionProgram(new int[] { OP_TRUE });
+
+	/** Programa que é sempre falso (condição que não pôde ser compilada). */
+	public static final ConditionProgram FALSE = new ConditionProgram(new int[] { OP_FALSE });
+
+	private final int[] code;
+	private final int maxDepth;
+
+	private ConditionProgram(int[] code) {
+		this.code = code;
+		this.maxDepth = computeMaxDepth(code);
+	}
+
+	/**
+	 * Cria um novo construtor de programas.
+	 *
+	 * @return Um {@link Builder} vazio.
+	 */
+	public static Builder builder() {
+		return new Builder();
+	}
+
+	/**
+	 * Avalia o programa para uma linha da tabela verdade.
+	 * <p>
+	 * A condição atômica de índice {@code j} corresponde ao bit {@code width - 1 - j}
+	 * da máscara, ou seja, a primeira coluna é o bit mais significativo.
+	 *
+	 * @param mask  A máscara da linha.
+	 * @param width O número de condições atômicas (colunas) da tabela.
+	 * @return O valor da condição para a linha.
+	 */
+	public boolean evaluate(long mask, int width) {
+		if (maxDepth > Long.SIZE) {
+			return evaluateDeep(mask, width);
+		}
+		// A pilha de valores booleanos cabe nos bits de um long.
+		long stack = 0L;
+		int top = 0;
+		for (int op : code) {
+			if (op >= 0) {
+				stack = (stack << 1) | ((mask >>> (width - 1 - op)) & 1L);
+				top++;
+				continue;
+			}
+			switch (op) {
+			case OP_NOT:
+				stack ^= 1L;
+				break;
+			case OP_AND:
+				stack = (stack >>> 1) & (stack | ~1L);
+				top--;
+				break;
+			case OP_OR:
+				stack = (stack >>> 1) | (stack & 1L);
+				top--;
+				break;
+			case OP_TRUE:
+				stack = (stack << 1) | 1L;
+				top++;
+				break;
+			default:
+				stack <<= 1;
+				top++;
+				break;
+			}
+		}
+		return top > 0 && (stack & 1L) != 0;
+	}
+
+	private boolean evaluateDeep(long mask, int width) {
+		boolean[] stack = new boolean[maxDepth];
+		int top = 0;
+		for (int op : code) {
+			if (op >= 0) {
+				stack[top++] = ((mask >>> (width - 1 - op)) & 1L) != 0;
+				continue;
+			}
+			switch (op) {
+			case OP_NOT:
+				stack[top - 1] = !stack[top - 1];
+				break;
+			case OP_AND:
+				top--;
+				stack[top - 1] = stack[top - 1] && stack[top];
+				break;
+			case OP_OR:
+				top--;
+				stack[top - 1] = stack[top - 1] || stack[top];
+				break;
+			case OP_TRUE:
+				stack[top++] = true;
+				break;
+			default:
+				stack[top++] = false;
+				break;
+			}
+		}
+		return top > 0 && stack[top - 1];
+	}
+
+	/**
+	 * Avalia o programa para 64 linhas de uma vez, com operações bit a bit.
+	 * <p>
+	 * Cada posição de {@code columns} guarda a coluna de uma condição atômica: o bit
+	 * {@code r} da palavra é o valor da condição na {@code r}-ésima linha do bloco.
+	 * O bit {@code r} do resultado é o valor do programa nessa linha.
+	 *
+	 * @param columns As palavras de cada condição atômica, indexadas pelo índice da condição.
+	 * @param stack   Área de trabalho com pelo menos {@link #getMaxDepth()} posições.
+	 * @return A palavra com o valor do programa para as 64 linhas.
+	 */
+	public long evaluateWord(long[] columns, long[] stack) {
+		int top = 0;
+		for (int op : code) {
+			if (op >= 0) {
+				stack[top++] = columns[op];
+				continue;
+			}
+			switch (op) {
+			case OP_NOT:
+				stack[top - 1] = ~stack[top - 1];
+				break;
+			case OP_AND:
+				top--;
+				stack[top - 1] &= stack[top];
+				break;
+			case OP_OR:
+				top--;
+				stack[top - 1] |= stack[top];
+				break;
+			case OP_TRUE:
+				stack[top++] = -1L;
+				break;
+			default:
+				stack[top++] = 0L;
+				break;
+			}
+		}
+		return top > 0 ? stack[top - 1] : 0L;
+	}
+
+	/**
+	 * Obtém o número de operações do programa.
+	 *
+	 * @return O tamanho do código pós-fixo.
+	 */
+	public int length() {
+		return code.length;
+	}
+
+	/**
+	 * Obtém a operação em uma posição do programa.
+	 *
+	 * @param index A posição da operação.
+	 * @return O índice de uma condição atômica (valor não negativo) ou um dos operadores {@code OP_*}.
+	 */
+	public int opAt(int index) {
+		return code[index];
+	}
+
+	/**
+	 * Obtém a profundidade máxima da pilha de avaliação.
+	 *
+	 * @return O número máximo de valores empilhados simultaneamente.
+	 */
+	public int getMaxDepth() {
+		return maxDepth;
+	}
+
+	/**
+	 * Verifica se o programa é a constante verdadeira.
+	 *
+	 * @return {@code true} se o programa consistir apenas de {@link #OP_TRUE}.
+	 */
+	public boolean isConstantTrue() {
+		return code.length == 1 && code[0] == OP_TRUE;
+	}
+
+	private static int computeMaxDepth(int[] code) {
+		int depth = 0;
+		int max = 0;
+		boolean valid = true;
+		for (int op : code) {
+			if (op >= 0 || op == OP_TRUE || op == OP_FALSE) {
+				depth++;
+			} else if (op == OP_NOT) {
+				valid &= depth >= 1;
+			} else if (op == OP_AND || op == OP_OR) {
+				valid &= depth >= 2;
+				depth--;
+			} else {
+				valid = false;
+			}
+			max = Math.max(max, depth);
+		}
+		if (!valid || depth != 1) {
+			throw new IllegalArgumentException("Programa booleano inválido: " + Arrays.toString(code));
+		}
+		return max;
+	}
+
+	@Override
+	public String toString() {
+		return "ConditionProgram" + Arrays.toString(code);
+	}
+
+	@Override
+	public boolean equals(Object obj) {
+		if (this == obj)
+			return true;
+		if (obj == null || getClass() != obj.getClass())
+			return false;
+		return Arrays.equals(code, ((ConditionProgram) obj).code);
+	}
+
+	@Override
+	public int hashCode() {
+		return Arrays.hashCode(code);
+	}
+
+	/**
+	 * Construtor incremental de {@link ConditionProgram}, usado pelos visitors que
+	 * traduzem as expressões da AST para o formato pós-fixo.
+	 */
+	public static final class Builder {
+
+		private int[] code = new int[16];
+		private int size = 0;
+
+		private Builder() {
+		}
+
+		/**
+		 * Empilha o valor de uma condição atômica.
+		 *
+		 * @param index O índice da condição atômica (coluna da tabela verdade).
+		 * @return Este construtor.
+		 */
+		public Builder atom(int index) {
+			if (index < 0) {
+				throw new IllegalArgumentException("Índice de condição inválido: " + index);
+			}
+			return emit(index);
+		}
+
+		public Builder not() {
+			return emit(OP_NOT);
+		}
+
+		public Builder and() {
+			return emit(OP_AND);
+		}
+
+		public Builder or() {
+			return emit(OP_OR);
+		}
+
+		public Builder constant(boolean value) {
+			return emit(value ? OP_TRUE : OP_FALSE);
+		}
+
+		/**
+		 * Copia o código de outro programa para o final deste construtor.
+		 *
+		 * @param program O programa a ser anexado.
+		 * @return Este construtor.
+		 */
+		public Builder append(ConditionProgram program) {
+			for (int op : program.code) {
+				emit(op);
+			}
+			return this;
+		}
+
+		public ConditionProgram build() {
+			return new ConditionProgram(Arrays.copyOf(code, size));
+		}
+
+		private Builder emit(int op) {
+			if (size == code.length) {
+				code = Arrays.copyOf(code, size * 2);
+			}
+			code[size++] = op;
+			return this;
+		}
+	}
+}
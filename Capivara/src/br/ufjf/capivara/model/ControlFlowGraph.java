@@ -0,0 +1,474 @@
+package br.ufjf.capivara.model;
+
+import java.io.DataOutput;
+import java.io.IOException;
+import java.nio.ByteBuffer;
+import java.nio.charset.StandardCharsets;
+import java.util.Arrays;
+
+/**
+ * Representação compacta e imutável de um grafo de fluxo de controle.
+ * <p>
+ * Os nós são numerados de {@code 1} a {@link #getNodeCount()}. Todas as estruturas
+ * são vetores de tipos primitivos, sem objetos por nó ou por aresta:
+ * <ul>
+ * <li>as arestas ficam em formato CSR: os sucessores do nó {@code n} ocupam as
+ * posições {@code edgeStart(n) .. edgeEnd(n) - 1} dos vetores de destinos e de
+ * rótulos;</li>
+ * <li>o tipo de cada nó é um {@code byte} com o código de {@link NodeType};</li>
+ * <li>o mapeamento linha → nó é um vetor indexado pela linha, e as linhas de cada nó
+ * também ficam em formato CSR.</li>
+ * </ul>
+ * É produzido pelo {@link br.ufjf.capivara.analyzer.CauseEffectVisitor} e consumido
+ * pelo {@link br.ufjf.capivara.graph.GraphvizGenerator} e pela anotação do código.
+ * Os vetores podem ser gravados e lidos diretamente em formato binário
+ * ({@link #writeTo(DataOutput)} e {@link #readFrom(ByteBuffer)}), usado pelo cache
+ * persistente de análises.
+ */
+public final class ControlFlowGraph {
+
+	/**
+	 * Tipos de nó do grafo, identificados por um código de um byte.
+	 */
+	public enum NodeType {
+		ENTRY, DECISION, LOOP_DECISION, PROCESSING, EXIT;
+
+		private static final NodeType[] VALUES = values();
+
+		public byte code() {
+			return (byte) ordinal();
+		}
+
+		public static NodeType fromCode(byte code) {
+			return VALUES[code];
+		}
+	}
+
+	/** Código de rótulo de aresta: sem rótulo. */
+	public static final byte EDGE_PLAIN = 0;
+	/** Código de rótulo de aresta: ramo verdadeiro. */
+	public static final byte EDGE_TRUE = 1;
+	/** Código de rótulo de aresta: ramo falso. */
+	public static final byte EDGE_FALSE = 2;
+
+	private static final String[] EDGE_LABELS = { "", "true", "false" };
+
+	private final int nodeCount;
+	private final byte[] nodeTypes;
+	private final String[] nodeLabels;
+	private final int[] edgeOffsets;
+	private final int[] edgeTargets;
+	private final byte[] edgeLabels;
+	private final int[] lineToNode;
+	private final int[] lineOffsets;
+	private final int[] nodeLines;
+
+	private ControlFlowGraph(Builder builder) {
+		this.nodeCount = builder.nodeCount;
+		this.nodeTypes = Arrays.copyOf(builder.nodeTypes, nodeCount + 1);
+		this.nodeLabels = Arrays.copyOf(builder.nodeLabels, nodeCount + 1);
+
+		// Converte as listas encadeadas do construtor para CSR, preservando a ordem de inserção.
+		this.edgeOffsets = new int[nodeCount + 2];
+		this.edgeTargets = new int[builder.edgeCount];
+		this.edgeLabels = new byte[builder.edgeCount];
+		fillCsr(builder.edgeHead, builder.edgeNext, builder.edgeTo, builder.edgeLabel, edgeOffsets, edgeTargets,
+				edgeLabels);
+
+		this.lineToNode = Arrays.copyOf(builder.lineToNode, builder.maxLine + 1);
+		this.lineOffsets = new int[nodeCount + 2];
+		this.nodeLines = new int[builder.lineCount];
+		fillCsr(builder.lineHead, builder.lineNext, builder.lineValue, null, lineOffsets, nodeLines, null);
+	}
+
+	private ControlFlowGraph(int nodeCount, byte[] nodeTypes, String[] nodeLabels, int[] edgeOffsets,
+			int[] edgeTargets, byte[] edgeLabels, int[] lineToNode, int[] lineOffsets, int[] nodeLines) {
+		this.nodeCount = nodeCount;
+		this.nodeTypes = nodeTypes;
+		this.nodeLabels = nodeLabels;
+		this.edgeOffsets = edgeOffsets;
+		this.edgeTargets = edgeTargets;
+		this.edgeLabels = edgeLabels;
+		this.lineToNode = lineToNode;
+		this.lineOffsets = lineOffsets;
+		this.nodeLines = nodeLines;
+	}
+
+	private void fillCsr(int[] head, int[] next, int[] values, byte[] labels, int[] offsets, int[] outValues,
+			byte[] outLabels) {
+		int position = 0;
+		for (int node = 1; node <= nodeCount; node++) {
+			offsets[node] = position;
+			int count = 0;
+			for (int e = node < head.length ? head[node] : -1; e >= 0; e = next[e]) {
+				count++;
+			}
+			// As listas do construtor estão em ordem inversa de inserção.
+			int write = position + count;
+			for (int e = node < head.length ? head[node] : -1; e >= 0; e = next[e]) {
+				write--;
+				outValues[write] = values[e];
+				if (outLabels != null) {
+					outLabels[write] = labels[e];
+				}
+			}
+			position += count;
+		}
+		offsets[nodeCount + 1] = position;
+	}
+
+	public static Builder builder() {
+		return new Builder();
+	}
+
+	public int getNodeCount() {
+		return nodeCount;
+	}
+
+	public NodeType getNodeType(int node) {
+		return NodeType.fromCode(nodeTypes[node]);
+	}
+
+	public String getNodeLabel(int node) {
+		return nodeLabels[node];
+	}
+
+	/**
+	 * @return A posição da primeira aresta que sai de {@code node}.
+	 */
+	public int edgeStart(int node) {
+		return edgeOffsets[node];
+	}
+
+	/**
+	 * @return A posição seguinte à última aresta que sai de {@code node}.
+	 */
+	public int edgeEnd(int node) {
+		return edgeOffsets[node + 1];
+	}
+
+	public int getEdgeCount() {
+		return edgeTargets.length;
+	}
+
+	public int getEdgeTarget(int edge) {
+		return edgeTargets[edge];
+	}
+
+	public byte getEdgeLabelCode(int edge) {
+		return edgeLabels[edge];
+	}
+
+	public String getEdgeLabel(int edge) {
+		return EDGE_LABELS[edgeLabels[edge]];
+	}
+
+	/**
+	 * Obtém o nó associado a uma linha da unidade de compilação.
+	 *
+	 * @param line O número da linha.
+	 * @return O ID do nó, ou {@code 0} se a linha não pertencer a nenhum nó.
+	 */
+	public int getNodeForLine(int line) {
+		return line >= 0 && line < lineToNode.length ? lineToNode[line] : 0;
+	}
+
+	/**
+	 * @return A maior linha mapeada para algum nó.
+	 */
+	public int getMaxLine() {
+		return lineToNode.length - 1;
+	}
+
+	/**
+	 * Obtém as linhas mapeadas para um nó, na ordem em que foram associadas.
+	 *
+	 * @param node O ID do nó.
+	 * @return Uma cópia das linhas do nó.
+	 */
+	public int[] getLinesOfNode(int node) {
+		return Arrays.copyOfRange(nodeLines, lineOffsets[node], lineOffsets[node + 1]);
+	}
+
+	/**
+	 * Grava o grafo em formato binário: o número de nós seguido dos vetores, cada um
+	 * precedido do seu tamanho. Os rótulos são gravados em UTF-8.
+	 *
+	 * @param out O destino.
+	 * @throws IOException Se ocorrer um erro ao gravar.
+	 */
+	public void writeTo(DataOutput out) throws IOException {
+		out.writeInt(nodeCount);
+		out.write(nodeTypes, 0, nodeCount + 1);
+		for (int node = 1; node <= nodeCount; node++) {
+			String label = nodeLabels[node];
+			if (label == null) {
+				out.writeInt(-1);
+			} else {
+				byte[] bytes = label.getBytes(StandardCharsets.UTF_8);
+				out.writeInt(bytes.length);
+				out.write(bytes);
+			}
+		}
+		writeInts(out, edgeOffsets);
+		writeInts(out, edgeTargets);
+		out.writeInt(edgeLabels.length);
+		out.write(edgeLabels);
+		writeInts(out, lineToNode);
+		writeInts(out, lineOffsets);
+		writeInts(out, nodeLines);
+	}
+
+	/**
+	 * Lê um grafo gravado por {@link #writeTo(DataOutput)}, a partir da posição atual
+	 * do buffer.
+	 *
+	 * @param in O buffer de origem, que avança até o fim do grafo.
+	 * @return O grafo lido.
+	 * @throws IllegalArgumentException Se os dados não formarem um grafo válido.
+	 */
+	public static ControlFlowGraph readFrom(ByteBuffer in) {
+		int nodeCount = in.getInt();
+		if (nodeCount < 0 || nodeCount >= in.remaining()) {
+			throw new IllegalArgumentException("Número de nós inválido: " + nodeCount);
+		}
+		byte[] nodeTypes = new byte[nodeCount + 1];
+		in.get(nodeTypes);
+		String[] nodeLabels = new String[nodeCount + 1];
+		for (int node = 1; node <= nodeCount; node++) {
+			int length = in.getInt();
+			if (length >= 0) {
+				byte[] bytes = new byte[length];
+				in.get(bytes);
+				nodeLabels[node] = new String(bytes, StandardCharsets.UTF_8);
+			}
+		}
+		int[] edgeOffsets = readInts(in);
+		int[] edgeTargets = readInts(in);
+		byte[] edgeLabels = new byte[in.getInt()];
+		in.get(edgeLabels);
+		int[] lineToNode = readInts(in);
+		int[] lineOffsets = readInts(in);
+		int[] nodeLines = readInts(in);
+		if (edgeOffsets.length != nodeCount + 2 || lineOffsets.length != nodeCount + 2
+				|| edgeLabels.length != edgeTargets.length || lineToNode.length == 0) {
+			throw new IllegalArgumentException("Grafo inconsistente");
+		}
+		return new ControlFlowGraph(nodeCount, nodeTypes, nodeLabels, edgeOffsets, edgeTargets, edgeLabels,
+				lineToNode, lineOffsets, nodeLines);
+	}
+
+	private static void writeInts(DataOutput out, int[] values) throws IOException {
+		out.writeInt(values.length);
+		for (int value : values) {
+			out.writeInt(value);
+		}
+	}
+
+	private static int[] readInts(ByteBuffer in) {
+		int length = in.getInt();
+		if (length < 0 || length > in.remaining() / Integer.BYTES) {
+			throw new IllegalArgumentException("Tamanho de vetor inválido: " + length);
+		}
+		int[] values = new int[length];
+		in.asIntBuffer().get(values);
+		in.position(in.position() + length * Integer.BYTES);
+		return values;
+	}
+
+	/**
+	 * Construtor incremental do grafo, usado durante a visita da AST. As arestas e as
+	 * linhas de cada nó são mantidas em listas encadeadas sobre vetores primitivos e
+	 * convertidas para CSR em {@link #build()}. Arestas e linhas repetidas são
+	 * detectadas em tempo constante por conjuntos de chaves {@code long}, então a
+	 * construção é linear no número de chamadas.
+	 */
+	public static final class Builder {
+
+		private int nodeCount;
+		private byte[] nodeTypes = new byte[16];
+		private String[] nodeLabels = new String[16];
+
+		private int edgeCount;
+		private int[] edgeHead = new int[16];
+		private int[] edgeNext = new int[16];
+		private int[] edgeTo = new int[16];
+		private byte[] edgeLabel = new byte[16];
+
+		private int maxLine;
+		private int[] lineToNode = new int[64];
+		private int lineCount;
+		private int[] lineHead = new int[16];
+		private int[] lineNext = new int[64];
+		private int[] lineValue = new int[64];
+
+		private final LongHashSet edgeKeys = new LongHashSet();
+		private final LongHashSet lineKeys = new LongHashSet();
+
+		private Builder() {
+			Arrays.fill(edgeHead, -1);
+			Arrays.fill(lineHead, -1);
+		}
+
+		/**
+		 * Cria um novo nó.
+		 *
+		 * @param type O tipo do nó.
+		 * @return O ID do nó criado (IDs começam em 1 e são sequenciais).
+		 */
+		public int addNode(NodeType type) {
+			int node = ++nodeCount;
+			if (node >= nodeTypes.length) {
+				int capacity = nodeTypes.length * 2;
+				nodeTypes = Arrays.copyOf(nodeTypes, capacity);
+				nodeLabels = Arrays.copyOf(nodeLabels, capacity);
+				edgeHead = grow(edgeHead, capacity);
+				lineHead = grow(lineHead, capacity);
+			}
+			nodeTypes[node] = type.code();
+			return node;
+		}
+
+		public int getNodeCount() {
+			return nodeCount;
+		}
+
+		public void setNodeLabel(int node, String label) {
+			nodeLabels[node] = label;
+		}
+
+		public String getNodeLabel(int node) {
+			return nodeLabels[node];
+		}
+
+		/**
+		 * Adiciona uma aresta, ignorando-a se já existir uma aresta entre os mesmos nós.
+		 *
+		 * @param from      O nó de origem.
+		 * @param to        O nó de destino.
+		 * @param labelCode {@link #EDGE_PLAIN}, {@link #EDGE_TRUE} ou {@link #EDGE_FALSE}.
+		 */
+		public void addEdge(int from, int to, byte labelCode) {
+			if (!edgeKeys.add(key(from, to))) {
+				return;
+			}
+			if (edgeCount == edgeTo.length) {
+				int capacity = edgeCount * 2;
+				edgeNext = Arrays.copyOf(edgeNext, capacity);
+				edgeTo = Arrays.copyOf(edgeTo, capacity);
+				edgeLabel = Arrays.copyOf(edgeLabel, capacity);
+			}
+			edgeTo[edgeCount] = to;
+			edgeLabel[edgeCount] = labelCode;
+			edgeNext[edgeCount] = edgeHead[from];
+			edgeHead[from] = edgeCount++;
+		}
+
+		/**
+		 * Associa as linhas {@code startLine .. endLine} a um nó. Cada linha passa a
+		 * apontar para o nó (a última associação prevalece) e entra na lista de linhas
+		 * do nó, se ainda não estiver nela.
+		 */
+		public void mapLines(int node, int startLine, int endLine) {
+			if (endLine >= lineToNode.length) {
+				lineToNode = Arrays.copyOf(lineToNode, Math.max(endLine + 1, lineToNode.length * 2));
+			}
+			for (int line = startLine; line <= endLine; line++) {
+				lineToNode[line] = node;
+			}
+			maxLine = Math.max(maxLine, endLine);
+			for (int line = startLine; line <= endLine; line++) {
+				if (lineKeys.add(key(node, line))) {
+					addNodeLine(node, line);
+				}
+			}
+		}
+
+		private void addNodeLine(int node, int line) {
+			if (lineCount == lineValue.length) {
+				int capacity = lineCount * 2;
+				lineNext = Arrays.copyOf(lineNext, capacity);
+				lineValue = Arrays.copyOf(lineValue, capacity);
+			}
+			lineValue[lineCount] = line;
+			lineNext[lineCount] = lineHead[node];
+			lineHead[node] = lineCount++;
+		}
+
+		public ControlFlowGraph build() {
+			return new ControlFlowGraph(this);
+		}
+
+		private static long key(int high, int low) {
+			return ((long) high << 32) | (low & 0xFFFFFFFFL);
+		}
+
+		private static int[] grow(int[] array, int capacity) {
+			int length = array.length;
+			int[] grown = Arrays.copyOf(array, capacity);
+			Arrays.fill(grown, length, capacity, -1);
+			return grown;
+		}
+	}
+
+	/**
+	 * Conjunto de chaves {@code long} com endereçamento aberto, sem boxing.
+	 */
+	private static final class LongHashSet {
+		private static final long EMPTY = Long.MIN_VALUE;
+
+		private long[] keys = newTable(64);
+		private int size;
+		private boolean containsEmpty;
+
+		/**
+		 * @return {@code true} se a chave ainda não estava no conjunto.
+		 */
+		boolean add(long key) {
+			if (key == EMPTY) {
+				boolean added = !containsEmpty;
+				containsEmpty = true;
+				return added;
+			}
+			int mask = keys.length - 1;
+			int slot = mix(key) & mask;
+			while (keys[slot] != EMPTY) {
+				if (keys[slot] == key) {
+					return false;
+				}
+				slot = (slot + 1) & mask;
+			}
+			keys[slot] = key;
+			if (++size * 2 > keys.length) {
+				rehash();
+			}
+			return true;
+		}
+
+		private void rehash() {
+			long[] old = keys;
+			keys = newTable(old.length * 2);
+			int mask = keys.length - 1;
+			for (long key : old) {
+				if (key != EMPTY) {
+					int slot = mix(key) & mask;
+					while (keys[slot] != EMPTY) {
+						slot = (slot + 1) & mask;
+					}
+					keys[slot] = key;
+				}
+			}
+		}
+
+		private static long[] newTable(int capacity) {
+			long[] table = new long[capacity];
+			Arrays.fill(table, EMPTY);
+			return table;
+		}
+
+		private static int mix(long key) {
+			long h = key * 0x9E3779B97F4A7C15L;
+			return (int) (h ^ (h >>> 32));
+		}
+	}
+}
@@ -0,0 +1,74 @@
+package br.ufjf.capivara.model;
+
+import br.ufjf.capivara.graph.GraphLayout;
+import br.ufjf.capivara.table.TruthTableRows;
+
+/**
+ * Resultado da análise de um único método: o código anotado com os nós do grafo, a
+ * tabela verdade e o grafo, no formato DOT e como {@link ControlFlowGraph} para a
+ * visualização. O layout do desenho só é calculado quando é pedido.
+ * <p>
+ * É produzido pelo {@link br.ufjf.capivara.handlers.AnalysisJob}, que analisa todos
+ * os métodos do código selecionado a partir de uma única AST, e exibido pela
+ * {@link br.ufjf.capivara.views.AnalysisResultView}, que permite escolher o método.
+ */
+public class MethodAnalysis {
+
+	private final String methodName;
+	private final String annotatedCode;
+	private final TruthTableRows truthTable;
+	private final String dotGraph;
+	private final ControlFlowGraph graph;
+	private GraphLayout layout;
+
+	/**
+	 * @param methodName    O nome do método com os tipos dos parâmetros, exibido na seleção de métodos.
+	 * @param annotatedCode O código do método anotado com os nós do grafo.
+	 * @param truthTable    As linhas da tabela verdade, geradas sob demanda.
+	 * @param dotGraph      O grafo de fluxo de controle no formato DOT.
+	 * @param graph         O grafo de fluxo de controle, desenhado na visualização.
+	 */
+	public MethodAnalysis(String methodName, String annotatedCode, TruthTableRows truthTable, String dotGraph,
+			ControlFlowGraph graph) {
+		this.methodName = methodName;
+		this.annotatedCode = annotatedCode;
+		this.truthTable = truthTable;
+		this.dotGraph = dotGraph;
+		this.graph = graph;
+	}
+
+	public String getMethodName() {
+		return methodName;
+	}
+
+	public String getAnnotatedCode() {
+		return annotatedCode;
+	}
+
+	public TruthTableRows getTruthTable() {
+		return truthTable;
+	}
+
+	public String getDotGraph() {
+		return dotGraph;
+	}
+
+	public ControlFlowGraph getGraph() {
+		return graph;
+	}
+
+	/**
+	 * @return O layout do grafo, calculado na primeira chamada.
+	 */
+	public synchronized GraphLayout getLayout() {
+		if (layout == null) {
+			layout = GraphLayout.compute(graph);
+		}
+		return layout;
+	}
+
+	@Override
+	public String toString() {
+		return methodName;
+	}
+}
@@ -16,6 +16,7 @@ public class PathCondition {
 
 	private final String condition;
 	private final String effect;
+	private final ConditionProgram program;
 
 	/**
 	 * Construtor para criar uma nova condição de caminho.
@@ -23,8 +24,20 @@ public class PathCondition {
 	 * @param effect    O efeito ou resultado deste caminho (ex: "return true", "x = 10").
 	 */
 	public PathCondition(String condition, String effect) {
+		this(condition, effect, null);
+	}
+
+	/**
+	 * Construtor para criar uma condição de caminho já compilada.
+	 *
+	 * @param condition A condição lógica que define este caminho.
+	 * @param effect    O efeito ou resultado deste caminho.
+	 * @param program   A condição compilada sobre os índices das condições atômicas.
+	 */
+	public PathCondition(String condition, String effect, ConditionProgram program) {
 		this.condition = condition;
 		this.effect = effect;
+		this.program = program;
 	}
 
 	/**
@@ -43,6 +56,19 @@ public class PathCondition {
 		return effect;
 	}
 
+	/**
+	 * Obtém a condição compilada deste caminho. Caminhos padrão são sempre
+	 * verdadeiros.
+	 *
+	 * @return O programa booleano da condição, ou {@code null} se ela não foi compilada.
+	 */
+	public ConditionProgram getProgram() {
+		if (program == null && isDefaultPath()) {
+			return ConditionProgram.TRUE;
+		}
+		return program;
+	}
+
 	/**
 	 * Verifica se este caminho representa um caminho padrão (default), ou seja,
 	 * um fluxo que não depende de nenhuma condição explícita.
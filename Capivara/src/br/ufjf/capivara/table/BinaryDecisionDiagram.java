@@ -0,0 +1,511 @@
+package br.ufjf.capivara.table;
+
+import java.math.BigInteger;
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.HashMap;
+import java.util.List;
+import java.util.Map;
+
+import br.ufjf.capivara.model.ConditionProgram;
+
+/**
+ * Diagrama de decisão binária reduzido e ordenado (ROBDD) sobre as condições
+ * atômicas de um método.
+ * <p>
+ * As variáveis seguem a ordem das colunas da tabela verdade (a condição de índice 0
+ * fica no topo do diagrama). Cada função booleana é representada por um inteiro que
+ * identifica seu nó raiz; {@link #FALSE} e {@link #TRUE} são os terminais. Nós
+ * idênticos são compartilhados por meio de uma tabela única, de modo que duas
+ * funções equivalentes têm sempre o mesmo identificador.
+ * <p>
+ * É usado pelo modo simbólico do {@link TruthTableGenerator} para obter, para cada
+ * efeito, o conjunto de combinações que o produz na forma de cubos com
+ * "don't care", sem enumerar as 2^n linhas, e pelo {@link McdcTestSet} para
+ * encontrar os pares de linhas que mostram o efeito independente de cada condição,
+ * e pelo {@link CubeMinimizer} para obter e reduzir coberturas de cubos.
+ * Instâncias não são thread-safe.
+ */
+public final class BinaryDecisionDiagram {
+
+	public static final int FALSE = 0;
+	public static final int TRUE = 1;
+
+	/** Valor de uma posição de cubo cuja condição não influencia o resultado. */
+	public static final byte DONT_CARE = -1;
+
+	private static final int OP_AND = 0;
+	private static final int OP_OR = 1;
+	private static final int OP_NOT = 2;
+	private static final int CACHE_SIZE = 1 << 16;
+
+	private final int variableCount;
+
+	private int[] var;
+	private int[] low;
+	private int[] high;
+	private int size;
+
+	private int[] unique;
+
+	private final int[] cacheA = new int[CACHE_SIZE];
+	private final int[] cacheB = new int[CACHE_SIZE];
+	private final int[] cacheResult = new int[CACHE_SIZE];
+
+	private int[] restrictMemo = new int[0];
+	private int[] restrictMark = new int[0];
+	private int mark;
+
+	/**
+	 * Cria um diagrama vazio para {@code variableCount} condições atômicas.
+	 *
+	 * @param variableCount O número de variáveis (colunas da tabela verdade).
+	 */
+	public BinaryDecisionDiagram(int variableCount) {
+		this.variableCount = variableCount;
+		this.var = new int[1024];
+		this.low = new int[1024];
+		this.high = new int[1024];
+		this.unique = new int[2048];
+		Arrays.fill(unique, -1);
+		Arrays.fill(cacheResult, -1);
+		// Terminais: a variável "fora da ordem" garante que fiquem abaixo de todos os nós.
+		var[FALSE] = variableCount;
+		var[TRUE] = variableCount;
+		size = 2;
+	}
+
+	public int getVariableCount() {
+		return variableCount;
+	}
+
+	/**
+	 * Obtém o número de nós criados, incluindo os terminais.
+	 *
+	 * @return O tamanho do diagrama.
+	 */
+	public int getNodeCount() {
+		return size;
+	}
+
+	/**
+	 * Obtém a função que é verdadeira exatamente quando a condição {@code index} é verdadeira.
+	 *
+	 * @param index O índice da condição atômica.
+	 * @return O nó da função.
+	 */
+	public int variable(int index) {
+		if (index < 0 || index >= variableCount) {
+			throw new IllegalArgumentException("Variável inválida: " + index);
+		}
+		return makeNode(index, FALSE, TRUE);
+	}
+
+	public int not(int u) {
+		if (u <= TRUE) {
+			return u ^ 1;
+		}
+		int slot = cacheSlot(OP_NOT, u, 0);
+		if (cacheResult[slot] >= 0 && cacheA[slot] == (u << 2 | OP_NOT) && cacheB[slot] == 0) {
+			return cacheResult[slot];
+		}
+		int result = makeNode(var[u], not(low[u]), not(high[u]));
+		store(slot, u << 2 | OP_NOT, 0, result);
+		return result;
+	}
+
+	public int and(int u, int v) {
+		return apply(OP_AND, u, v);
+	}
+
+	public int or(int u, int v) {
+		return apply(OP_OR, u, v);
+	}
+
+	/**
+	 * Constrói a função representada por uma condição compilada.
+	 *
+	 * @param program O programa pós-fixo sobre os índices das condições atômicas.
+	 * @return O nó da função.
+	 */
+	public int build(ConditionProgram program) {
+		int[] stack = new int[Math.max(1, program.getMaxDepth())];
+		int top = 0;
+		for (int i = 0; i < program.length(); i++) {
+			int op = program.opAt(i);
+			if (op >= 0) {
+				stack[top++] = variable(op);
+				continue;
+			}
+			switch (op) {
+			case ConditionProgram.OP_NOT:
+				stack[top - 1] = not(stack[top - 1]);
+				break;
+			case ConditionProgram.OP_AND:
+				top--;
+				stack[top - 1] = and(stack[top - 1], stack[top]);
+				break;
+			case ConditionProgram.OP_OR:
+				top--;
+				stack[top - 1] = or(stack[top - 1], stack[top]);
+				break;
+			case ConditionProgram.OP_TRUE:
+				stack[top++] = TRUE;
+				break;
+			default:
+				stack[top++] = FALSE;
+				break;
+			}
+		}
+		return stack[top - 1];
+	}
+
+	/**
+	 * Conta quantas combinações das condições atômicas satisfazem a função.
+	 *
+	 * @param u O nó da função.
+	 * @return O número de linhas da tabela verdade completa em que a função é verdadeira.
+	 */
+	public BigInteger satisfyingCount(int u) {
+		BigInteger[] memo = new BigInteger[size];
+		return countFrom(u, memo).shiftLeft(var[u]);
+	}
+
+	private BigInteger countFrom(int u, BigInteger[] memo) {
+		if (u <= TRUE) {
+			return u == TRUE ? BigInteger.ONE : BigInteger.ZERO;
+		}
+		if (memo[u] == null) {
+			BigInteger lowCount = countFrom(low[u], memo).shiftLeft(var[low[u]] - var[u] - 1);
+			BigInteger highCount = countFrom(high[u], memo).shiftLeft(var[high[u]] - var[u] - 1);
+			memo[u] = lowCount.add(highCount);
+		}
+		return memo[u];
+	}
+
+	/**
+	 * Percorre os caminhos da raiz até o terminal verdadeiro, cada um gerando um cubo.
+	 * <p>
+	 * Os cubos são disjuntos e juntos cobrem exatamente as combinações que satisfazem a
+	 * função. Cada posição do cubo vale {@code 0}, {@code 1} ou {@link #DONT_CARE}.
+	 * O mesmo array é reutilizado entre chamadas do consumidor.
+	 *
+	 * @param u        O nó da função.
+	 * @param consumer Recebe cada cubo, na ordem crescente das combinações (F antes de V).
+	 */
+	public void forEachCube(int u, CubeConsumer consumer) {
+		byte[] cube = new byte[variableCount];
+		Arrays.fill(cube, DONT_CARE);
+		collectCubes(u, cube, consumer);
+	}
+
+	private void collectCubes(int u, byte[] cube, CubeConsumer consumer) {
+		if (u == FALSE) {
+			return;
+		}
+		if (u == TRUE) {
+			consumer.accept(cube);
+			return;
+		}
+		int v = var[u];
+		cube[v] = 0;
+		collectCubes(low[u], cube, consumer);
+		cube[v] = 1;
+		collectCubes(high[u], cube, consumer);
+		cube[v] = DONT_CARE;
+	}
+
+	/**
+	 * Obtém uma soma de cubos irredundante da função, com o algoritmo de
+	 * Minato–Morreale: em cada variável, os cubos que dependem dela são gerados a partir
+	 * dos cofatores e o restante vira cubos que não a mencionam. Ao contrário de
+	 * {@link #forEachCube}, os cubos podem se sobrepor, e nenhum pode ser retirado sem
+	 * deixar de cobrir a função.
+	 * <p>
+	 * Funções como um produto de somas podem exigir um número exponencial de cubos,
+	 * por isso a construção é interrompida ao passar de {@code maxCubes}.
+	 *
+	 * @param u        O nó da função.
+	 * @param maxCubes O maior número de cubos aceito.
+	 * @return Os cubos, com {@code 0}, {@code 1} ou {@link #DONT_CARE} por condição, ou
+	 *         {@code null} se a cobertura tiver mais de {@code maxCubes} cubos.
+	 */
+	public List<byte[]> irredundantCover(int u, int maxCubes) {
+		Cover cover = irredundantCover(u, u, maxCubes, new HashMap<>());
+		return cover != null ? cover.cubes : null;
+	}
+
+	/**
+	 * Calcula uma cobertura irredundante de alguma função entre {@code lower} e
+	 * {@code upper} (lower &le; f &le; upper), junto com o nó da função coberta, ou
+	 * {@code null} se ela passar de {@code maxCubes} cubos.
+	 */
+	private Cover irredundantCover(int lower, int upper, int maxCubes, Map<Long, Cover> memo) {
+		if (lower == FALSE) {
+			return new Cover(FALSE, List.of());
+		}
+		if (upper == TRUE) {
+			byte[] cube = new byte[variableCount];
+			Arrays.fill(cube, DONT_CARE);
+			return new Cover(TRUE, List.<byte[]>of(cube));
+		}
+		long key = (long) lower << 32 | upper;
+		Cover cached = memo.get(key);
+		if (cached != null) {
+			return cached;
+		}
+		int v = Math.min(var[lower], var[upper]);
+		int lower0 = var[lower] == v ? low[lower] : lower;
+		int lower1 = var[lower] == v ? high[lower] : lower;
+		int upper0 = var[upper] == v ? low[upper] : upper;
+		int upper1 = var[upper] == v ? high[upper] : upper;
+
+		Cover cover0 = irredundantCover(and(lower0, not(upper1)), upper0, maxCubes, memo);
+		Cover cover1 = cover0 != null ? irredundantCover(and(lower1, not(upper0)), upper1, maxCubes, memo) : null;
+		if (cover1 == null) {
+			return null;
+		}
+		int rest = or(and(lower0, not(cover0.function)), and(lower1, not(cover1.function)));
+		Cover coverBoth = irredundantCover(rest, and(upper0, upper1), maxCubes, memo);
+		if (coverBoth == null
+				|| (long) cover0.cubes.size() + cover1.cubes.size() + coverBoth.cubes.size() > maxCubes) {
+			return null;
+		}
+
+		List<byte[]> cubes = new ArrayList<>(cover0.cubes.size() + cover1.cubes.size() + coverBoth.cubes.size());
+		for (byte[] cube : cover0.cubes) {
+			byte[] copy = cube.clone();
+			copy[v] = 0;
+			cubes.add(copy);
+		}
+		for (byte[] cube : cover1.cubes) {
+			byte[] copy = cube.clone();
+			copy[v] = 1;
+			cubes.add(copy);
+		}
+		cubes.addAll(coverBoth.cubes);
+		Cover result = new Cover(or(makeNode(v, cover0.function, cover1.function), coverBoth.function), cubes);
+		memo.put(key, result);
+		return result;
+	}
+
+	/** Uma cobertura e o nó da função que ela representa. */
+	private static final class Cover {
+		final int function;
+		final List<byte[]> cubes;
+
+		Cover(int function, List<byte[]> cubes) {
+			this.function = function;
+			this.cubes = cubes;
+		}
+	}
+
+	/**
+	 * Constrói a função de um cubo: a conjunção das condições com valor definido.
+	 *
+	 * @param cube O valor de cada condição: {@code 0}, {@code 1} ou {@link #DONT_CARE}.
+	 * @return O nó da função.
+	 */
+	public int cube(byte[] cube) {
+		int u = TRUE;
+		// De baixo para cima, cada nó novo fica acima dos já criados
+		for (int j = cube.length - 1; j >= 0; j--) {
+			if (cube[j] == 1) {
+				u = makeNode(j, FALSE, u);
+			} else if (cube[j] == 0) {
+				u = makeNode(j, u, FALSE);
+			}
+		}
+		return u;
+	}
+
+	/**
+	 * Obtém o cofator da função em relação a uma variável: a função com a condição
+	 * {@code index} fixada em {@code value}.
+	 *
+	 * @param u     O nó da função.
+	 * @param index O índice da condição atômica.
+	 * @param value O valor fixado.
+	 * @return O nó do cofator, que não depende da condição {@code index}.
+	 */
+	public int restrict(int u, int index, boolean value) {
+		// A marcação evita limpar a memória de resultados a cada chamada
+		if (restrictMemo.length < size) {
+			restrictMemo = new int[var.length];
+			restrictMark = new int[var.length];
+		}
+		mark++;
+		return restrict(u, index, value, size);
+	}
+
+	private int restrict(int u, int index, boolean value, int limit) {
+		if (var[u] > index) {
+			return u;
+		}
+		if (var[u] == index) {
+			return value ? high[u] : low[u];
+		}
+		if (u < limit && restrictMark[u] == mark) {
+			return restrictMemo[u];
+		}
+		int result = makeNode(var[u], restrict(low[u], index, value, limit), restrict(high[u], index, value, limit));
+		restrictMemo[u] = result;
+		restrictMark[u] = mark;
+		return result;
+	}
+
+	/**
+	 * Avalia a função em uma combinação das condições atômicas, percorrendo um único
+	 * caminho do diagrama.
+	 *
+	 * @param u          O nó da função.
+	 * @param assignment O valor ({@code 0} ou {@code 1}) de cada condição.
+	 * @return O valor da função.
+	 */
+	public boolean evaluate(int u, byte[] assignment) {
+		while (u > TRUE) {
+			u = assignment[var[u]] == 1 ? high[u] : low[u];
+		}
+		return u == TRUE;
+	}
+
+	/**
+	 * Encontra a combinação que satisfaz a função e difere de {@code target} no menor
+	 * número de condições, em tempo proporcional ao tamanho do diagrama.
+	 *
+	 * @param u      O nó da função.
+	 * @param target A combinação de referência, com {@code 0} ou {@code 1} em cada posição.
+	 * @return Uma nova combinação, ou {@code null} se a função for sempre falsa.
+	 */
+	public byte[] closestSatisfying(int u, byte[] target) {
+		if (u == FALSE) {
+			return null;
+		}
+		int[] cost = new int[size];
+		Arrays.fill(cost, -1);
+		distance(u, target, cost);
+		byte[] result = target.clone();
+		while (u > TRUE) {
+			int lowCost = distance(low[u], target, cost) + (target[var[u]] == 0 ? 0 : 1);
+			int highCost = distance(high[u], target, cost) + (target[var[u]] == 1 ? 0 : 1);
+			boolean takeHigh = highCost < lowCost || (highCost == lowCost && target[var[u]] == 1);
+			result[var[u]] = (byte) (takeHigh ? 1 : 0);
+			u = takeHigh ? high[u] : low[u];
+		}
+		return result;
+	}
+
+	/**
+	 * Calcula o menor número de condições em que uma combinação que satisfaz o nó
+	 * difere de {@code target}; condições puladas pelo caminho seguem o alvo.
+	 */
+	private int distance(int u, byte[] target, int[] cost) {
+		if (u <= TRUE) {
+			return u == TRUE ? 0 : Integer.MAX_VALUE / 2;
+		}
+		if (cost[u] < 0) {
+			int lowCost = distance(low[u], target, cost) + (target[var[u]] == 0 ? 0 : 1);
+			int highCost = distance(high[u], target, cost) + (target[var[u]] == 1 ? 0 : 1);
+			cost[u] = Math.min(lowCost, highCost);
+		}
+		return cost[u];
+	}
+
+	/**
+	 * Consumidor dos cubos produzidos por {@link BinaryDecisionDiagram#forEachCube(int, CubeConsumer)}.
+	 */
+	@FunctionalInterface
+	public interface CubeConsumer {
+		void accept(byte[] cube);
+	}
+
+	private int apply(int op, int u, int v) {
+		if (op == OP_AND) {
+			if (u == FALSE || v == FALSE) return FALSE;
+			if (u == TRUE) return v;
+			if (v == TRUE || u == v) return u;
+		} else {
+			if (u == TRUE || v == TRUE) return TRUE;
+			if (u == FALSE) return v;
+			if (v == FALSE || u == v) return u;
+		}
+		if (u > v) { // operações comutativas: normaliza a chave do cache
+			int t = u;
+			u = v;
+			v = t;
+		}
+		int slot = cacheSlot(op, u, v);
+		if (cacheResult[slot] >= 0 && cacheA[slot] == (u << 2 | op) && cacheB[slot] == v) {
+			return cacheResult[slot];
+		}
+		int vu = var[u];
+		int vv = var[v];
+		int top = Math.min(vu, vv);
+		int u0 = vu == top ? low[u] : u;
+		int u1 = vu == top ? high[u] : u;
+		int v0 = vv == top ? low[v] : v;
+		int v1 = vv == top ? high[v] : v;
+		int result = makeNode(top, apply(op, u0, v0), apply(op, u1, v1));
+		store(slot, u << 2 | op, v, result);
+		return result;
+	}
+
+	private int cacheSlot(int op, int a, int b) {
+		int h = (a * 0x9E3779B1) ^ (b * 0x85EBCA77) ^ op;
+		return (h ^ (h >>> 16)) & (CACHE_SIZE - 1);
+	}
+
+	private void store(int slot, int a, int b, int result) {
+		cacheA[slot] = a;
+		cacheB[slot] = b;
+		cacheResult[slot] = result;
+	}
+
+	private int makeNode(int v, int lo, int hi) {
+		if (lo == hi) {
+			return lo;
+		}
+		int mask = unique.length - 1;
+		int slot = hashNode(v, lo, hi) & mask;
+		while (unique[slot] >= 0) {
+			int n = unique[slot];
+			if (var[n] == v && low[n] == lo && high[n] == hi) {
+				return n;
+			}
+			slot = (slot + 1) & mask;
+		}
+		if (size == var.length) {
+			int capacity = size * 2;
+			var = Arrays.copyOf(var, capacity);
+			low = Arrays.copyOf(low, capacity);
+			high = Arrays.copyOf(high, capacity);
+		}
+		int n = size++;
+		var[n] = v;
+		low[n] = lo;
+		high[n] = hi;
+		unique[slot] = n;
+		if (size * 2 > unique.length) {
+			rehash();
+		}
+		return n;
+	}
+
+	private void rehash() {
+		unique = new int[unique.length * 2];
+		Arrays.fill(unique, -1);
+		int mask = unique.length - 1;
+		for (int n = 2; n < size; n++) {
+			int slot = hashNode(var[n], low[n], high[n]) & mask;
+			while (unique[slot] >= 0) {
+				slot = (slot + 1) & mask;
+			}
+			unique[slot] = n;
+		}
+	}
+
+	private static int hashNode(int v, int lo, int hi) {
+		int h = v * 0x27D4EB2F + lo * 0x9E3779B1 + hi * 0x85EBCA77;
+		return h ^ (h >>> 15);
+	}
+}
@@ -0,0 +1,225 @@
+package br.ufjf.capivara.table;
+
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.List;
+
+import org.eclipse.core.runtime.OperationCanceledException;
+import org.eclipse.core.runtime.SubMonitor;
+
+/**
+ * Gerador de arranjos de cobertura t a t (por exemplo, pairwise para t = 2) sobre
+ * condições booleanas, com o algoritmo guloso IPOG.
+ * <p>
+ * O arranjo começa com as 2^t combinações das t primeiras condições e cresce uma
+ * condição por vez: primeiro na horizontal, escolhendo para cada linha existente o
+ * valor da nova condição que cobre mais combinações ainda não cobertas; depois na
+ * vertical, encaixando as combinações restantes em linhas com posições livres ou em
+ * novas linhas. As combinações pendentes de cada grupo de t condições ficam nos bits
+ * de um {@code long}, então o custo de cada condição é proporcional ao número de
+ * grupos (C(k, t-1)) vezes o número de linhas, e um arranjo pairwise para centenas de
+ * condições é gerado em milissegundos.
+ * <p>
+ * O custo total cresce com as C(n, t) * 2^t combinações a cobrir, e com forças maiores
+ * cresce depressa (t = 4 e 60 condições já são 7,8 milhões), por isso o arranjo só é
+ * gerado até {@link #MAX_COMBINATIONS} combinações: até 1414 condições para t = 2,
+ * 145 para t = 3, 51 para t = 4, 29 para t = 5 e 21 para t = 6, cada um gerado em
+ * cerca de um segundo.
+ */
+public final class CoveringArray {
+
+	/** Maior força aceita; as 2^t combinações de um grupo cabem em um {@code long}. */
+	public static final int MAX_STRENGTH = 6;
+
+	/** Maior número de combinações t a t (C(n, t) * 2^t) de um arranjo. */
+	public static final int MAX_COMBINATIONS = 4_000_000;
+
+	private static final byte FREE = -1;
+
+	private CoveringArray() {
+	}
+
+	/**
+	 * Gera um arranjo em que toda combinação de valores de quaisquer {@code strength}
+	 * condições aparece em pelo menos uma linha.
+	 *
+	 * @param conditionCount O número de condições (colunas).
+	 * @param strength       A força t, entre 1 e {@link #MAX_STRENGTH}; se for maior que
+	 *                       o número de condições, o resultado é a tabela completa.
+	 * @param monitor        O monitor de progresso, ou {@code null}.
+	 * @return As linhas, cada uma com {@code 0} ou {@code 1} por condição, ou
+	 *         {@code null} se o arranjo passar de {@link #MAX_COMBINATIONS} combinações (ver
+	 *         {@link #fits(int, int)}).
+	 * @throws OperationCanceledException Se o monitor for cancelado.
+	 */
+	public static List<byte[]> generate(int conditionCount, int strength, SubMonitor monitor) {
+		if (strength < 1 || strength > MAX_STRENGTH) {
+			throw new IllegalArgumentException("Força inválida: " + strength);
+		}
+		if (!fits(conditionCount, strength)) {
+			return null;
+		}
+		int n = conditionCount;
+		int t = Math.min(strength, n);
+		SubMonitor progress = SubMonitor.convert(monitor, n);
+		List<byte[]> rows = new ArrayList<>();
+		for (int mask = 0; mask < 1 << t; mask++) {
+			byte[] row = new byte[n];
+			Arrays.fill(row, FREE);
+			for (int j = 0; j < t; j++) {
+				row[j] = (byte) ((mask >>> (t - 1 - j)) & 1);
+			}
+			rows.add(row);
+		}
+		progress.split(t);
+
+		for (int k = t; k < n; k++) {
+			progress.split(1);
+			int[][] groups = combinations(k, t - 1);
+			long[] uncovered = new long[groups.length];
+			Arrays.fill(uncovered, (1 << t) == Long.SIZE ? -1L : (1L << (1 << t)) - 1);
+
+			// Crescimento horizontal
+			for (byte[] row : rows) {
+				int best = 0;
+				int bestCount = -1;
+				for (int value = 0; value <= 1; value++) {
+					int count = 0;
+					for (int g = 0; g < groups.length; g++) {
+						int combination = combination(row, groups[g], value);
+						if (combination >= 0 && (uncovered[g] & (1L << combination)) != 0) {
+							count++;
+						}
+					}
+					if (count > bestCount) {
+						best = value;
+						bestCount = count;
+					}
+				}
+				row[k] = (byte) best;
+				for (int g = 0; g < groups.length; g++) {
+					int combination = combination(row, groups[g], best);
+					if (combination >= 0) {
+						uncovered[g] &= ~(1L << combination);
+					}
+				}
+			}
+
+			// Crescimento vertical
+			for (int g = 0; g < groups.length; g++) {
+				for (long pending = uncovered[g]; pending != 0; pending &= pending - 1) {
+					place(rows, groups[g], k, Long.numberOfTrailingZeros(pending), n);
+				}
+			}
+		}
+
+		for (byte[] row : rows) {
+			for (int j = 0; j < n; j++) {
+				if (row[j] == FREE) {
+					row[j] = 0;
+				}
+			}
+		}
+		return rows;
+	}
+
+	/**
+	 * Verifica se o arranjo de força {@code strength} para {@code conditionCount}
+	 * condições tem no máximo {@link #MAX_COMBINATIONS} combinações a cobrir.
+	 *
+	 * @param conditionCount O número de condições.
+	 * @param strength       A força t.
+	 * @return {@code true} se C(n, t) * 2^t não passar de {@link #MAX_COMBINATIONS}.
+	 */
+	public static boolean fits(int conditionCount, int strength) {
+		int t = Math.min(strength, conditionCount);
+		long combinations = 1L << t;
+		for (int i = 1; i <= t; i++) {
+			// 2^t * C(n, i) = 2^t * C(n, i-1) * (n-i+1) / i, sempre exato
+			combinations = combinations * (conditionCount - i + 1) / i;
+			if (combinations > MAX_COMBINATIONS) {
+				return false;
+			}
+		}
+		return true;
+	}
+
+	/**
+	 * Calcula o índice da combinação de valores que a linha atribui ao grupo e à nova
+	 * condição (com o valor {@code value}); o grupo ocupa os bits mais significativos.
+	 *
+	 * @return O índice, ou {@code -1} se alguma condição do grupo estiver livre.
+	 */
+	private static int combination(byte[] row, int[] group, int value) {
+		int combination = 0;
+		for (int column : group) {
+			if (row[column] == FREE) {
+				return -1;
+			}
+			combination = combination << 1 | row[column];
+		}
+		return combination << 1 | value;
+	}
+
+	/**
+	 * Coloca uma combinação em uma linha cujas posições do grupo estejam livres ou
+	 * já tenham os valores pedidos, ou em uma nova linha.
+	 */
+	private static void place(List<byte[]> rows, int[] group, int k, int combination, int n) {
+		int t = group.length + 1;
+		for (byte[] row : rows) {
+			if (matches(row, k, combination & 1)) {
+				boolean fits = true;
+				for (int j = 0; j < group.length && fits; j++) {
+					fits = matches(row, group[j], (combination >>> (t - 1 - j)) & 1);
+				}
+				if (fits) {
+					assign(row, group, k, combination);
+					return;
+				}
+			}
+		}
+		byte[] row = new byte[n];
+		Arrays.fill(row, FREE);
+		assign(row, group, k, combination);
+		rows.add(row);
+	}
+
+	private static boolean matches(byte[] row, int column, int value) {
+		return row[column] == FREE || row[column] == value;
+	}
+
+	private static void assign(byte[] row, int[] group, int k, int combination) {
+		int t = group.length + 1;
+		for (int j = 0; j < group.length; j++) {
+			row[group[j]] = (byte) ((combination >>> (t - 1 - j)) & 1);
+		}
+		row[k] = (byte) (combination & 1);
+	}
+
+	/**
+	 * Lista os subconjuntos de {@code size} elementos de {@code 0..count-1}, em ordem
+	 * lexicográfica.
+	 */
+	private static int[][] combinations(int count, int size) {
+		List<int[]> result = new ArrayList<>();
+		int[] current = new int[size];
+		for (int i = 0; i < size; i++) {
+			current[i] = i;
+		}
+		while (true) {
+			result.add(current.clone());
+			int i = size - 1;
+			while (i >= 0 && current[i] == count - size + i) {
+				i--;
+			}
+			if (i < 0) {
+				return result.toArray(new int[0][]);
+			}
+			current[i]++;
+			for (int j = i + 1; j < size; j++) {
+				current[j] = current[j - 1] + 1;
+			}
+		}
+	}
+}
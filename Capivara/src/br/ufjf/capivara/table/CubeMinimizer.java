@@ -0,0 +1,241 @@
+package br.ufjf.capivara.table;
+
+import java.util.ArrayList;
+import java.util.BitSet;
+import java.util.Comparator;
+import java.util.HashSet;
+import java.util.LinkedHashSet;
+import java.util.List;
+import java.util.Set;
+
+import org.eclipse.core.runtime.OperationCanceledException;
+import org.eclipse.core.runtime.SubMonitor;
+
+/**
+ * Minimização de funções booleanas em somas de cubos, usada para comprimir a tabela
+ * verdade agrupando as combinações de um mesmo efeito em linhas com '-'.
+ * <p>
+ * Até {@link #EXACT_MAX_CONDITIONS} condições usa Quine–McCluskey: gera todos os
+ * implicantes primos a partir dos mintermos e escolhe primeiro os essenciais, depois,
+ * de forma gulosa, os que cobrem mais mintermos restantes. Acima disso usa uma
+ * heurística no estilo do Espresso sobre o {@link BinaryDecisionDiagram}: parte da
+ * cobertura irredundante do diagrama ({@link BinaryDecisionDiagram#irredundantCover}),
+ * expande cada cubo retirando literais enquanto ele continuar contido na função
+ * (EXPAND) e remove os cubos cobertos pelos demais (IRREDUNDANT). Os testes de
+ * contenção são operações no diagrama, então o custo não depende de 2^n.
+ */
+public final class CubeMinimizer {
+
+	/** Maior número de condições minimizado de forma exata. */
+	public static final int EXACT_MAX_CONDITIONS = 12;
+
+	/** Maior número de cubos de uma cobertura. */
+	public static final int MAX_CUBES = 1 << 16;
+
+	private CubeMinimizer() {
+	}
+
+	/**
+	 * Obtém uma cobertura mínima (ou quase mínima, acima de
+	 * {@link #EXACT_MAX_CONDITIONS} condições) da função.
+	 *
+	 * @param bdd      O diagrama em que a função foi construída.
+	 * @param function O nó da função.
+	 * @param monitor  O monitor de progresso, ou {@code null}.
+	 * @return Os cubos, com {@code 0}, {@code 1} ou {@link BinaryDecisionDiagram#DONT_CARE}
+	 *         por condição, os mais gerais primeiro; ou {@code null} se a cobertura
+	 *         precisar de mais de {@link #MAX_CUBES} cubos.
+	 * @throws OperationCanceledException Se o monitor for cancelado.
+	 */
+	public static List<byte[]> minimize(BinaryDecisionDiagram bdd, int function, SubMonitor monitor) {
+		if (function == BinaryDecisionDiagram.FALSE) {
+			return List.of();
+		}
+		SubMonitor progress = SubMonitor.convert(monitor, 1);
+		List<byte[]> cubes = bdd.getVariableCount() <= EXACT_MAX_CONDITIONS
+				? quineMcCluskey(bdd, function, progress.split(1))
+				: expandAndReduce(bdd, function, progress.split(1));
+		if (cubes == null) {
+			return null;
+		}
+		cubes.sort(Comparator.comparingInt(CubeMinimizer::literalCount));
+		return cubes;
+	}
+
+	private static List<byte[]> quineMcCluskey(BinaryDecisionDiagram bdd, int function, SubMonitor progress) {
+		int n = bdd.getVariableCount();
+		List<Integer> minterms = new ArrayList<>();
+		bdd.forEachCube(function, cube -> addMinterms(cube, 0, 0, minterms));
+
+		// Implicantes como (valor << 32 | máscara dos bits livres), combinados nível a nível
+		Set<Long> level = new LinkedHashSet<>();
+		for (int minterm : minterms) {
+			level.add((long) minterm << 32);
+		}
+		List<Long> primes = new ArrayList<>();
+		while (!level.isEmpty()) {
+			progress.checkCanceled();
+			Set<Long> next = new LinkedHashSet<>();
+			Set<Long> combined = new HashSet<>();
+			for (long implicant : level) {
+				int value = (int) (implicant >>> 32);
+				int free = (int) implicant;
+				for (int bit = 1; bit < 1 << n; bit <<= 1) {
+					if ((free & bit) != 0 || (value & bit) != 0) {
+						continue;
+					}
+					long partner = (long) (value | bit) << 32 | (free & 0xFFFFFFFFL);
+					if (level.contains(partner)) {
+						next.add((long) value << 32 | ((free | bit) & 0xFFFFFFFFL));
+						combined.add(implicant);
+						combined.add(partner);
+					}
+				}
+			}
+			for (long implicant : level) {
+				if (!combined.contains(implicant)) {
+					primes.add(implicant);
+				}
+			}
+			level = next;
+		}
+
+		// Cobertura: implicantes essenciais e, depois, os que cobrem mais mintermos restantes
+		BitSet[] covers = new BitSet[primes.size()];
+		for (int p = 0; p < primes.size(); p++) {
+			covers[p] = new BitSet(minterms.size());
+			int value = (int) (primes.get(p) >>> 32);
+			int free = (int) (long) primes.get(p);
+			for (int m = 0; m < minterms.size(); m++) {
+				if ((minterms.get(m) & ~free) == value) {
+					covers[p].set(m);
+				}
+			}
+		}
+		BitSet uncovered = new BitSet(minterms.size());
+		uncovered.set(0, minterms.size());
+		List<byte[]> result = new ArrayList<>();
+		for (int m = 0; m < minterms.size(); m++) {
+			int only = -1;
+			for (int p = 0; p < primes.size(); p++) {
+				if (covers[p].get(m)) {
+					only = only == -1 ? p : -2;
+				}
+			}
+			if (only >= 0 && uncovered.intersects(covers[only])) {
+				uncovered.andNot(covers[only]);
+				result.add(toCube(primes.get(only), n));
+			}
+		}
+		while (!uncovered.isEmpty()) {
+			progress.checkCanceled();
+			int best = -1;
+			int bestCount = 0;
+			for (int p = 0; p < primes.size(); p++) {
+				BitSet gain = (BitSet) covers[p].clone();
+				gain.and(uncovered);
+				if (gain.cardinality() > bestCount) {
+					best = p;
+					bestCount = gain.cardinality();
+				}
+			}
+			uncovered.andNot(covers[best]);
+			result.add(toCube(primes.get(best), n));
+		}
+		return result;
+	}
+
+	/** Acrescenta os mintermos de um cubo; a condição 0 é o bit mais significativo. */
+	private static void addMinterms(byte[] cube, int position, int value, List<Integer> minterms) {
+		if (position == cube.length) {
+			minterms.add(value);
+			return;
+		}
+		if (cube[position] != 1) {
+			addMinterms(cube, position + 1, value << 1, minterms);
+		}
+		if (cube[position] != 0) {
+			addMinterms(cube, position + 1, value << 1 | 1, minterms);
+		}
+	}
+
+	private static byte[] toCube(long implicant, int n) {
+		int value = (int) (implicant >>> 32);
+		int free = (int) implicant;
+		byte[] cube = new byte[n];
+		for (int j = 0; j < n; j++) {
+			int bit = 1 << (n - 1 - j);
+			cube[j] = (free & bit) != 0 ? BinaryDecisionDiagram.DONT_CARE : (byte) ((value & bit) != 0 ? 1 : 0);
+		}
+		return cube;
+	}
+
+	private static List<byte[]> expandAndReduce(BinaryDecisionDiagram bdd, int function, SubMonitor progress) {
+		List<byte[]> cover = bdd.irredundantCover(function, MAX_CUBES);
+		if (cover == null) {
+			return null;
+		}
+		List<byte[]> cubes = new ArrayList<>(cover);
+		int offSet = bdd.not(function);
+
+		// EXPAND: os cubos maiores primeiro, para que absorvam os menores
+		cubes.sort(Comparator.comparingInt(CubeMinimizer::literalCount));
+		List<byte[]> expanded = new ArrayList<>();
+		for (byte[] cube : cubes) {
+			progress.checkCanceled();
+			if (expanded.stream().anyMatch(larger -> contains(larger, cube))) {
+				continue;
+			}
+			for (int j = 0; j < cube.length; j++) {
+				if (cube[j] == BinaryDecisionDiagram.DONT_CARE) {
+					continue;
+				}
+				byte value = cube[j];
+				cube[j] = BinaryDecisionDiagram.DONT_CARE;
+				if (bdd.and(bdd.cube(cube), offSet) != BinaryDecisionDiagram.FALSE) {
+					cube[j] = value;
+				}
+			}
+			expanded.removeIf(smaller -> contains(cube, smaller));
+			expanded.add(cube);
+		}
+
+		// IRREDUNDANT: remove, dos menores para os maiores, os cubos cobertos pelos demais
+		expanded.sort(Comparator.comparingInt(CubeMinimizer::literalCount).reversed());
+		int[] suffix = new int[expanded.size() + 1];
+		suffix[expanded.size()] = BinaryDecisionDiagram.FALSE;
+		for (int i = expanded.size() - 1; i >= 0; i--) {
+			suffix[i] = bdd.or(suffix[i + 1], bdd.cube(expanded.get(i)));
+		}
+		List<byte[]> result = new ArrayList<>();
+		int kept = BinaryDecisionDiagram.FALSE;
+		for (int i = 0; i < expanded.size(); i++) {
+			progress.checkCanceled();
+			int cube = bdd.cube(expanded.get(i));
+			int others = bdd.or(kept, suffix[i + 1]);
+			if (bdd.and(cube, bdd.not(others)) != BinaryDecisionDiagram.FALSE) {
+				result.add(expanded.get(i));
+				kept = bdd.or(kept, cube);
+			}
+		}
+		return result;
+	}
+
+	/** Verifica se o cubo {@code outer} contém o cubo {@code inner}. */
+	private static boolean contains(byte[] outer, byte[] inner) {
+		for (int j = 0; j < outer.length; j++) {
+			if (outer[j] != BinaryDecisionDiagram.DONT_CARE && outer[j] != inner[j]) {
+				return false;
+			}
+		}
+		return true;
+	}
+
+	private static int literalCount(byte[] cube) {
+		int count = 0;
+		for (byte value : cube) {
+			count += value != BinaryDecisionDiagram.DONT_CARE ? 1 : 0;
+		}
+		return count;
+	}
+}
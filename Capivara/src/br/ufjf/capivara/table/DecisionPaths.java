@@ -0,0 +1,198 @@
+package br.ufjf.capivara.table;
+
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.List;
+
+import org.eclipse.core.runtime.OperationCanceledException;
+import org.eclipse.core.runtime.SubMonitor;
+
+import br.ufjf.capivara.model.ConditionProgram;
+import br.ufjf.capivara.model.PathCondition;
+
+/**
+ * Caminhos de decisão viáveis de um método, com curto-circuito.
+ * <p>
+ * Os caminhos condicionais são avaliados na ordem do código, como faz o
+ * {@link EffectSelector}, mas cada condição é avaliada da esquerda para a direita
+ * com a semântica de {@code &&} e {@code ||} do Java: uma condição atômica só
+ * recebe valor quando é de fato avaliada, e a avaliação se ramifica nesse ponto. Uma
+ * condição já avaliada em um caminho mantém o valor nas condições seguintes (por
+ * exemplo, a condição de um {@code if} externo repetida nos caminhos internos), então
+ * combinações contraditórias nunca são geradas. Cada caminho vira uma linha em que as
+ * condições não avaliadas ficam com '-'.
+ * <p>
+ * O custo é proporcional ao número de caminhos vezes o tamanho das condições, e não
+ * a 2^n: condições aninhadas e de curto-circuito que já decidiram o caminho cortam
+ * todas as combinações das condições seguintes.
+ */
+public final class DecisionPaths {
+
+	/** Maior número de caminhos enumerados. */
+	public static final int MAX_PATHS = 1 << 16;
+
+	private static final int NEEDS_ATOM = -1;
+
+	private final ConditionProgram[] programs;
+	private final int[][] leftOperands;
+	private final String[] programEffects;
+	private final String defaultEffect;
+
+	private final List<byte[]> rows = new ArrayList<>();
+	private final List<String> effects = new ArrayList<>();
+	private SubMonitor progress;
+	// Condição atômica não avaliada encontrada pela última avaliação
+	private int pendingAtom;
+
+	private DecisionPaths(List<PathCondition> pathConditions) {
+		List<ConditionProgram> conditional = new ArrayList<>();
+		List<String> conditionalEffects = new ArrayList<>();
+		String fallback = null;
+		for (PathCondition pc : pathConditions) {
+			if (pc.isDefaultPath()) {
+				if (fallback == null) {
+					fallback = pc.getEffect();
+				}
+			} else {
+				conditional.add(pc.getProgram() != null ? pc.getProgram() : ConditionProgram.FALSE);
+				conditionalEffects.add(pc.getEffect());
+			}
+		}
+		this.programs = conditional.toArray(new ConditionProgram[0]);
+		this.programEffects = conditionalEffects.toArray(new String[0]);
+		this.defaultEffect = fallback != null ? fallback : "";
+		this.leftOperands = new int[programs.length][];
+		for (int p = 0; p < programs.length; p++) {
+			leftOperands[p] = leftOperands(programs[p]);
+		}
+	}
+
+	/**
+	 * Enumera os caminhos de decisão viáveis.
+	 *
+	 * @param conditionCount O número de condições atômicas (colunas).
+	 * @param pathConditions Os caminhos extraídos do método, na ordem do código.
+	 * @param monitor        O monitor de progresso, ou {@code null}.
+	 * @return Os caminhos, ou {@code null} se houver mais de {@link #MAX_PATHS}.
+	 * @throws OperationCanceledException Se o monitor for cancelado.
+	 */
+	public static DecisionPaths enumerate(int conditionCount, List<PathCondition> pathConditions,
+			SubMonitor monitor) {
+		DecisionPaths paths = new DecisionPaths(pathConditions);
+		paths.progress = SubMonitor.convert(monitor);
+		byte[] assignment = new byte[conditionCount];
+		Arrays.fill(assignment, BinaryDecisionDiagram.DONT_CARE);
+		return paths.explore(assignment, 0) ? paths : null;
+	}
+
+	/**
+	 * Continua a avaliação a partir do caminho {@code first}; os anteriores já são
+	 * falsos com as condições atribuídas, e continuam falsos quando outras condições
+	 * recebem valor.
+	 *
+	 * @return {@code false} se o limite de caminhos foi ultrapassado.
+	 */
+	private boolean explore(byte[] assignment, int first) {
+		for (int p = first; p < programs.length; p++) {
+			int value = evaluate(p, programs[p].length() - 1, assignment);
+			if (value == NEEDS_ATOM) {
+				int atom = pendingAtom;
+				boolean complete = true;
+				for (byte branch = 0; branch <= 1 && complete; branch++) {
+					assignment[atom] = branch;
+					complete = explore(assignment, p);
+				}
+				assignment[atom] = BinaryDecisionDiagram.DONT_CARE;
+				return complete;
+			}
+			if (value == 1) {
+				return addRow(assignment, programEffects[p]);
+			}
+		}
+		return addRow(assignment, defaultEffect);
+	}
+
+	private boolean addRow(byte[] assignment, String effect) {
+		if (rows.size() == MAX_PATHS) {
+			return false;
+		}
+		if (rows.size() % 1024 == 0) {
+			progress.checkCanceled();
+		}
+		rows.add(assignment.clone());
+		effects.add(effect);
+		return true;
+	}
+
+	/**
+	 * Avalia com curto-circuito a subexpressão que termina na posição {@code end} do
+	 * programa pós-fixo.
+	 *
+	 * @return {@code 0} ou {@code 1}, ou {@link #NEEDS_ATOM} se a avaliação chegou a
+	 *         uma condição atômica sem valor, guardada em {@link #pendingAtom}.
+	 */
+	private int evaluate(int p, int end, byte[] assignment) {
+		int op = programs[p].opAt(end);
+		if (op >= 0) {
+			if (assignment[op] == BinaryDecisionDiagram.DONT_CARE) {
+				pendingAtom = op;
+				return NEEDS_ATOM;
+			}
+			return assignment[op];
+		}
+		switch (op) {
+		case ConditionProgram.OP_TRUE:
+			return 1;
+		case ConditionProgram.OP_FALSE:
+			return 0;
+		case ConditionProgram.OP_NOT: {
+			int value = evaluate(p, end - 1, assignment);
+			return value == NEEDS_ATOM ? value : value ^ 1;
+		}
+		default: {
+			// O operando direito termina logo antes do operador; o esquerdo, antes do direito
+			int left = evaluate(p, leftOperands[p][end], assignment);
+			boolean decided = op == ConditionProgram.OP_AND ? left == 0 : left == 1;
+			return left == NEEDS_ATOM || decided ? left : evaluate(p, end - 1, assignment);
+		}
+		}
+	}
+
+	/**
+	 * Calcula, para cada operador binário do programa, a posição em que termina seu
+	 * operando esquerdo.
+	 */
+	private static int[] leftOperands(ConditionProgram program) {
+		int[] left = new int[program.length()];
+		// Pilha com a posição final de cada subexpressão já lida
+		int[] stack = new int[Math.max(1, program.getMaxDepth())];
+		int top = 0;
+		for (int i = 0; i < program.length(); i++) {
+			int op = program.opAt(i);
+			if (op == ConditionProgram.OP_AND || op == ConditionProgram.OP_OR) {
+				top--;
+				left[i] = stack[--top];
+			} else if (op == ConditionProgram.OP_NOT) {
+				top--;
+			}
+			stack[top++] = i;
+		}
+		return left;
+	}
+
+	/**
+	 * @return Os caminhos, cada um com {@code 0}, {@code 1} ou
+	 *         {@link BinaryDecisionDiagram#DONT_CARE} (condição não avaliada) por
+	 *         condição, na ordem em que a avaliação os encontra (F antes de V).
+	 */
+	public List<byte[]> getRows() {
+		return rows;
+	}
+
+	/**
+	 * @return O efeito de cada caminho.
+	 */
+	public List<String> getEffects() {
+		return effects;
+	}
+}
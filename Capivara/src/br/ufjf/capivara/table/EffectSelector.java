@@ -0,0 +1,174 @@
+package br.ufjf.capivara.table;
+
+import java.util.ArrayList;
+import java.util.List;
+
+import br.ufjf.capivara.model.ConditionProgram;
+import br.ufjf.capivara.model.PathCondition;
+
+/**
+ * Seleciona o efeito de cada linha da tabela verdade a partir das condições de
+ * caminho compiladas.
+ * <p>
+ * Os caminhos condicionais são testados na ordem em que aparecem no código e o
+ * primeiro satisfeito define o efeito; se nenhum for satisfeito, vale o primeiro
+ * caminho padrão. Os efeitos são identificados por índice: os índices
+ * {@code 0..n-1} são os caminhos condicionais e {@link #getDefaultEffectIndex()} é o
+ * caminho padrão.
+ * <p>
+ * A seleção pode ser feita linha a linha ({@link #select(long)}) ou em blocos de 64
+ * linhas avaliados com operações bit a bit ({@link BlockEvaluator}). Instâncias são
+ * imutáveis e podem ser compartilhadas entre threads.
+ */
+public final class EffectSelector {
+
+	/** Número de linhas avaliadas por bloco no modo bit a bit. */
+	public static final int BLOCK_SIZE = Long.SIZE;
+
+	// Colunas das 6 condições menos significativas, que variam dentro de um bloco alinhado de 64 linhas.
+	private static final long[] LOW_COLUMNS = { 0xAAAAAAAAAAAAAAAAL, 0xCCCCCCCCCCCCCCCCL, 0xF0F0F0F0F0F0F0F0L,
+			0xFF00FF00FF00FF00L, 0xFFFF0000FFFF0000L, 0xFFFFFFFF00000000L };
+
+	private final int width;
+	private final ConditionProgram[] programs;
+	private final String[] effects;
+	private final String defaultEffect;
+	private final int maxDepth;
+
+	/**
+	 * Cria um seletor para uma tabela com {@code width} condições atômicas.
+	 *
+	 * @param width          O número de condições atômicas (colunas) da tabela.
+	 * @param pathConditions Os caminhos extraídos do método, na ordem do código.
+	 */
+	public EffectSelector(int width, List<PathCondition> pathConditions) {
+		List<ConditionProgram> conditional = new ArrayList<>();
+		List<String> conditionalEffects = new ArrayList<>();
+		String fallback = null;
+		for (PathCondition pc : pathConditions) {
+			if (pc.isDefaultPath()) {
+				if (fallback == null) {
+					fallback = pc.getEffect();
+				}
+			} else {
+				conditional.add(pc.getProgram() != null ? pc.getProgram() : ConditionProgram.FALSE);
+				conditionalEffects.add(pc.getEffect());
+			}
+		}
+		this.width = width;
+		this.programs = conditional.toArray(new ConditionProgram[0]);
+		this.effects = conditionalEffects.toArray(new String[0]);
+		this.defaultEffect = fallback != null ? fallback : "";
+		this.maxDepth = conditional.stream().mapToInt(ConditionProgram::getMaxDepth).max().orElse(1);
+	}
+
+	/**
+	 * Obtém o número de condições atômicas da tabela.
+	 *
+	 * @return A largura da tabela.
+	 */
+	public int getWidth() {
+		return width;
+	}
+
+	/**
+	 * Seleciona o efeito de uma única linha.
+	 *
+	 * @param mask A máscara da linha (a primeira condição é o bit mais significativo).
+	 * @return O índice do efeito selecionado.
+	 */
+	public int select(long mask) {
+		for (int i = 0; i < programs.length; i++) {
+			if (programs[i].evaluate(mask, width)) {
+				return i;
+			}
+		}
+		return programs.length;
+	}
+
+	/**
+	 * Obtém o texto de um efeito a partir do seu índice.
+	 *
+	 * @param effectIndex O índice retornado pela seleção.
+	 * @return O efeito correspondente.
+	 */
+	public String getEffect(int effectIndex) {
+		return effectIndex < effects.length ? effects[effectIndex] : defaultEffect;
+	}
+
+	/**
+	 * Obtém o índice que representa o caminho padrão.
+	 *
+	 * @return O índice do efeito padrão.
+	 */
+	public int getDefaultEffectIndex() {
+		return programs.length;
+	}
+
+	/**
+	 * Cria um avaliador de blocos de 64 linhas. Cada avaliador mantém suas próprias
+	 * áreas de trabalho e deve ser usado por uma única thread.
+	 *
+	 * @return Um novo {@link BlockEvaluator}.
+	 */
+	public BlockEvaluator newBlockEvaluator() {
+		return new BlockEvaluator();
+	}
+
+	/**
+	 * Avaliador bit a bit: cada condição atômica vira uma palavra {@code long} com os
+	 * valores de 64 máscaras consecutivas, e cada caminho é avaliado com AND/OR/NOT
+	 * sobre palavras inteiras.
+	 */
+	public final class BlockEvaluator {
+
+		private final long[] columns = new long[width];
+		private final long[] stack = new long[Math.max(1, maxDepth)];
+
+		private BlockEvaluator() {
+		}
+
+		/**
+		 * Seleciona os efeitos das linhas {@code firstMask .. firstMask + count - 1}.
+		 *
+		 * @param firstMask A máscara da primeira linha; deve ser múltipla de {@link #BLOCK_SIZE}.
+		 * @param count     O número de linhas do bloco (no máximo {@link #BLOCK_SIZE}).
+		 * @param out       Recebe, na posição {@code r}, o índice do efeito da linha {@code firstMask + r}.
+		 */
+		public void evaluate(long firstMask, int count, int[] out) {
+			if ((firstMask & (BLOCK_SIZE - 1)) != 0 || count < 0 || count > BLOCK_SIZE) {
+				throw new IllegalArgumentException("Bloco inválido: " + firstMask + " (" + count + " linhas)");
+			}
+			for (int j = 0; j < width; j++) {
+				int bit = width - 1 - j;
+				columns[j] = bit < LOW_COLUMNS.length ? LOW_COLUMNS[bit] : -((firstMask >>> bit) & 1L);
+			}
+			evaluateColumns(columns, count, out);
+		}
+
+		/**
+		 * Seleciona os efeitos de até 64 linhas arbitrárias, dadas coluna a coluna. Não
+		 * depende de máscaras, então funciona com qualquer número de condições.
+		 *
+		 * @param columns As palavras de cada condição: o bit {@code r} é o valor da
+		 *                condição na linha {@code r}.
+		 * @param count   O número de linhas (no máximo {@link #BLOCK_SIZE}).
+		 * @param out     Recebe, na posição {@code r}, o índice do efeito da linha {@code r}.
+		 */
+		public void evaluateColumns(long[] columns, int count, int[] out) {
+			long pending = count == BLOCK_SIZE ? -1L : (1L << count) - 1;
+			for (int i = 0; i < programs.length && pending != 0; i++) {
+				long matched = programs[i].evaluateWord(columns, stack) & pending;
+				pending &= ~matched;
+				while (matched != 0) {
+					out[Long.numberOfTrailingZeros(matched)] = i;
+					matched &= matched - 1;
+				}
+			}
+			while (pending != 0) {
+				out[Long.numberOfTrailingZeros(pending)] = programs.length;
+				pending &= pending - 1;
+			}
+		}
+	}
+}
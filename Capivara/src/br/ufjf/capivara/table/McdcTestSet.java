@@ -0,0 +1,177 @@
+package br.ufjf.capivara.table;
+
+import java.nio.ByteBuffer;
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.HashMap;
+import java.util.List;
+import java.util.Map;
+
+import org.eclipse.core.runtime.OperationCanceledException;
+import org.eclipse.core.runtime.SubMonitor;
+
+/**
+ * Conjunto mínimo de casos de teste que satisfaz o critério MC/DC (Modified
+ * Condition/Decision Coverage).
+ * <p>
+ * Para cada condição atômica procura um par de casos que diferem apenas nessa
+ * condição e produzem efeitos diferentes, mostrando que ela afeta o resultado de
+ * forma independente. Com as funções de efeito em um {@link BinaryDecisionDiagram},
+ * as combinações em que a condição {@code i} decide o efeito são o complemento de
+ * {@code OR_e (F_e|i=0 AND F_e|i=1)}; se essa função for falsa, a condição não tem
+ * efeito independente (por exemplo, é mascarada por outra) e fica sem par.
+ * <p>
+ * Os pares são escolhidos de forma gulosa para reaproveitar casos: se um caso já
+ * escolhido serve para a condição, basta acrescentar o caso com a condição invertida;
+ * senão é escolhida a combinação mais próxima de um caso existente. Para decisões
+ * como {@code a && b && c} o resultado são os n+1 casos clássicos. Cada condição
+ * custa operações proporcionais ao tamanho do diagrama e ao número de casos, então
+ * métodos com dezenas de condições são tratados sem enumerar as 2^n linhas.
+ */
+public final class McdcTestSet {
+
+	private final List<byte[]> rows = new ArrayList<>();
+	private final List<String> effects = new ArrayList<>();
+	private final int[][] pairs;
+
+	private McdcTestSet(int conditionCount) {
+		this.pairs = new int[conditionCount][];
+	}
+
+	/**
+	 * Escolhe os casos de teste.
+	 *
+	 * @param bdd             O diagrama em que as funções foram construídas.
+	 * @param effectFunctions A função de cada efeito; as funções devem ser disjuntas e
+	 *                        cobrir todas as combinações.
+	 * @param monitor         O monitor de progresso, ou {@code null}.
+	 * @return O conjunto de casos.
+	 * @throws OperationCanceledException Se o monitor for cancelado.
+	 */
+	public static McdcTestSet generate(BinaryDecisionDiagram bdd, Map<String, Integer> effectFunctions,
+			SubMonitor monitor) {
+		int n = bdd.getVariableCount();
+		McdcTestSet testSet = new McdcTestSet(n);
+		Map<ByteBuffer, Integer> rowIndex = new HashMap<>();
+		SubMonitor progress = SubMonitor.convert(monitor, n);
+
+		for (int i = 0; i < n; i++) {
+			progress.split(1);
+			int independent = independenceFunction(bdd, effectFunctions.values(), i);
+			if (independent == BinaryDecisionDiagram.FALSE) {
+				continue;
+			}
+
+			// Um caso já escolhido em que a condição decide o efeito: só falta o par
+			byte[] base = null;
+			for (byte[] row : testSet.rows) {
+				if (bdd.evaluate(independent, row)) {
+					base = row;
+					break;
+				}
+			}
+			if (base == null) {
+				base = closestToRows(bdd, independent, testSet.rows, n);
+			}
+
+			byte[] flipped = base.clone();
+			flipped[i] ^= 1;
+			testSet.pairs[i] = new int[] { testSet.addRow(base, bdd, effectFunctions, rowIndex),
+					testSet.addRow(flipped, bdd, effectFunctions, rowIndex) };
+		}
+		if (testSet.rows.isEmpty()) {
+			// Nenhuma condição muda o efeito: um único caso cobre o método
+			testSet.addRow(allTrue(n), bdd, effectFunctions, rowIndex);
+		}
+		return testSet;
+	}
+
+	/**
+	 * Constrói a função verdadeira nas combinações (com a condição {@code i} em
+	 * qualquer valor) em que inverter a condição muda o efeito.
+	 */
+	private static int independenceFunction(BinaryDecisionDiagram bdd, Iterable<Integer> effectFunctions, int i) {
+		int unchanged = BinaryDecisionDiagram.FALSE;
+		for (int function : effectFunctions) {
+			unchanged = bdd.or(unchanged,
+					bdd.and(bdd.restrict(function, i, false), bdd.restrict(function, i, true)));
+		}
+		return bdd.not(unchanged);
+	}
+
+	/**
+	 * Escolhe a combinação da função mais próxima de algum caso já escolhido, para
+	 * que os novos casos compartilhem o máximo de valores com os existentes.
+	 */
+	private static byte[] closestToRows(BinaryDecisionDiagram bdd, int function, List<byte[]> rows, int n) {
+		if (rows.isEmpty()) {
+			return bdd.closestSatisfying(function, allTrue(n));
+		}
+		byte[] best = null;
+		int bestDistance = Integer.MAX_VALUE;
+		for (byte[] row : rows) {
+			byte[] candidate = bdd.closestSatisfying(function, row);
+			int distance = 0;
+			for (int j = 0; j < n; j++) {
+				distance += candidate[j] != row[j] ? 1 : 0;
+			}
+			if (distance < bestDistance) {
+				best = candidate;
+				bestDistance = distance;
+			}
+		}
+		return best;
+	}
+
+	private static byte[] allTrue(int n) {
+		byte[] row = new byte[n];
+		Arrays.fill(row, (byte) 1);
+		return row;
+	}
+
+	private int addRow(byte[] row, BinaryDecisionDiagram bdd, Map<String, Integer> effectFunctions,
+			Map<ByteBuffer, Integer> rowIndex) {
+		Integer index = rowIndex.get(ByteBuffer.wrap(row));
+		if (index != null) {
+			return index;
+		}
+		String effect = "";
+		for (Map.Entry<String, Integer> entry : effectFunctions.entrySet()) {
+			if (bdd.evaluate(entry.getValue(), row)) {
+				effect = entry.getKey();
+				break;
+			}
+		}
+		rows.add(row);
+		effects.add(effect);
+		rowIndex.put(ByteBuffer.wrap(row), rows.size() - 1);
+		return rows.size() - 1;
+	}
+
+	/**
+	 * @return Os casos, cada um com {@code 0} ou {@code 1} por condição, na ordem em
+	 *         que foram escolhidos.
+	 */
+	public List<byte[]> getRows() {
+		return rows;
+	}
+
+	/**
+	 * @return O efeito de cada caso.
+	 */
+	public List<String> getEffects() {
+		return effects;
+	}
+
+	/**
+	 * Obtém o par de casos que mostra o efeito independente de uma condição.
+	 *
+	 * @param condition O índice da condição atômica.
+	 * @return Os índices dos dois casos em {@link #getRows()}, ou {@code null} se a
+	 *         condição não tem efeito independente sobre o resultado.
+	 */
+	public int[] getPair(int condition) {
+		int[] pair = pairs[condition];
+		return pair != null ? pair.clone() : null;
+	}
+}
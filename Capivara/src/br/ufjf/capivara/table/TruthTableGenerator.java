@@ -1,335 +1,953 @@
 package br.ufjf.capivara.table;
 
+import org.eclipse.core.runtime.IProgressMonitor;
+import org.eclipse.core.runtime.OperationCanceledException;
+import org.eclipse.core.runtime.SubMonitor;
 import org.eclipse.jdt.core.dom.*;
-import br.ufjf.capivara.analyzer.ConditionExtractor;
+import br.ufjf.capivara.analyzer.PathConditionCollector;
+import br.ufjf.capivara.model.ConditionProgram;
 import br.ufjf.capivara.model.PathCondition;
 
+import java.io.IOException;
+import java.io.UncheckedIOException;
 import java.util.*;
-import java.util.regex.Pattern;
-import java.util.stream.Collectors;
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.CompletionException;
+import java.util.concurrent.Executor;
+import java.util.function.Supplier;
 
 /**
  * Gerador de tabela verdade robusto:
  * - Gera todas as 2^n combinações (não usa mais '-')
- * - Parser booleano tokenizado (suporta !, &&, ||, parênteses)
- * - Usa ConditionExtractor para obter condições atômicas
- * - Extrai caminhos/effects com visitor interno
+ * - Condições de caminho compiladas uma única vez em programas booleanos
+ *   indexados pelas condições atômicas (suporta !, &&, ||, parênteses)
+ * - Avaliação bit a bit de 64 linhas por vez (ver {@link EvaluationMode})
+ * - Geração paralela opcional por faixas de máscaras (ver {@link #setExecutor})
+ * - Modo simbólico opcional baseado em BDD, com '-' para condições irrelevantes
+ *   (ver {@link TableMode})
+ * - Modo MC/DC opcional, com um conjunto mínimo de casos em vez das 2^n linhas
+ * - Modo de cobertura t a t (pairwise) opcional, para tabelas grandes demais
+ * - Modo comprimido opcional, com as linhas de cada efeito minimizadas em cubos com '-'
+ * - Modo de caminhos viáveis opcional, com curto-circuito e '-' para condições não avaliadas
+ * - Condições atômicas e caminhos/effects extraídos em uma única visita pelo
+ *   {@link PathConditionCollector} (ou recebidos prontos do
+ *   {@link br.ufjf.capivara.analyzer.CauseEffectVisitor})
  */
 public class TruthTableGenerator {
 
-	private final ConditionExtractor conditionExtractor;
+	/**
+	 * Estratégia de avaliação das linhas da tabela.
+	 */
+	public enum EvaluationMode {
+		/** Avalia as condições compiladas uma linha por vez. */
+		ROW,
+		/** Avalia 64 linhas por vez, com cada condição atômica representada por uma palavra {@code long}. */
+		BIT_PARALLEL
+	}
 
-	public TruthTableGenerator() {
-		this.conditionExtractor = new ConditionExtractor();
+	/**
+	 * Forma da tabela gerada.
+	 */
+	public enum TableMode {
+		/** Enumera todas as 2^n combinações, uma linha por combinação. */
+		FULL,
+		/**
+		 * Constrói um BDD das condições de caminho e lista, para cada efeito, os cubos de
+		 * combinações que o produzem, com '-' para condições irrelevantes.
+		 */
+		SYMBOLIC,
+		/**
+		 * Lista um conjunto mínimo de casos que satisfaz o critério MC/DC (cerca de n+1
+		 * linhas), seguido do par de casos que mostra o efeito independente de cada
+		 * condição (ver {@link McdcTestSet}).
+		 */
+		MCDC,
+		/**
+		 * Lista um arranjo de cobertura: poucas combinações em que todos os valores de
+		 * quaisquer t condições aparecem juntos, com t dado por
+		 * {@link TruthTableGenerator#setCoveringStrength} (ver {@link CoveringArray}).
+		 */
+		COVERING,
+		/**
+		 * Agrupa as linhas por efeito e, para cada efeito, lista uma cobertura mínima de
+		 * cubos com '-' (ver {@link CubeMinimizer}). Ao contrário de {@link #SYMBOLIC},
+		 * os cubos podem se sobrepor, o que costuma reduzir bastante o número de linhas.
+		 */
+		COMPRESSED,
+		/**
+		 * Lista apenas os caminhos de decisão viáveis, avaliando as condições com
+		 * curto-circuito; as condições não avaliadas em um caminho ficam com '-' (ver
+		 * {@link DecisionPaths}).
+		 */
+		PATHS
 	}
 
-	public String generateTruthTable(CompilationUnit cu, MethodDeclaration method) {
-		try {
-			List<String> atomicConditions = conditionExtractor.extractAtomicConditions(method);
-			if (atomicConditions.isEmpty()) {
-				return "Nenhuma condição encontrada no método.\n";
-			}
+	/** Número de linhas de cada faixa de máscaras na geração paralela. */
+	public static final int PARALLEL_CHUNK_ROWS = 1 << 14;
 
-			List<PathCondition> pathConditions = extractPathConditions(method);
-			if (pathConditions.isEmpty()) {
-				return "Nenhum caminho de execução com efeito encontrado.\n";
-			}
+	private static final String COMPRESSED_TOO_LARGE = "Erro: A tabela comprimida do método tem mais de "
+			+ CubeMinimizer.MAX_CUBES + " linhas por efeito.";
+	private static final String PATHS_TOO_LARGE = "Erro: O método tem mais de " + DecisionPaths.MAX_PATHS
+			+ " caminhos de decisão viáveis.";
 
-			return buildTruthTable(atomicConditions, pathConditions);
-		} catch (Exception e) {
-			return "Erro ao gerar tabela verdade: " + e.getMessage() + "\n";
-		}
+	private EvaluationMode evaluationMode = EvaluationMode.BIT_PARALLEL;
+	private TableMode tableMode = TableMode.FULL;
+	private int maxFullTableConditions = 20;
+	private int coveringStrength = 2;
+	private Executor executor;
+
+	public EvaluationMode getEvaluationMode() {
+		return evaluationMode;
 	}
 
-	private List<PathCondition> extractPathConditions(MethodDeclaration method) {
-		PathExtractionVisitor visitor = new PathExtractionVisitor();
-		method.accept(visitor);
-		return visitor.getPathConditions();
+	public void setEvaluationMode(EvaluationMode evaluationMode) {
+		this.evaluationMode = Objects.requireNonNull(evaluationMode);
 	}
 
-	private String buildTruthTable(List<String> atomicConditions, List<PathCondition> pathConditions) {
-		StringBuilder table = new StringBuilder();
+	public TableMode getTableMode() {
+		return tableMode;
+	}
 
-		int maxConditionWidth = Math.max(25, atomicConditions.stream().mapToInt(String::length).max().orElse(0));
-		int maxEffectWidth = Math.max(25, pathConditions.stream().mapToInt(p -> p.getEffect().length()).max().orElse(0));
+	public void setTableMode(TableMode tableMode) {
+		this.tableMode = Objects.requireNonNull(tableMode);
+	}
 
-		// Cabecalho
-		table.append("Caso");
-		for (String condition : atomicConditions) {
-			table.append(" | ").append(
-					String.format("%-" + maxConditionWidth + "s", truncateString(condition, maxConditionWidth)));
+	public int getMaxFullTableConditions() {
+		return maxFullTableConditions;
+	}
+
+	/**
+	 * Define o número máximo de condições aceito pelo modo {@link TableMode#FULL}.
+	 * Ao escrever para um arquivo com {@link #writeTruthTable}, a memória usada não
+	 * depende do tamanho da tabela e o limite pode ser elevado.
+	 *
+	 * @param maxFullTableConditions O limite, entre 1 e 62.
+	 */
+	public void setMaxFullTableConditions(int maxFullTableConditions) {
+		if (maxFullTableConditions < 1 || maxFullTableConditions > 62) {
+			throw new IllegalArgumentException("Limite de condições inválido: " + maxFullTableConditions);
 		}
-		table.append(" | ").append(String.format("%-" + maxEffectWidth + "s", "Resultado (Efeito)")).append("\n");
+		this.maxFullTableConditions = maxFullTableConditions;
+	}
 
-		int totalWidth = 4 + (atomicConditions.size() * (3 + maxConditionWidth)) + (3 + maxEffectWidth);
-		table.append("-".repeat(totalWidth)).append("\n");
+	public int getCoveringStrength() {
+		return coveringStrength;
+	}
 
-		int n = atomicConditions.size();
-		if (n > 20) { // limitamos o numero de condições por motivo de perfomace 2^n
-			return "Erro: O número de condições (" + n + ") é muito grande para gerar uma tabela verdade.\n";
+	/**
+	 * Define a força t do modo {@link TableMode#COVERING}: {@code 2} cobre todos os
+	 * pares de valores (pairwise), {@code 3} todos os trios, e assim por diante.
+	 *
+	 * @param coveringStrength A força, entre 1 e {@link CoveringArray#MAX_STRENGTH}.
+	 */
+	public void setCoveringStrength(int coveringStrength) {
+		if (coveringStrength < 1 || coveringStrength > CoveringArray.MAX_STRENGTH) {
+			throw new IllegalArgumentException("Força de cobertura inválida: " + coveringStrength);
 		}
-		int combinations = 1 << n;
+		this.coveringStrength = coveringStrength;
+	}
 
-		for (int mask = 0; mask < combinations; mask++) {
-			table.append(String.format("%-4d", (mask + 1)));
+	public Executor getExecutor() {
+		return executor;
+	}
 
-			boolean[] values = new boolean[n];
-			for (int j = 0; j < n; j++) {
-				values[j] = (mask & (1 << (n - 1 - j))) != 0;
-			}
+	/**
+	 * Define o executor usado para gerar as linhas da tabela completa em paralelo,
+	 * por exemplo {@link java.util.concurrent.ForkJoinPool#commonPool()}. As faixas de
+	 * máscaras são avaliadas de forma independente e remontadas na ordem original,
+	 * então a saída é idêntica à da geração sequencial.
+	 *
+	 * @param executor O executor, ou {@code null} para gerar as linhas na thread chamadora.
+	 */
+	public void setExecutor(Executor executor) {
+		this.executor = executor;
+	}
 
-			String effect = determineEffect(atomicConditions, values, pathConditions);
+	/**
+	 * Gera a tabela verdade de um método como uma única String.
+	 * <p>
+	 * É um atalho para {@link #writeTruthTable} com um {@link StringBuilder}; para
+	 * tabelas grandes prefira escrever diretamente em um {@link java.io.Writer}.
+	 *
+	 * @param cu     A unidade de compilação que contém o método.
+	 * @param method O método a ser analisado.
+	 * @return A tabela formatada, ou uma mensagem de erro.
+	 */
+	public String generateTruthTable(CompilationUnit cu, MethodDeclaration method) {
+		return generateTruthTable(cu, method, null);
+	}
 
-			// Colunas V/F
-			for (int j = 0; j < n; j++) {
-				String cell = values[j] ? "V" : "F";
-				table.append(" | ").append(String.format("%-" + maxConditionWidth + "s", cell));
-			}
+	/**
+	 * Gera a tabela verdade de um método como uma única String, reportando o
+	 * progresso e verificando cancelamento a cada faixa de linhas.
+	 *
+	 * @param cu      A unidade de compilação que contém o método.
+	 * @param method  O método a ser analisado.
+	 * @param monitor O monitor de progresso, ou {@code null}.
+	 * @return A tabela formatada, ou uma mensagem de erro.
+	 * @throws OperationCanceledException Se o monitor for cancelado.
+	 */
+	public String generateTruthTable(CompilationUnit cu, MethodDeclaration method, IProgressMonitor monitor) {
+		StringBuilder table = new StringBuilder();
+		try {
+			writeTruthTable(cu, method, table, monitor);
+			return table.toString();
+		} catch (OperationCanceledException e) {
+			throw e;
+		} catch (Exception e) {
+			return "Erro ao gerar tabela verdade: " + e.getMessage() + "\n";
+		}
+	}
 
-			table.append(" | ").append(String.format("%-" + maxEffectWidth + "s", truncateString(effect, maxEffectWidth)))
-					.append("\n");
+	/**
+	 * Escreve a tabela verdade de um método em um destino de texto, à medida que as
+	 * linhas são geradas.
+	 * <p>
+	 * As linhas são formatadas em blocos de {@link EffectSelector#BLOCK_SIZE} e
+	 * repassadas ao destino, então a memória usada é constante qualquer que seja o
+	 * número de linhas.
+	 *
+	 * @param cu     A unidade de compilação que contém o método.
+	 * @param method O método a ser analisado.
+	 * @param out    O destino da tabela (por exemplo, um {@link java.io.Writer}).
+	 * @throws IOException Se ocorrer um erro ao escrever no destino.
+	 */
+	public void writeTruthTable(CompilationUnit cu, MethodDeclaration method, Appendable out) throws IOException {
+		writeTruthTable(cu, method, out, null);
+	}
+
+	/**
+	 * Escreve a tabela verdade de um método em um destino de texto, reportando o
+	 * progresso ao monitor.
+	 *
+	 * @param cu      A unidade de compilação que contém o método.
+	 * @param method  O método a ser analisado.
+	 * @param out     O destino da tabela.
+	 * @param monitor O monitor de progresso, ou {@code null}.
+	 * @throws IOException                Se ocorrer um erro ao escrever no destino.
+	 * @throws OperationCanceledException Se o monitor for cancelado; o destino pode ter
+	 *                                    recebido apenas parte da tabela.
+	 */
+	public void writeTruthTable(CompilationUnit cu, MethodDeclaration method, Appendable out,
+			IProgressMonitor monitor) throws IOException {
+		SubMonitor progress = SubMonitor.convert(monitor, "Gerando tabela verdade", 10);
+		PathConditionCollector extracted = PathConditionCollector.collect(method, progress.split(2));
+		writeTruthTable(extracted.getAtomicConditions(), extracted.getPathConditions(), out, progress.split(8));
+	}
+
+	/**
+	 * Escreve a tabela verdade a partir das condições e caminhos já extraídos de um
+	 * método, por exemplo pelo {@link br.ufjf.capivara.analyzer.CauseEffectVisitor},
+	 * sem visitar a AST de novo.
+	 *
+	 * @param atomicConditions As condições atômicas, na ordem das colunas.
+	 * @param pathConditions   Os caminhos compilados sobre os índices das condições.
+	 * @param out              O destino da tabela.
+	 * @param monitor          O monitor de progresso, ou {@code null}.
+	 * @throws IOException                Se ocorrer um erro ao escrever no destino.
+	 * @throws OperationCanceledException Se o monitor for cancelado; o destino pode ter
+	 *                                    recebido apenas parte da tabela.
+	 */
+	public void writeTruthTable(List<String> atomicConditions, List<PathCondition> pathConditions, Appendable out,
+			IProgressMonitor monitor) throws IOException {
+		SubMonitor progress = SubMonitor.convert(monitor, "Gerando tabela verdade", 8);
+		if (atomicConditions.isEmpty()) {
+			out.append("Nenhuma condição encontrada no método.\n");
+			return;
+		}
+		if (pathConditions.isEmpty()) {
+			out.append("Nenhum caminho de execução com efeito encontrado.\n");
+			return;
 		}
 
-		return table.toString();
+		if (tableMode == TableMode.SYMBOLIC) {
+			writeSymbolicTable(atomicConditions, pathConditions, out, progress.split(8));
+		} else if (tableMode == TableMode.MCDC) {
+			writeMcdcTable(atomicConditions, pathConditions, out, progress.split(8));
+		} else if (tableMode == TableMode.COVERING) {
+			writeCoveringTable(atomicConditions, pathConditions, out, progress.split(8));
+		} else if (tableMode == TableMode.COMPRESSED) {
+			writeCompressedTable(atomicConditions, pathConditions, out, progress.split(8));
+		} else if (tableMode == TableMode.PATHS) {
+			writePathsTable(atomicConditions, pathConditions, out, progress.split(8));
+		} else {
+			writeFullTable(atomicConditions, pathConditions, out, progress.split(8));
+		}
 	}
 
-	private String determineEffect(List<String> atomicConditions, boolean[] values,
-			List<PathCondition> pathConditions) {
-		Map<String, Boolean> conditionValues = new LinkedHashMap<>();
-		for (int i = 0; i < atomicConditions.size(); i++) {
-			conditionValues.put(atomicConditions.get(i), values[i]);
+	/**
+	 * Prepara o acesso linha a linha à tabela verdade de um método, sem formatá-la.
+	 * <p>
+	 * No modo {@link TableMode#FULL} nenhuma linha é gerada antecipadamente: cada
+	 * chamada a {@link TruthTableRows#getRow(long)} avalia a linha pedida. No modo
+	 * {@link TableMode#SYMBOLIC} os cubos são calculados aqui, pois seu número é
+	 * proporcional aos comportamentos distintos do método.
+	 *
+	 * @param cu      A unidade de compilação que contém o método.
+	 * @param method  O método a ser analisado.
+	 * @param monitor O monitor de progresso, ou {@code null}.
+	 * @return As linhas da tabela, ou uma tabela vazia com a mensagem de erro.
+	 * @throws OperationCanceledException Se o monitor for cancelado.
+	 */
+	public TruthTableRows createRows(CompilationUnit cu, MethodDeclaration method, IProgressMonitor monitor) {
+		SubMonitor progress = SubMonitor.convert(monitor, "Gerando tabela verdade", 10);
+		try {
+			PathConditionCollector extracted = PathConditionCollector.collect(method, progress.split(2));
+			return createRows(extracted.getAtomicConditions(), extracted.getPathConditions(), progress.split(8));
+		} catch (OperationCanceledException e) {
+			throw e;
+		} catch (Exception e) {
+			return TruthTableRows.message("Erro ao gerar tabela verdade: " + e.getMessage());
 		}
+	}
 
-		for (PathCondition pc : pathConditions) {
-			if (!pc.isDefaultPath() && evaluatePathCondition(pc, conditionValues)) {
-				return pc.getEffect();
+	/**
+	 * Prepara o acesso linha a linha à tabela verdade a partir das condições já
+	 * extraídas de um método, sem consultar a AST. É usado para reconstruir tabelas
+	 * guardadas no cache persistente.
+	 *
+	 * @param atomicConditions As condições atômicas, na ordem das colunas.
+	 * @param pathConditions   Os caminhos compilados sobre os índices das condições.
+	 * @param monitor          O monitor de progresso, ou {@code null}.
+	 * @return As linhas da tabela, ou uma tabela vazia com a mensagem de erro.
+	 * @throws OperationCanceledException Se o monitor for cancelado.
+	 */
+	public TruthTableRows createRows(List<String> atomicConditions, List<PathCondition> pathConditions,
+			IProgressMonitor monitor) {
+		SubMonitor progress = SubMonitor.convert(monitor, "Gerando tabela verdade", 8);
+		try {
+			if (atomicConditions.isEmpty()) {
+				return TruthTableRows.message("Nenhuma condição encontrada no método.");
+			}
+			if (pathConditions.isEmpty()) {
+				return TruthTableRows.message("Nenhum caminho de execução com efeito encontrado.");
+			}
+
+			int n = atomicConditions.size();
+			if (tableMode == TableMode.SYMBOLIC) {
+				SubMonitor cubeProgress = progress.split(8);
+				BinaryDecisionDiagram bdd = new BinaryDecisionDiagram(n);
+				CubeTableRows rows = new CubeTableRows(atomicConditions);
+				for (Map.Entry<String, Integer> entry : buildEffectFunctions(bdd, pathConditions, cubeProgress).entrySet()) {
+					cubeProgress.checkCanceled();
+					bdd.forEachCube(entry.getValue(), cube -> {
+						rows.cubes.add(cube.clone());
+						rows.effects.add(entry.getKey());
+					});
+				}
+				return rows;
+			}
+			if (tableMode == TableMode.MCDC) {
+				McdcTestSet testSet = buildMcdcTestSet(atomicConditions, pathConditions, progress.split(8));
+				CubeTableRows rows = new CubeTableRows(atomicConditions);
+				rows.cubes.addAll(testSet.getRows());
+				rows.effects.addAll(testSet.getEffects());
+				return rows;
+			}
+			if (tableMode == TableMode.COVERING) {
+				List<byte[]> cover = CoveringArray.generate(n, coveringStrength, progress.split(7));
+				if (cover == null) {
+					return TruthTableRows.message(coveringTooLarge(n));
+				}
+				CubeTableRows rows = new CubeTableRows(atomicConditions);
+				rows.cubes.addAll(cover);
+				rows.effects.addAll(selectEffects(rows.cubes, n, pathConditions, progress.split(1)));
+				return rows;
+			}
+			if (tableMode == TableMode.COMPRESSED) {
+				CubeTableRows rows = buildCompressedRows(atomicConditions, pathConditions, progress.split(8));
+				return rows != null ? rows : TruthTableRows.message(COMPRESSED_TOO_LARGE);
+			}
+			if (tableMode == TableMode.PATHS) {
+				DecisionPaths paths = DecisionPaths.enumerate(n, pathConditions, progress.split(8));
+				if (paths == null) {
+					return TruthTableRows.message(PATHS_TOO_LARGE);
+				}
+				CubeTableRows rows = new CubeTableRows(atomicConditions);
+				rows.cubes.addAll(paths.getRows());
+				rows.effects.addAll(paths.getEffects());
+				return rows;
+			}
+			if (n > maxFullTableConditions) {
+				return TruthTableRows.message(
+						"Erro: O número de condições (" + n + ") é muito grande para gerar uma tabela verdade.");
 			}
+			return new FullTableRows(atomicConditions, new EffectSelector(n, pathConditions));
+		} catch (OperationCanceledException e) {
+			throw e;
+		} catch (Exception e) {
+			return TruthTableRows.message("Erro ao gerar tabela verdade: " + e.getMessage());
 		}
+	}
 
-		for (PathCondition pc : pathConditions) {
-			if (pc.isDefaultPath())
-				return pc.getEffect();
+	/**
+	 * Extrai os caminhos de execução de um método, com suas condições compiladas sobre
+	 * os índices das condições atômicas dadas.
+	 * <p>
+	 * A extração é feita pelo {@link PathConditionCollector}, que numera as condições na
+	 * ordem do código; quando as condições dadas estão em outra ordem, os programas são
+	 * renumerados, e um caminho com uma condição fora da lista fica sempre falso.
+	 *
+	 * @param method           O método a ser analisado.
+	 * @param atomicConditions As condições atômicas do método, na ordem das colunas.
+	 * @param monitor          O monitor de progresso, ou {@code null}.
+	 * @return Os caminhos, na ordem em que aparecem no método.
+	 * @throws OperationCanceledException Se o monitor for cancelado.
+	 */
+	public List<PathCondition> extractPathConditions(MethodDeclaration method, List<String> atomicConditions,
+			IProgressMonitor monitor) {
+		PathConditionCollector extracted = PathConditionCollector.collect(method, monitor);
+		if (extracted.getAtomicConditions().equals(atomicConditions)) {
+			return extracted.getPathConditions();
+		}
+		Map<String, Integer> atomIndex = new HashMap<>();
+		for (int i = 0; i < atomicConditions.size(); i++) {
+			atomIndex.putIfAbsent(atomicConditions.get(i), i);
 		}
+		int[] columns = new int[extracted.getAtomicConditions().size()];
+		for (int i = 0; i < columns.length; i++) {
+			columns[i] = atomIndex.getOrDefault(extracted.getAtomicConditions().get(i), -1);
+		}
+		List<PathCondition> paths = new ArrayList<>();
+		for (PathCondition path : extracted.getPathConditions()) {
+			paths.add(new PathCondition(path.getCondition(), path.getEffect(), renumber(path.getProgram(), columns)));
+		}
+		return paths;
+	}
 
-		return "";
+	private static ConditionProgram renumber(ConditionProgram program, int[] columns) {
+		ConditionProgram.Builder builder = ConditionProgram.builder();
+		for (int i = 0; i < program.length(); i++) {
+			int op = program.opAt(i);
+			if (op < 0) {
+				switch (op) {
+				case ConditionProgram.OP_NOT:
+					builder.not();
+					break;
+				case ConditionProgram.OP_AND:
+					builder.and();
+					break;
+				case ConditionProgram.OP_OR:
+					builder.or();
+					break;
+				default:
+					builder.constant(op == ConditionProgram.OP_TRUE);
+				}
+			} else if (columns[op] < 0) {
+				return ConditionProgram.FALSE;
+			} else {
+				builder.atom(columns[op]);
+			}
+		}
+		return builder.build();
 	}
 
-	private boolean evaluatePathCondition(PathCondition pc, Map<String, Boolean> conditionValues) {
-		String condition = pc.getCondition();
-		if (condition == null || condition.trim().isEmpty() || condition.equals("default")) {
-			return true;
+	private void writeFullTable(List<String> atomicConditions, List<PathCondition> pathConditions, Appendable out,
+			SubMonitor progress) throws IOException {
+		int n = atomicConditions.size();
+		if (n > maxFullTableConditions) { // limitamos o numero de condições por motivo de perfomace 2^n
+			out.append("Erro: O número de condições (" + n + ") é muito grande para gerar uma tabela verdade.\n");
+			return;
+		}
+
+		TableLayout layout = new TableLayout(atomicConditions, pathConditions);
+		StringBuilder buffer = new StringBuilder();
+		layout.appendHeader(buffer, atomicConditions);
+		out.append(buffer);
+		buffer.setLength(0);
+
+		long combinations = 1L << n;
+		EffectSelector selector = new EffectSelector(n, pathConditions);
+		String[] effectCells = new String[selector.getDefaultEffectIndex() + 1];
+		for (int i = 0; i < effectCells.length; i++) {
+			effectCells[i] = layout.effectCell(selector.getEffect(i));
 		}
+
+		long chunks = (combinations + PARALLEL_CHUNK_ROWS - 1) / PARALLEL_CHUNK_ROWS;
+		progress.setWorkRemaining((int) Math.min(Integer.MAX_VALUE, chunks));
+		if (executor != null && combinations > PARALLEL_CHUNK_ROWS) {
+			writeRowsInParallel(combinations, () -> new RowWriter(layout, selector, effectCells), out, progress);
+			return;
+		}
+
+		RowWriter rows = new RowWriter(layout, selector, effectCells);
+		for (long block = 0; block < combinations; block += EffectSelector.BLOCK_SIZE) {
+			if (block % PARALLEL_CHUNK_ROWS == 0) {
+				progress.split(1);
+			}
+			rows.appendRows(buffer, block, Math.min(block + EffectSelector.BLOCK_SIZE, combinations));
+			out.append(buffer);
+			buffer.setLength(0);
+		}
+	}
+
+	/**
+	 * Divide o espaço de máscaras em faixas de {@link #PARALLEL_CHUNK_ROWS} linhas,
+	 * formatadas de forma independente no {@link Executor} configurado, e escreve os
+	 * resultados na ordem das máscaras. No máximo {@code 2 * processadores} faixas
+	 * ficam pendentes ao mesmo tempo, o que limita a memória usada.
+	 */
+	private void writeRowsInParallel(long combinations, Supplier<RowWriter> rowWriters, Appendable out,
+			SubMonitor progress) throws IOException {
+		int maxPending = 2 * Runtime.getRuntime().availableProcessors();
+		Deque<CompletableFuture<CharSequence>> pending = new ArrayDeque<>();
 		try {
-			return evaluateConditionExpression(condition, conditionValues);
-		} catch (Exception e) {
-			System.err.println("Erro ao avaliar condição: " + condition + " - " + e.getMessage());
-			return false;
+			for (long from = 0; from < combinations; from += PARALLEL_CHUNK_ROWS) {
+				long start = from;
+				long end = Math.min(from + PARALLEL_CHUNK_ROWS, combinations);
+				pending.addLast(CompletableFuture.supplyAsync(() -> {
+					StringBuilder chunk = new StringBuilder();
+					rowWriters.get().appendRows(chunk, start, end);
+					return chunk;
+				}, executor));
+				if (pending.size() >= maxPending) {
+					out.append(pending.removeFirst().join());
+					progress.split(1);
+				}
+			}
+			while (!pending.isEmpty()) {
+				out.append(pending.removeFirst().join());
+				progress.split(1);
+			}
+		} catch (CompletionException e) {
+			throw e.getCause() instanceof RuntimeException ? (RuntimeException) e.getCause() : e;
+		} finally {
+			pending.forEach(future -> future.cancel(false));
 		}
 	}
 
-	private boolean evaluateConditionExpression(String expression, Map<String, Boolean> conditionValues) {
-		String evaluated = expression;
+	/**
+	 * Formata faixas de linhas da tabela completa. Cada instância tem suas próprias
+	 * áreas de trabalho e deve ser usada por uma única thread; o layout e o seletor
+	 * são compartilhados.
+	 */
+	private final class RowWriter {
+		private final TableLayout layout;
+		private final EffectSelector selector;
+		private final String[] effectCells;
+		private final EffectSelector.BlockEvaluator evaluator;
+		private final int[] effects = new int[EffectSelector.BLOCK_SIZE];
+
+		RowWriter(TableLayout layout, EffectSelector selector, String[] effectCells) {
+			this.layout = layout;
+			this.selector = selector;
+			this.effectCells = effectCells;
+			this.evaluator = selector.newBlockEvaluator();
+		}
 
-		for (Map.Entry<String, Boolean> e : conditionValues.entrySet()) {
-			evaluated = evaluated.replaceAll(Pattern.quote(e.getKey()), e.getValue() ? "T" : "F");
+		/**
+		 * Anexa as linhas {@code from .. to - 1}; {@code from} deve ser múltiplo de
+		 * {@link EffectSelector#BLOCK_SIZE}.
+		 */
+		void appendRows(StringBuilder buffer, long from, long to) {
+			int n = selector.getWidth();
+			if (evaluationMode == EvaluationMode.BIT_PARALLEL) {
+				for (long block = from; block < to; block += EffectSelector.BLOCK_SIZE) {
+					int count = (int) Math.min(EffectSelector.BLOCK_SIZE, to - block);
+					evaluator.evaluate(block, count, effects);
+					for (int r = 0; r < count; r++) {
+						layout.appendRow(buffer, block + r, n, effectCells[effects[r]]);
+					}
+				}
+			} else {
+				for (long mask = from; mask < to; mask++) {
+					layout.appendRow(buffer, mask, n, effectCells[selector.select(mask)]);
+				}
+			}
 		}
+	}
+
+	/**
+	 * Gera a tabela simbólica: cada condição de caminho vira uma função no BDD, a
+	 * semântica de "primeiro caminho satisfeito" é aplicada subtraindo os caminhos
+	 * anteriores e as funções de caminhos com o mesmo efeito são unidas. Cada cubo do
+	 * BDD resultante vira uma linha, então o tamanho da saída acompanha o número de
+	 * comportamentos distintos e não 2^n.
+	 */
+	private void writeSymbolicTable(List<String> atomicConditions, List<PathCondition> pathConditions, Appendable out,
+			SubMonitor progress) throws IOException {
+		BinaryDecisionDiagram bdd = new BinaryDecisionDiagram(atomicConditions.size());
+		Map<String, Integer> effectFunctions = buildEffectFunctions(bdd, pathConditions, progress);
 
-		evaluated = evaluated.replaceAll("\\s+", "");
+		TableLayout layout = new TableLayout(atomicConditions, pathConditions);
+		StringBuilder buffer = new StringBuilder();
+		layout.appendHeader(buffer, atomicConditions);
+		out.append(buffer);
 
-		List<String> tokens = tokenizeBooleanExpr(evaluated);
-		return new TokenParser(tokens).parse();
+		long[] caseNumber = { 0 };
+		try {
+			for (Map.Entry<String, Integer> entry : effectFunctions.entrySet()) {
+				String effectCell = layout.effectCell(entry.getKey());
+				progress.checkCanceled();
+				bdd.forEachCube(entry.getValue(), cube -> {
+					buffer.setLength(0);
+					layout.appendCubeRow(buffer, ++caseNumber[0], cube, effectCell);
+					try {
+						out.append(buffer);
+					} catch (IOException e) {
+						throw new UncheckedIOException(e);
+					}
+				});
+			}
+		} catch (UncheckedIOException e) {
+			throw e.getCause();
+		}
 	}
 
-	private List<String> tokenizeBooleanExpr(String s) {
-		List<String> tokens = new ArrayList<>();
-		int i = 0;
-		while (i < s.length()) {
-			if (i + 1 < s.length() && s.charAt(i) == '&' && s.charAt(i + 1) == '&') {
-				tokens.add("&&");
-				i += 2;
-			} else if (i + 1 < s.length() && s.charAt(i) == '|' && s.charAt(i + 1) == '|') {
-				tokens.add("||");
-				i += 2;
+	/**
+	 * Gera a tabela MC/DC: os casos escolhidos pelo {@link McdcTestSet} e, depois da
+	 * tabela, o par de casos de cada condição.
+	 */
+	private void writeMcdcTable(List<String> atomicConditions, List<PathCondition> pathConditions, Appendable out,
+			SubMonitor progress) throws IOException {
+		McdcTestSet testSet = buildMcdcTestSet(atomicConditions, pathConditions, progress);
+
+		TableLayout layout = new TableLayout(atomicConditions, pathConditions);
+		StringBuilder buffer = new StringBuilder();
+		layout.appendHeader(buffer, atomicConditions);
+		for (int row = 0; row < testSet.getRows().size(); row++) {
+			layout.appendCubeRow(buffer, row + 1, testSet.getRows().get(row),
+					layout.effectCell(testSet.getEffects().get(row)));
+		}
+
+		buffer.append("\nPares MC/DC:\n");
+		for (int i = 0; i < atomicConditions.size(); i++) {
+			int[] pair = testSet.getPair(i);
+			buffer.append(atomicConditions.get(i)).append(": ");
+			if (pair == null) {
+				buffer.append("sem efeito independente no resultado\n");
 			} else {
-				char c = s.charAt(i);
-				if (c == '!' || c == '(' || c == ')') {
-					tokens.add(String.valueOf(c));
-					i++;
-				} else if (c == 'T' || c == 'F') {
-					tokens.add(String.valueOf(c));
-					i++;
-				} else {
-					throw new IllegalArgumentException("Caractere inválido: " + s.substring(i));
-				}
+				buffer.append("casos ").append(pair[0] + 1).append(" e ").append(pair[1] + 1).append('\n');
 			}
 		}
-		return tokens;
+		out.append(buffer);
+	}
+
+	/**
+	 * Gera a tabela de cobertura t a t: as linhas do {@link CoveringArray}, cada uma
+	 * com seu efeito.
+	 */
+	private void writeCoveringTable(List<String> atomicConditions, List<PathCondition> pathConditions,
+			Appendable out, SubMonitor progress) throws IOException {
+		progress.setWorkRemaining(8);
+		int n = atomicConditions.size();
+		List<byte[]> rows = CoveringArray.generate(n, coveringStrength, progress.split(7));
+		if (rows == null) {
+			out.append(coveringTooLarge(n)).append('\n');
+			return;
+		}
+		List<String> effects = selectEffects(rows, n, pathConditions, progress.split(1));
+
+		TableLayout layout = new TableLayout(atomicConditions, pathConditions);
+		StringBuilder buffer = new StringBuilder();
+		layout.appendHeader(buffer, atomicConditions);
+		for (int row = 0; row < rows.size(); row++) {
+			layout.appendCubeRow(buffer, row + 1, rows.get(row), layout.effectCell(effects.get(row)));
+		}
+		out.append(buffer);
 	}
 
-	private static class TokenParser {
-		private final List<String> tokens;
-		private int pos = 0;
+	private String coveringTooLarge(int n) {
+		return "Erro: O arranjo de cobertura de força " + coveringStrength + " para " + n
+				+  " condições passa de " + CoveringArray.MAX_COMBINATIONS + " combinações; use uma força menor.";
+	}
 
-		TokenParser(List<String> tokens) {
-			this.tokens = tokens;
+	/**
+	 * Gera a tabela comprimida: as linhas de cada efeito minimizadas pelo
+	 * {@link CubeMinimizer}, agrupadas por efeito.
+	 */
+	private void writeCompressedTable(List<String> atomicConditions, List<PathCondition> pathConditions,
+			Appendable out, SubMonitor progress) throws IOException {
+		CubeTableRows rows = buildCompressedRows(atomicConditions, pathConditions, progress);
+		if (rows == null) {
+			out.append(COMPRESSED_TOO_LARGE).append('\n');
+			return;
 		}
 
-		boolean parse() {
-			boolean v = parseOr();
-			if (pos != tokens.size()) {
-				String rest = String.join("", tokens.subList(pos, tokens.size()));
-				throw new IllegalArgumentException("Expressão inválida em: " + rest);
-			}
-			return v;
+		TableLayout layout = new TableLayout(atomicConditions, pathConditions);
+		StringBuilder buffer = new StringBuilder();
+		layout.appendHeader(buffer, atomicConditions);
+		for (int row = 0; row < rows.cubes.size(); row++) {
+			layout.appendCubeRow(buffer, row + 1, rows.cubes.get(row), layout.effectCell(rows.effects.get(row)));
 		}
+		out.append(buffer);
+	}
 
-		private boolean parseOr() {
-			boolean v = parseAnd();
-			while (pos < tokens.size() && tokens.get(pos).equals("||")) {
-				pos++;
-				boolean r = parseAnd();
-				v = v || r;
-			}
-			return v;
+	/**
+	 * Gera a tabela de caminhos viáveis: uma linha por caminho de decisão do
+	 * {@link DecisionPaths}, com '-' nas condições que o caminho não avalia.
+	 */
+	private void writePathsTable(List<String> atomicConditions, List<PathCondition> pathConditions, Appendable out,
+			SubMonitor progress) throws IOException {
+		DecisionPaths paths = DecisionPaths.enumerate(atomicConditions.size(), pathConditions, progress);
+		if (paths == null) {
+			out.append(PATHS_TOO_LARGE).append('\n');
+			return;
 		}
 
-		private boolean parseAnd() {
-			boolean v = parseNot();
-			while (pos < tokens.size() && tokens.get(pos).equals("&&")) {
-				pos++;
-				boolean r = parseNot();
-				v = v && r;
-			}
-			return v;
+		TableLayout layout = new TableLayout(atomicConditions, pathConditions);
+		StringBuilder buffer = new StringBuilder();
+		layout.appendHeader(buffer, atomicConditions);
+		for (int row = 0; row < paths.getRows().size(); row++) {
+			layout.appendCubeRow(buffer, row + 1, paths.getRows().get(row),
+					layout.effectCell(paths.getEffects().get(row)));
 		}
+		out.append(buffer);
+	}
 
-		private boolean parseNot() {
-			int neg = 0;
-			while (pos < tokens.size() && tokens.get(pos).equals("!")) {
-				neg++;
-				pos++;
+	/**
+	 * Minimiza a função de cada efeito do BDD, na ordem em que os efeitos aparecem no
+	 * código.
+	 *
+	 * @return As linhas, ou {@code null} se alguma cobertura passar de
+	 *         {@link CubeMinimizer#MAX_CUBES} cubos.
+	 */
+	private CubeTableRows buildCompressedRows(List<String> atomicConditions, List<PathCondition> pathConditions,
+			SubMonitor progress) {
+		progress.setWorkRemaining(2);
+		BinaryDecisionDiagram bdd = new BinaryDecisionDiagram(atomicConditions.size());
+		Map<String, Integer> effectFunctions = buildEffectFunctions(bdd, pathConditions, progress.split(1));
+		SubMonitor minimizeProgress = progress.split(1).setWorkRemaining(effectFunctions.size());
+		CubeTableRows rows = new CubeTableRows(atomicConditions);
+		for (Map.Entry<String, Integer> entry : effectFunctions.entrySet()) {
+			List<byte[]> cubes = CubeMinimizer.minimize(bdd, entry.getValue(), minimizeProgress.split(1));
+			if (cubes == null) {
+				return null;
 			}
-			boolean v = parsePrimary();
-			return (neg % 2 == 0) ? v : !v;
-		}
-
-		private boolean parsePrimary() {
-			if (pos >= tokens.size())
-				throw new IllegalArgumentException("Fim inesperado");
-			String tk = tokens.get(pos);
-			if (tk.equals("(")) {
-				pos++;
-				boolean v = parseOr();
-				expect(")");
-				return v;
+			for (byte[] cube : cubes) {
+				rows.cubes.add(cube);
+				rows.effects.add(entry.getKey());
 			}
-			if (tk.equals("T")) {
-				pos++;
-				return true;
+		}
+		return rows;
+	}
+
+	/**
+	 * Seleciona o efeito de linhas arbitrárias, 64 por vez, com as colunas montadas a
+	 * partir das linhas; funciona com qualquer número de condições.
+	 */
+	private static List<String> selectEffects(List<byte[]> rows, int n, List<PathCondition> pathConditions,
+			SubMonitor progress) {
+		EffectSelector selector = new EffectSelector(n, pathConditions);
+		EffectSelector.BlockEvaluator evaluator = selector.newBlockEvaluator();
+		long[] columns = new long[n];
+		int[] selected = new int[EffectSelector.BLOCK_SIZE];
+		List<String> effects = new ArrayList<>(rows.size());
+		for (int first = 0; first < rows.size(); first += EffectSelector.BLOCK_SIZE) {
+			progress.checkCanceled();
+			int count = Math.min(EffectSelector.BLOCK_SIZE, rows.size() - first);
+			Arrays.fill(columns, 0L);
+			for (int r = 0; r < count; r++) {
+				byte[] row = rows.get(first + r);
+				for (int j = 0; j < n; j++) {
+					columns[j] |= (long) row[j] << r;
+				}
 			}
-			if (tk.equals("F")) {
-				pos++;
-				return false;
+			evaluator.evaluateColumns(columns, count, selected);
+			for (int r = 0; r < count; r++) {
+				effects.add(selector.getEffect(selected[r]));
 			}
-			throw new IllegalArgumentException("Token inválido em: " + String.join("", tokens.subList(pos, tokens.size())));
 		}
+		return effects;
+	}
+
+	private McdcTestSet buildMcdcTestSet(List<String> atomicConditions, List<PathCondition> pathConditions,
+			SubMonitor progress) {
+		progress.setWorkRemaining(2);
+		BinaryDecisionDiagram bdd = new BinaryDecisionDiagram(atomicConditions.size());
+		Map<String, Integer> effectFunctions = buildEffectFunctions(bdd, pathConditions, progress.split(1));
+		return McdcTestSet.generate(bdd, effectFunctions, progress.split(1));
+	}
 
-		private void expect(String tok) {
-			if (pos >= tokens.size() || !tokens.get(pos).equals(tok)) {
-				String rest = (pos < tokens.size()) ? String.join("", tokens.subList(pos, tokens.size())) : "";
-				throw new IllegalArgumentException("Esperado '" + tok + "' em: " + rest);
+	/**
+	 * Constrói, para cada efeito distinto, a função do BDD que o seleciona, na ordem
+	 * em que os efeitos aparecem no código; o efeito padrão fica por último.
+	 */
+	private Map<String, Integer> buildEffectFunctions(BinaryDecisionDiagram bdd, List<PathCondition> pathConditions,
+			SubMonitor progress) {
+		Map<String, Integer> effectFunctions = new LinkedHashMap<>();
+		String defaultEffect = null;
+		int covered = BinaryDecisionDiagram.FALSE;
+
+		for (PathCondition pc : pathConditions) {
+			if (pc.isDefaultPath()) {
+				if (defaultEffect == null) {
+					defaultEffect = pc.getEffect();
+				}
+				continue;
 			}
-			pos++;
+			progress.checkCanceled();
+			ConditionProgram program = pc.getProgram() != null ? pc.getProgram() : ConditionProgram.FALSE;
+			int path = bdd.build(program);
+			int selected = bdd.and(path, bdd.not(covered));
+			covered = bdd.or(covered, path);
+			effectFunctions.merge(pc.getEffect(), selected, bdd::or);
 		}
+		effectFunctions.merge(defaultEffect != null ? defaultEffect : "", bdd.not(covered), bdd::or);
+		return effectFunctions;
 	}
 
-	private String truncateString(String text, int maxWidth) {
-		if (text == null)
-			return "";
-		return text.length() > maxWidth ? text.substring(0, maxWidth - 3) + "..." : text;
+	/**
+	 * Linhas da tabela completa, avaliadas sob demanda a partir da máscara da linha.
+	 */
+	private static final class FullTableRows implements TruthTableRows {
+		private final List<String> conditions;
+		private final EffectSelector selector;
+
+		FullTableRows(List<String> conditions, EffectSelector selector) {
+			this.conditions = List.copyOf(conditions);
+			this.selector = selector;
+		}
+
+		@Override
+		public List<String> getConditions() {
+			return conditions;
+		}
+
+		@Override
+		public long getRowCount() {
+			return 1L << selector.getWidth();
+		}
+
+		@Override
+		public String[] getRow(long index) {
+			int n = selector.getWidth();
+			String[] cells = new String[n + 2];
+			cells[0] = Long.toString(index + 1);
+			for (int j = 0; j < n; j++) {
+				cells[j + 1] = (index & (1L << (n - 1 - j))) != 0 ? "V" : "F";
+			}
+			cells[n + 1] = selector.getEffect(selector.select(index));
+			return cells;
+		}
+
+		@Override
+		public String getMessage() {
+			return null;
+		}
 	}
 
 	/**
-	 * Visitor que extrai caminhos de execução (retornos / atribuições) e suas
-	 * condições acumuladas.
-	 * 
-	 * Corrigido para: remover "return" e limpar aspas/literais.
+	 * Linhas da tabela simbólica: os cubos do BDD, guardados de forma compacta, um
+	 * por linha.
 	 */
-	private static class PathExtractionVisitor extends ASTVisitor {
-		private final List<PathCondition> pathConditions = new ArrayList<>();
-		private final Deque<String> conditionStack = new ArrayDeque<>();
+	private static final class CubeTableRows implements TruthTableRows {
+		private final List<String> conditions;
+		private final List<byte[]> cubes = new ArrayList<>();
+		private final List<String> effects = new ArrayList<>();
 
-		public List<PathCondition> getPathConditions() {
-			return pathConditions;
+		CubeTableRows(List<String> conditions) {
+			this.conditions = List.copyOf(conditions);
 		}
 
 		@Override
-		public boolean visit(IfStatement node) {
-			String cond = node.getExpression().toString();
+		public List<String> getConditions() {
+			return conditions;
+		}
 
-			conditionStack.addLast("(" + cond + ")");
-			node.getThenStatement().accept(this);
-			conditionStack.removeLast();
+		@Override
+		public long getRowCount() {
+			return cubes.size();
+		}
 
-			if (node.getElseStatement() != null) {
-				conditionStack.addLast("!(" + "(" + cond + ")" + ")");
-				node.getElseStatement().accept(this);
-				conditionStack.removeLast();
+		@Override
+		public String[] getRow(long index) {
+			byte[] cube = cubes.get((int) index);
+			String[] cells = new String[cube.length + 2];
+			cells[0] = Long.toString(index + 1);
+			for (int j = 0; j < cube.length; j++) {
+				cells[j + 1] = cube[j] == BinaryDecisionDiagram.DONT_CARE ? "-" : cube[j] == 1 ? "V" : "F";
 			}
-			return false;
+			cells[cube.length + 1] = effects.get((int) index);
+			return cells;
 		}
 
 		@Override
-		public boolean visit(ReturnStatement node) {
-			String effect;
-			Expression expr = node.getExpression();
-
-			if (expr == null) {
-				effect = "void";
-			} else if (expr instanceof StringLiteral) {
-				effect = ((StringLiteral) expr).getLiteralValue();
-			} else if (expr instanceof CharacterLiteral) {
-				effect = ((CharacterLiteral) expr).getEscapedValue().replace("'", "");
-			} else if (expr instanceof NumberLiteral) {
-				effect = ((NumberLiteral) expr).getToken();
-			} else if (expr instanceof BooleanLiteral) {
-				effect = String.valueOf(((BooleanLiteral) expr).booleanValue());
-			} else {
-				effect = expr.toString();
+		public String getMessage() {
+			return null;
+		}
+
+		@Override
+		public long getRetainedBytes() {
+			long bytes = TruthTableRows.super.getRetainedBytes();
+			for (byte[] cube : cubes) {
+				bytes += 24 + cube.length;
 			}
+			return bytes + 8L * effects.size();
+		}
+	}
 
-			pathConditions.add(new PathCondition(buildPathCondition(), effect));
-			return false;
+	/**
+	 * Larguras das colunas e células pré-formatadas da tabela, para que as linhas
+	 * sejam montadas sem {@link String#format}.
+	 */
+	private static final class TableLayout {
+		private final int conditionWidth;
+		private final int effectWidth;
+		private final String trueCell;
+		private final String falseCell;
+		private final String dontCareCell;
+
+		TableLayout(List<String> atomicConditions, List<PathCondition> pathConditions) {
+			this.conditionWidth = Math.max(25, atomicConditions.stream().mapToInt(String::length).max().orElse(0));
+			this.effectWidth = Math.max(25, pathConditions.stream().mapToInt(p -> p.getEffect().length()).max().orElse(0));
+			this.trueCell = cell("V", conditionWidth);
+			this.falseCell = cell("F", conditionWidth);
+			this.dontCareCell = cell("-", conditionWidth);
 		}
 
-		@Override
-		public boolean visit(ExpressionStatement node) {
-			if (node.getExpression() instanceof Assignment) {
-				Assignment a = (Assignment) node.getExpression();
-				String rhs;
-
-				if (a.getRightHandSide() instanceof StringLiteral) {
-					rhs = ((StringLiteral) a.getRightHandSide()).getLiteralValue();
-				} else if (a.getRightHandSide() instanceof CharacterLiteral) {
-					rhs = ((CharacterLiteral) a.getRightHandSide()).getEscapedValue().replace("'", "");
-				} else if (a.getRightHandSide() instanceof NumberLiteral) {
-					rhs = ((NumberLiteral) a.getRightHandSide()).getToken();
-				} else if (a.getRightHandSide() instanceof BooleanLiteral) {
-					rhs = String.valueOf(((BooleanLiteral) a.getRightHandSide()).booleanValue());
-				} else {
-					rhs = a.getRightHandSide().toString();
-				}
+		void appendHeader(StringBuilder table, List<String> atomicConditions) {
+			table.append("Caso");
+			for (String condition : atomicConditions) {
+				table.append(cell(truncateString(condition, conditionWidth), conditionWidth));
+			}
+			table.append(cell("Resultado (Efeito)", effectWidth)).append("\n");
+
+			int totalWidth = 4 + (atomicConditions.size() * (3 + conditionWidth)) + (3 + effectWidth);
+			table.append("-".repeat(totalWidth)).append("\n");
+		}
 
-				String effect = a.getLeftHandSide().toString() + " " + a.getOperator().toString() + " " + rhs;
-				pathConditions.add(new PathCondition(buildPathCondition(), effect));
+		String effectCell(String effect) {
+			return cell(truncateString(effect, effectWidth), effectWidth) + "\n";
+		}
+
+		void appendRow(StringBuilder table, long mask, int n, String effectCell) {
+			appendCaseNumber(table, mask + 1);
+			// Colunas V/F
+			for (int j = 0; j < n; j++) {
+				table.append((mask & (1L << (n - 1 - j))) != 0 ? trueCell : falseCell);
 			}
-			return false;
+			table.append(effectCell);
 		}
 
-		private String buildPathCondition() {
-			if (conditionStack.isEmpty())
-				return "default";
-			return conditionStack.stream().collect(Collectors.joining(" && "));
+		void appendCubeRow(StringBuilder table, long caseNumber, byte[] cube, String effectCell) {
+			appendCaseNumber(table, caseNumber);
+			for (byte value : cube) {
+				table.append(value == BinaryDecisionDiagram.DONT_CARE ? dontCareCell : value == 1 ? trueCell : falseCell);
+			}
+			table.append(effectCell);
 		}
+
+		private static void appendCaseNumber(StringBuilder table, long caseNumber) {
+			int start = table.length();
+			table.append(caseNumber);
+			for (int i = table.length() - start; i < 4; i++) {
+				table.append(' ');
+			}
+		}
+
+		private static String cell(String text, int width) {
+			StringBuilder cell = new StringBuilder(width + 3).append(" | ").append(text);
+			while (cell.length() < width + 3) {
+				cell.append(' ');
+			}
+			return cell.toString();
+		}
+	}
+
+	private static String truncateString(String text, int maxWidth) {
+		if (text == null)
+			return "";
+		return text.length() > maxWidth ? text.substring(0, maxWidth - 3) + "..." : text;
 	}
 }
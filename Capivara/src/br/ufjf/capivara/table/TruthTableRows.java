@@ -0,0 +1,91 @@
+package br.ufjf.capivara.table;
+
+import java.util.List;
+
+/**
+ * Acesso aleatório às linhas de uma tabela verdade, gerando cada linha somente
+ * quando ela é pedida.
+ * <p>
+ * É criado por {@link TruthTableGenerator#createRows} e usado pela
+ * {@link br.ufjf.capivara.views.AnalysisResultView}, que mostra a tabela em um
+ * {@code Table} virtual: apenas as linhas visíveis são materializadas, então o custo
+ * de exibir a tabela não depende do número total de linhas.
+ */
+public interface TruthTableRows {
+
+	/**
+	 * Obtém as condições atômicas, na ordem das colunas.
+	 *
+	 * @return Os cabeçalhos das colunas de condições.
+	 */
+	List<String> getConditions();
+
+	/**
+	 * Obtém o número de linhas da tabela.
+	 *
+	 * @return O número de linhas, ou {@code 0} se a tabela não pôde ser gerada.
+	 */
+	long getRowCount();
+
+	/**
+	 * Gera as células de uma linha: o número do caso, um valor por condição
+	 * ("V", "F" ou "-") e o efeito.
+	 *
+	 * @param index O índice da linha, a partir de zero.
+	 * @return As células da linha.
+	 */
+	String[] getRow(long index);
+
+	/**
+	 * Obtém a mensagem explicando por que a tabela não foi gerada.
+	 *
+	 * @return A mensagem, ou {@code null} se a tabela foi gerada.
+	 */
+	String getMessage();
+
+	/**
+	 * Estima a memória ocupada pela tabela, em bytes, para limitar o tamanho de caches.
+	 * A estimativa padrão considera apenas os cabeçalhos; implementações que guardam
+	 * linhas materializadas devem somá-las.
+	 *
+	 * @return A estimativa, em bytes.
+	 */
+	default long getRetainedBytes() {
+		long bytes = 64;
+		for (String condition : getConditions()) {
+			bytes += 48 + 2L * condition.length();
+		}
+		String message = getMessage();
+		return message != null ? bytes + 48 + 2L * message.length() : bytes;
+	}
+
+	/**
+	 * Cria uma tabela vazia que apenas carrega uma mensagem.
+	 *
+	 * @param message A mensagem a ser exibida no lugar da tabela.
+	 * @return Uma tabela sem linhas.
+	 */
+	static TruthTableRows message(String message) {
+		return new TruthTableRows() {
+			@Override
+			public List<String> getConditions() {
+				return List.of();
+			}
+
+			@Override
+			public long getRowCount() {
+				return 0;
+			}
+
+			@Override
+			public String[] getRow(long index) {
+				throw new IndexOutOfBoundsException("Tabela vazia: " + index);
+			}
+
+			@Override
+			public String getMessage() {
+				return message;
+			}
+		};
+	}
+}
@@ -1,5 +1,12 @@
 package br.ufjf.capivara.views;
 
+import java.io.IOException;
+import java.io.Writer;
+import java.nio.charset.StandardCharsets;
+import java.nio.file.Files;
+import java.nio.file.Paths;
+import java.util.List;
+
 import org.eclipse.swt.SWT;
 import org.eclipse.swt.custom.StyledText;
 import org.eclipse.swt.dnd.Clipboard;
@@ -14,27 +21,67 @@ import org.eclipse.swt.widgets.*;
 import org.eclipse.ui.part.ViewPart;
 import org.eclipse.jface.resource.JFaceResources;
 
+import br.ufjf.capivara.graph.GraphLayout;
+import br.ufjf.capivara.graph.SvgRenderer;
+import br.ufjf.capivara.model.MethodAnalysis;
+import br.ufjf.capivara.table.TruthTableRows;
+
 /**
  * View do Eclipse responsável por exibir os resultados da análise de código do plugin Capivara.
  * <p>
- * Apresenta a análise em três abas: o código-fonte anotado com os nós do grafo,
- * a tabela verdade de causa-efeito e o código-fonte do grafo no formato DOT.
- * Esta view é preenchida pelo {@link br.ufjf.capivara.handlers.AnalyzeCodeHandler}.
+ * Apresenta a análise em quatro abas: o código-fonte anotado com os nós do grafo,
+ * a tabela verdade de causa-efeito, o código-fonte do grafo no formato DOT e o
+ * desenho do grafo, feito pelo próprio plugin ({@link GraphLayout} e
+ * {@link GraphCanvas}), sem o Graphviz. O desenho só é calculado quando a aba de
+ * visualização é exibida, e pode ser gravado em SVG ou PNG.
+ * Quando o código analisado tem vários métodos, uma lista de seleção acima das abas
+ * escolhe o método exibido; trocar de método não refaz a análise.
+ * A tabela verdade é exibida em um {@link Table} virtual que pede a
+ * {@link TruthTableRows} apenas as linhas visíveis.
+ * Esta view é preenchida pelo {@link br.ufjf.capivara.handlers.AnalysisJob}.
  *
  * @see org.eclipse.ui.part.ViewPart
  */
 public class AnalysisResultView extends ViewPart {
 	public static final String ID = "br.ufjf.capivara.views.analysisResultView";
 
+	private Combo methodCombo;
+	private List<MethodAnalysis> methodResults = List.of();
 	private StyledText annotatedCodeText;
-	private Text truthTableText;
+	private Table truthTable;
+	private TruthTableRows truthTableRows;
 	private Text dotGraphText;
 	private Button copyDotButton;
 	private Label statusLabel;
+	private TabFolder tabFolder;
+	private TabItem previewTab;
+	private GraphCanvas graphCanvas;
+	private Button saveSvgButton;
+	private Button savePngButton;
+	private Label previewStatusLabel;
+	private MethodAnalysis shownMethod;
 
 	@Override
 	public void createPartControl(Composite parent) {
-		TabFolder tabFolder = new TabFolder(parent, SWT.NONE);
+		parent.setLayout(new GridLayout(1, false));
+
+		// Seleção do método exibido
+		Composite methodComposite = new Composite(parent, SWT.NONE);
+		methodComposite.setLayout(new GridLayout(2, false));
+		methodComposite.setLayoutData(new GridData(SWT.FILL, SWT.CENTER, true, false));
+		Label methodLabel = new Label(methodComposite, SWT.NONE);
+		methodLabel.setText("Método:");
+		methodCombo = new Combo(methodComposite, SWT.READ_ONLY | SWT.DROP_DOWN);
+		methodCombo.setLayoutData(new GridData(SWT.FILL, SWT.CENTER, true, false));
+		methodCombo.addSelectionListener(new SelectionAdapter() {
+			@Override
+			public void widgetSelected(SelectionEvent e) {
+				showMethod(methodCombo.getSelectionIndex());
+			}
+		});
+
+		tabFolder = new TabFolder(parent, SWT.NONE);
+		tabFolder.setLayoutData(new GridData(SWT.FILL, SWT.FILL, true, true));
 
 		// Aba 1: Enumeração de Nós
 		TabItem nodeTab = new TabItem(tabFolder, SWT.NONE);
@@ -47,11 +94,19 @@ public class AnalysisResultView extends ViewPart {
 		// Aba 2: Tabela Verdade
 		TabItem truthTableTab = new TabItem(tabFolder, SWT.NONE);
 		truthTableTab.setText("Tabela Verdade");
-		truthTableText = new Text(tabFolder, SWT.BORDER | SWT.H_SCROLL | SWT.V_SCROLL | SWT.MULTI);
+		truthTable = new Table(tabFolder, SWT.VIRTUAL | SWT.BORDER | SWT.MULTI | SWT.FULL_SELECTION | SWT.H_SCROLL | SWT.V_SCROLL);
 		Font monoFont = JFaceResources.getFont(JFaceResources.TEXT_FONT); // Fonte monoespaçada
-		truthTableText.setFont(monoFont);
-		truthTableText.setEditable(false);
-		truthTableTab.setControl(truthTableText);
+		truthTable.setFont(monoFont);
+		truthTable.setHeaderVisible(true);
+		truthTable.setLinesVisible(true);
+		// Cada linha só é gerada quando fica visível
+		truthTable.addListener(SWT.SetData, event -> fillTruthTableItem((TableItem) event.item, event.index));
+		truthTable.addListener(SWT.KeyDown, event -> {
+			if ((event.stateMask & SWT.MOD1) != 0 && (event.keyCode == 'c' || event.keyCode == 'C')) {
+				copySelectedRowsToClipboard();
+			}
+		});
+		truthTableTab.setControl(truthTable);
 
 		// Aba 3: Grafo (DOT)
 		TabItem graphTab = new TabItem(tabFolder, SWT.NONE);
@@ -84,37 +139,244 @@ public class AnalysisResultView extends ViewPart {
 
 		graphTab.setControl(graphComposite);
 
+		// Aba 4: Grafo (Visualização)
+		previewTab = new TabItem(tabFolder, SWT.NONE);
+		previewTab.setText("Grafo (Visualização)");
+
+		Composite previewComposite = new Composite(tabFolder, SWT.NONE);
+		previewComposite.setLayout(new GridLayout(1, false));
+
+		graphCanvas = new GraphCanvas(previewComposite, SWT.BORDER);
+		graphCanvas.setLayoutData(new GridData(SWT.FILL, SWT.FILL, true, true));
+
+		Composite previewButtons = new Composite(previewComposite, SWT.NONE);
+		previewButtons.setLayout(new GridLayout(3, false));
+		previewButtons.setLayoutData(new GridData(SWT.FILL, SWT.CENTER, true, false));
+
+		saveSvgButton = new Button(previewButtons, SWT.PUSH);
+		saveSvgButton.setText("💾 Salvar SVG");
+		saveSvgButton.addSelectionListener(new SelectionAdapter() {
+			@Override
+			public void widgetSelected(SelectionEvent e) {
+				saveGraph("*.svg");
+			}
+		});
+
+		savePngButton = new Button(previewButtons, SWT.PUSH);
+		savePngButton.setText("💾 Salvar PNG");
+		savePngButton.addSelectionListener(new SelectionAdapter() {
+			@Override
+			public void widgetSelected(SelectionEvent e) {
+				saveGraph("*.png");
+			}
+		});
+
+		previewStatusLabel = new Label(previewButtons, SWT.NONE);
+		previewStatusLabel.setLayoutData(new GridData(SWT.FILL, SWT.CENTER, true, false));
+
+		previewTab.setControl(previewComposite);
+		// O layout só é calculado quando a aba fica visível
+		tabFolder.addSelectionListener(new SelectionAdapter() {
+			@Override
+			public void widgetSelected(SelectionEvent e) {
+				if (e.item == previewTab) {
+					showGraphPreview();
+				}
+			}
+		});
+
 		// Limpa a view inicialmente
-		displayResults("""
+		methodCombo.setEnabled(false);
+		showResult("""
 			    Selecione um método e use o menu de contexto 'Analisar Código (Capivara)' para começar.
-			    Para visualizar o Grafo DOT utilize:
-			    • Graphviz Online: https://dreampuf.github.io/GraphvizOnline
-			    • Instale na sua máquina o Graphviz (Crie um novo arquivo .dot e rode o comando para gerar o grafo)
+			    O grafo é desenhado na aba 'Grafo (Visualização)', de onde pode ser salvo em SVG ou PNG.
+			    O código DOT da aba 'Grafo (DOT)' também pode ser aberto no Graphviz, se estiver instalado.
 			    """,
-			    "",
+			    null,
 			    "");
 	}
 
-	public void displayResults(String annotatedCode, String truthTable, String dotGraph) {
+	/**
+	 * Exibe os resultados de uma análise. Se o método exibido antes continuar entre os
+	 * resultados, ele permanece selecionado (como na análise ao vivo); senão, é
+	 * exibido o primeiro método.
+	 *
+	 * @param results Os resultados de cada método, na ordem de declaração.
+	 */
+	public void displayResults(List<MethodAnalysis> results) {
 		if (getViewSite() == null || getViewSite().getShell().isDisposed())
 			return;
 
 		getViewSite().getShell().getDisplay().asyncExec(() -> {
-			annotatedCodeText.setText(annotatedCode != null ? annotatedCode : "");
-			truthTableText.setText(truthTable != null ? truthTable : "");
-			dotGraphText.setText(dotGraph != null ? dotGraph : "");
-			copyDotButton.setEnabled(dotGraph != null && !dotGraph.isEmpty());
+			if (methodCombo.isDisposed())
+				return;
+			int previous = methodCombo.getSelectionIndex();
+			String previousName = previous >= 0 ? methodCombo.getItem(previous) : null;
+			int selected = 0;
+			methodResults = results;
+			methodCombo.removeAll();
+			for (MethodAnalysis result : results) {
+				if (result.getMethodName().equals(previousName)) {
+					selected = methodCombo.getItemCount();
+				}
+				methodCombo.add(result.getMethodName());
+			}
+			methodCombo.setEnabled(results.size() > 1);
+			if (!results.isEmpty()) {
+				methodCombo.select(selected);
+				showMethod(selected);
+			}
+			methodCombo.getParent().layout();
 			updateStatus("Análise concluída.");
 		});
 	}
 
+	private void showMethod(int index) {
+		if (index < 0 || index >= methodResults.size())
+			return;
+		MethodAnalysis result = methodResults.get(index);
+		showResult(result.getAnnotatedCode(), result.getTruthTable(), result.getDotGraph());
+		shownMethod = result;
+		if (tabFolder.getSelectionIndex() == tabFolder.indexOf(previewTab)) {
+			showGraphPreview();
+		} else {
+			graphCanvas.setGraphLayout(null);
+		}
+	}
+
+	private void showResult(String annotatedCode, TruthTableRows truthTableRows, String dotGraph) {
+		annotatedCodeText.setText(annotatedCode != null ? annotatedCode : "");
+		showTruthTable(truthTableRows);
+		dotGraphText.setText(dotGraph != null ? dotGraph : "");
+		copyDotButton.setEnabled(dotGraph != null && !dotGraph.isEmpty());
+		shownMethod = null;
+		graphCanvas.setGraphLayout(null);
+		saveSvgButton.setEnabled(false);
+		savePngButton.setEnabled(false);
+	}
+
+	/**
+	 * Desenha o grafo do método exibido, calculando o layout na primeira vez.
+	 */
+	private void showGraphPreview() {
+		MethodAnalysis result = shownMethod;
+		if (result == null || result.getGraph() == null || graphCanvas.isDisposed())
+			return;
+		GraphLayout layout = result.getLayout();
+		if (graphCanvas.getGraphLayout() != layout) {
+			graphCanvas.setGraphLayout(layout);
+		}
+		saveSvgButton.setEnabled(true);
+		savePngButton.setEnabled(true);
+	}
+
+	/**
+	 * Grava o desenho do grafo exibido em um arquivo escolhido pelo usuário.
+	 *
+	 * @param extension {@code *.svg} ou {@code *.png}.
+	 */
+	private void saveGraph(String extension) {
+		GraphLayout layout = graphCanvas.getGraphLayout();
+		if (layout == null)
+			return;
+
+		FileDialog dialog = new FileDialog(getViewSite().getShell(), SWT.SAVE);
+		dialog.setFilterExtensions(new String[] { extension });
+		dialog.setOverwrite(true);
+		String path = dialog.open();
+		if (path == null)
+			return;
+
+		try {
+			if (extension.equals("*.png")) {
+				GraphCanvas.savePng(getViewSite().getShell().getDisplay(), layout, path);
+			} else {
+				try (Writer out = Files.newBufferedWriter(Paths.get(path), StandardCharsets.UTF_8)) {
+					new SvgRenderer().writeSvg(layout, out);
+				}
+			}
+			updateStatus("Grafo salvo em " + path);
+		} catch (IOException | RuntimeException e) {
+			updateStatus("Erro ao salvar o grafo: " + e.getMessage());
+		}
+	}
+
+	/**
+	 * Recria as colunas da tabela e informa apenas a quantidade de linhas; o
+	 * conteúdo é preenchido sob demanda por {@link #fillTruthTableItem}.
+	 */
+	private void showTruthTable(TruthTableRows rows) {
+		if (truthTable.isDisposed())
+			return;
+
+		truthTable.setRedraw(false);
+		try {
+			truthTableRows = rows;
+			truthTable.removeAll();
+			for (TableColumn column : truthTable.getColumns()) {
+				column.dispose();
+			}
+			if (rows == null) {
+				return;
+			}
+			if (rows.getMessage() != null) {
+				addTruthTableColumn("Tabela Verdade");
+				truthTable.setItemCount(1);
+			} else {
+				addTruthTableColumn("Caso");
+				for (String condition : rows.getConditions()) {
+					addTruthTableColumn(condition);
+				}
+				addTruthTableColumn("Resultado (Efeito)");
+				truthTable.setItemCount((int) Math.min(rows.getRowCount(), Integer.MAX_VALUE));
+			}
+			for (TableColumn column : truthTable.getColumns()) {
+				column.pack();
+			}
+		} finally {
+			truthTable.setRedraw(true);
+		}
+	}
+
+	private void addTruthTableColumn(String title) {
+		TableColumn column = new TableColumn(truthTable, SWT.LEFT);
+		column.setText(title);
+		column.setToolTipText(title);
+	}
+
+	private void fillTruthTableItem(TableItem item, int index) {
+		TruthTableRows rows = truthTableRows;
+		if (rows == null)
+			return;
+		if (rows.getMessage() != null) {
+			item.setText(rows.getMessage());
+		} else {
+			item.setText(rows.getRow(index));
+		}
+	}
+
+	private void copySelectedRowsToClipboard() {
+		TruthTableRows rows = truthTableRows;
+		if (rows == null || rows.getMessage() != null)
+			return;
+
+		StringBuilder content = new StringBuilder();
+		for (int index : truthTable.getSelectionIndices()) {
+			content.append(String.join(" | ", rows.getRow(index))).append("\n");
+		}
+		copyToClipboard(content.toString());
+	}
+
 	private void copyDotToClipboard() {
-		String dotContent = dotGraphText.getText();
-		if (dotContent != null && !dotContent.isEmpty()) {
+		copyToClipboard(dotGraphText.getText());
+	}
+
+	private void copyToClipboard(String content) {
+		if (content != null && !content.isEmpty()) {
 			Clipboard clipboard = new Clipboard(getViewSite().getShell().getDisplay());
 			try {
 				TextTransfer textTransfer = TextTransfer.getInstance();
-				clipboard.setContents(new Object[] { dotContent }, new Transfer[] { textTransfer });
+				clipboard.setContents(new Object[] { content }, new Transfer[] { textTransfer });
 				updateStatus("Copiado para a área de transferência!");
 			} finally {
 				clipboard.dispose();
@@ -126,6 +388,10 @@ public class AnalysisResultView extends ViewPart {
 		if (statusLabel != null && !statusLabel.isDisposed()) {
 			statusLabel.setText(message);
 		}
+		if (previewStatusLabel != null && !previewStatusLabel.isDisposed()) {
+			previewStatusLabel.setText(message);
+			previewStatusLabel.getParent().layout();
+		}
 	}
 
 	@Override
@@ -0,0 +1,254 @@
+package br.ufjf.capivara.views;
+
+import org.eclipse.swt.SWT;
+import org.eclipse.swt.graphics.Color;
+import org.eclipse.swt.graphics.GC;
+import org.eclipse.swt.graphics.Image;
+import org.eclipse.swt.graphics.ImageData;
+import org.eclipse.swt.graphics.ImageLoader;
+import org.eclipse.swt.graphics.Point;
+import org.eclipse.swt.graphics.Rectangle;
+import org.eclipse.swt.graphics.Transform;
+import org.eclipse.swt.widgets.Canvas;
+import org.eclipse.swt.widgets.Composite;
+import org.eclipse.swt.widgets.Display;
+import org.eclipse.swt.widgets.ScrollBar;
+
+import br.ufjf.capivara.graph.GraphLayout;
+import br.ufjf.capivara.graph.GraphvizGenerator;
+import br.ufjf.capivara.model.ControlFlowGraph;
+import br.ufjf.capivara.model.ControlFlowGraph.NodeType;
+
+/**
+ * Área de desenho do grafo de fluxo de controle, a partir de um {@link GraphLayout}.
+ * <p>
+ * O desenho tem barras de rolagem próprias e cada pintura desenha apenas os nós e
+ * arestas que cruzam a região exposta, então grafos com milhares de nós rolam sem
+ * redesenhar o grafo inteiro. O mesmo desenho é usado para gravar o grafo em PNG.
+ */
+public class GraphCanvas extends Canvas {
+
+	/** Maior largura ou altura de uma imagem PNG; desenhos maiores são reduzidos. */
+	public static final int MAX_IMAGE_SIZE = 8192;
+
+	private static final int ARROW_LENGTH = 8;
+	private static final int ARROW_WIDTH = 3;
+	private static final int SCROLL_INCREMENT = 24;
+
+	private GraphLayout layout;
+	private int originX;
+	private int originY;
+
+	public GraphCanvas(Composite parent, int style) {
+		super(parent, style | SWT.H_SCROLL | SWT.V_SCROLL | SWT.DOUBLE_BUFFERED | SWT.NO_BACKGROUND);
+		setBackground(getDisplay().getSystemColor(SWT.COLOR_WHITE));
+		addListener(SWT.Paint, event -> {
+			event.gc.setBackground(getDisplay().getSystemColor(SWT.COLOR_WHITE));
+			event.gc.fillRectangle(event.x, event.y, event.width, event.height);
+			if (layout != null) {
+				paint(event.gc, layout, -originX, -originY,
+						new Rectangle(event.x + originX, event.y + originY, event.width, event.height));
+			}
+		});
+		addListener(SWT.Resize, event -> updateScrollBars());
+		getHorizontalBar().addListener(SWT.Selection, event -> scrollTo(getHorizontalBar().getSelection(), originY));
+		getVerticalBar().addListener(SWT.Selection, event -> scrollTo(originX, getVerticalBar().getSelection()));
+	}
+
+	/**
+	 * Troca o grafo exibido, voltando ao canto superior esquerdo.
+	 *
+	 * @param layout O layout do grafo, ou {@code null} para limpar o desenho.
+	 */
+	public void setGraphLayout(GraphLayout layout) {
+		checkWidget();
+		this.layout = layout;
+		originX = 0;
+		originY = 0;
+		updateScrollBars();
+		redraw();
+	}
+
+	public GraphLayout getGraphLayout() {
+		checkWidget();
+		return layout;
+	}
+
+	@Override
+	public Point computeSize(int wHint, int hHint, boolean changed) {
+		checkWidget();
+		// O desenho rola; o tamanho preferido não depende do grafo
+		return new Point(wHint != SWT.DEFAULT ? wHint : 200, hHint != SWT.DEFAULT ? hHint : 200);
+	}
+
+	private void updateScrollBars() {
+		Rectangle client = getClientArea();
+		int width = layout != null ? layout.getWidth() : 0;
+		int height = layout != null ? layout.getHeight() : 0;
+		configure(getHorizontalBar(), width, client.width);
+		configure(getVerticalBar(), height, client.height);
+		scrollTo(getHorizontalBar().getSelection(), getVerticalBar().getSelection());
+	}
+
+	private static void configure(ScrollBar bar, int total, int visible) {
+		bar.setMaximum(Math.max(total, 1));
+		bar.setThumb(Math.max(1, Math.min(total, visible)));
+		bar.setPageIncrement(Math.max(1, visible));
+		bar.setIncrement(SCROLL_INCREMENT);
+		bar.setEnabled(total > visible);
+		if (total <= visible) {
+			bar.setSelection(0);
+		}
+	}
+
+	private void scrollTo(int x, int y) {
+		if (x != originX || y != originY) {
+			originX = x;
+			originY = y;
+			redraw();
+		}
+	}
+
+	/**
+	 * Grava o grafo em um arquivo PNG. Desenhos maiores que {@link #MAX_IMAGE_SIZE} são
+	 * reduzidos proporcionalmente.
+	 *
+	 * @param display O display usado para criar a imagem.
+	 * @param layout  O layout do grafo.
+	 * @param path    O caminho do arquivo.
+	 */
+	public static void savePng(Display display, GraphLayout layout, String path) {
+		double scale = Math.min(1.0,
+				(double) MAX_IMAGE_SIZE / Math.max(layout.getWidth(), layout.getHeight()));
+		int width = Math.max(1, (int) Math.ceil(layout.getWidth() * scale));
+		int height = Math.max(1, (int) Math.ceil(layout.getHeight() * scale));
+		Image image = new Image(display, width, height);
+		try {
+			GC gc = new GC(image);
+			Transform transform = new Transform(display);
+			try {
+				gc.setAntialias(SWT.ON);
+				gc.setTextAntialias(SWT.ON);
+				gc.setBackground(display.getSystemColor(SWT.COLOR_WHITE));
+				gc.fillRectangle(0, 0, width, height);
+				transform.scale((float) scale, (float) scale);
+				gc.setTransform(transform);
+				paint(gc, layout, 0, 0, new Rectangle(0, 0, layout.getWidth(), layout.getHeight()));
+			} finally {
+				transform.dispose();
+				gc.dispose();
+			}
+			ImageData data = image.getImageData();
+			ImageLoader loader = new ImageLoader();
+			loader.data = new ImageData[] { data };
+			loader.save(path, SWT.IMAGE_PNG);
+		} finally {
+			image.dispose();
+		}
+	}
+
+	/**
+	 * Desenha as arestas e os nós que cruzam uma região do desenho.
+	 *
+	 * @param gc      O contexto gráfico.
+	 * @param layout  O layout do grafo.
+	 * @param offsetX O deslocamento horizontal aplicado às coordenadas do layout.
+	 * @param offsetY O deslocamento vertical aplicado às coordenadas do layout.
+	 * @param region  A região a desenhar, em coordenadas do layout.
+	 */
+	private static void paint(GC gc, GraphLayout layout, int offsetX, int offsetY, Rectangle region) {
+		ControlFlowGraph graph = layout.getGraph();
+		Color black = gc.getDevice().getSystemColor(SWT.COLOR_BLACK);
+		Color white = gc.getDevice().getSystemColor(SWT.COLOR_WHITE);
+		int radius = GraphLayout.NODE_RADIUS;
+
+		gc.setForeground(black);
+		gc.setBackground(black);
+		for (int node = 1; node <= graph.getNodeCount(); node++) {
+			for (int edge = graph.edgeStart(node); edge < graph.edgeEnd(node); edge++) {
+				int[] points = layout.getEdgePoints(edge);
+				if (!intersects(points, region)) {
+					continue;
+				}
+				for (int i = 0; i < points.length; i += 2) {
+					points[i] += offsetX;
+					points[i + 1] += offsetY;
+				}
+				gc.drawPolyline(points);
+				fillArrow(gc, points);
+				String label = graph.getEdgeLabel(edge);
+				if (!label.isEmpty()) {
+					gc.drawText(label, (points[0] + points[2]) / 2 + 4, (points[1] + points[3]) / 2, true);
+				}
+			}
+		}
+
+		for (int node = 1; node <= graph.getNodeCount(); node++) {
+			int x = layout.getNodeX(node);
+			int y = layout.getNodeY(node);
+			if (x + radius < region.x || x - radius > region.x + region.width || y + radius < region.y
+					|| y - radius > region.y + region.height) {
+				continue;
+			}
+			x += offsetX;
+			y += offsetY;
+			NodeType nodeType = graph.getNodeType(node);
+			gc.setBackground(white);
+			gc.fillOval(x - radius, y - radius, 2 * radius, 2 * radius);
+			gc.setForeground(toColor(GraphvizGenerator.getNodeColor(nodeType)));
+			gc.drawOval(x - radius, y - radius, 2 * radius, 2 * radius);
+			if ("doublecircle".equals(GraphvizGenerator.getNodeShape(nodeType))) {
+				int inner = radius - 4;
+				gc.drawOval(x - inner, y - inner, 2 * inner, 2 * inner);
+			}
+			gc.setForeground(black);
+			String id = Integer.toString(node);
+			Point extent = gc.textExtent(id);
+			gc.drawText(id, x - extent.x / 2, y - extent.y / 2, true);
+		}
+	}
+
+	private static boolean intersects(int[] points, Rectangle region) {
+		int minX = Integer.MAX_VALUE;
+		int minY = Integer.MAX_VALUE;
+		int maxX = Integer.MIN_VALUE;
+		int maxY = Integer.MIN_VALUE;
+		for (int i = 0; i < points.length; i += 2) {
+			minX = Math.min(minX, points[i]);
+			maxX = Math.max(maxX, points[i]);
+			minY = Math.min(minY, points[i + 1]);
+			maxY = Math.max(maxY, points[i + 1]);
+		}
+		return maxX >= region.x && minX <= region.x + region.width && maxY >= region.y
+				&& minY <= region.y + region.height;
+	}
+
+	/** Desenha a ponta da seta no fim do último trecho da aresta. */
+	private static void fillArrow(GC gc, int[] points) {
+		int last = points.length - 2;
+		double dx = points[last] - points[last - 2];
+		double dy = points[last + 1] - points[last - 1];
+		double length = Math.sqrt(dx * dx + dy * dy);
+		if (length == 0) {
+			return;
+		}
+		double ux = dx / length;
+		double uy = dy / length;
+		int tipX = points[last];
+		int tipY = points[last + 1];
+		double baseX = tipX - ux * ARROW_LENGTH;
+		double baseY = tipY - uy * ARROW_LENGTH;
+		gc.fillPolygon(new int[] { tipX, tipY,
+				(int) Math.round(baseX - uy * ARROW_WIDTH), (int) Math.round(baseY + ux * ARROW_WIDTH),
+				(int) Math.round(baseX + uy * ARROW_WIDTH), (int) Math.round(baseY - ux * ARROW_WIDTH) });
+	}
+
+	/** Converte uma cor do {@link GraphvizGenerator} ({@code #rrggbb} ou {@code black}). */
+	private static Color toColor(String color) {
+		if (!color.startsWith("#")) {
+			return new Color(0, 0, 0);
+		}
+		int rgb = Integer.parseInt(color.substring(1), 16);
+		return new Color(rgb >> 16 & 0xFF, rgb >> 8 & 0xFF, rgb & 0xFF);
+	}
+}